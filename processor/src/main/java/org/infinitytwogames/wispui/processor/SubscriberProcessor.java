@@ -0,0 +1,175 @@
+package org.infinitytwogames.wispui.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@code SubscriberDescriptor} for every class declaring {@code @SubscribeEvent} methods.
+ * <p>
+ * For a class {@code com.example.Hud} the processor writes {@code com.example.Hud$$Subscribers},
+ * which lists each subscriber method with its event type, priority and a lambda calling it.
+ * The EventBus loads the descriptor instead of scanning the class with reflection.
+ * </p>
+ *
+ *
+ *
+ * <h2>Fallback</h2>
+ * <ul>
+ * <li><b>Skipped Classes:</b> No descriptor is written for local or anonymous classes, classes
+ * nested in a private class, or classes with a private subscriber method. The generated code
+ * could not call them; the EventBus scans those classes reflectively as before. Pass
+ * {@code -A}{@value #VERBOSE}{@code =true} to have each skipped class reported as a note.</li>
+ * <li><b>Static Methods:</b> Static subscribers are registered through {@code EventBus.connect(Class)},
+ * which still uses reflection, and are left out of descriptors.</li>
+ * </ul>
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * dependencies {
+ *     annotationProcessor 'org.infinitytwogames:wispui-processor:&lt;version&gt;'
+ * }
+ * </pre>
+ *
+ * @author Infinity Two Games
+ */
+@SupportedAnnotationTypes(SubscriberProcessor.SUBSCRIBE_EVENT)
+@SupportedOptions(SubscriberProcessor.VERBOSE)
+public class SubscriberProcessor extends AbstractProcessor {
+    static final String SUBSCRIBE_EVENT = "org.infinitytwogames.wispui.event.SubscribeEvent";
+    static final String VERBOSE = "wispui.processor.verbose";
+    private static final String EVENT = "org.infinitytwogames.wispui.event.Event";
+    private static final String BUS_PACKAGE = "org.infinitytwogames.wispui.event.bus";
+    private static final String SUFFIX = "$$Subscribers";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement subscribeEvent = processingEnv.getElementUtils().getTypeElement(SUBSCRIBE_EVENT);
+        TypeElement event = processingEnv.getElementUtils().getTypeElement(EVENT);
+        if (subscribeEvent == null || event == null) return false;
+
+        // Group the annotated methods by the class declaring them
+        Map<TypeElement, List<ExecutableElement>> byClass = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(subscribeEvent)) {
+            if (element.getKind() != ElementKind.METHOD) continue;
+            byClass.computeIfAbsent((TypeElement) element.getEnclosingElement(), k -> new ArrayList<>())
+                    .add((ExecutableElement) element);
+        }
+
+        for (Map.Entry<TypeElement, List<ExecutableElement>> entry : byClass.entrySet()) {
+            TypeElement type = entry.getKey();
+            String reason = unsupportedReason(type, entry.getValue());
+            if (reason != null) {
+                // Skipping is expected and harmless, so only report it when asked to
+                if (Boolean.parseBoolean(processingEnv.getOptions().get(VERBOSE))) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                            "No subscriber descriptor for " + type + " (" + reason + "); it will be scanned at runtime.", type);
+                }
+                continue;
+            }
+
+            try {
+                write(type, entry.getValue(), subscribeEvent, event.asType());
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Failed to write subscriber descriptor for " + type + ": " + e.getMessage(), type);
+            }
+        }
+        return false; // Other processors may also look at @SubscribeEvent
+    }
+
+    private String unsupportedReason(TypeElement type, List<ExecutableElement> methods) {
+        for (Element e = type; e instanceof TypeElement t; e = e.getEnclosingElement()) {
+            NestingKind nesting = t.getNestingKind();
+            if (nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS) return "local or anonymous class";
+            if (t.getModifiers().contains(Modifier.PRIVATE)) return "private class";
+        }
+
+        for (ExecutableElement method : methods) {
+            if (method.getModifiers().contains(Modifier.PRIVATE) && !method.getModifiers().contains(Modifier.STATIC)) {
+                return "private method " + method.getSimpleName();
+            }
+        }
+        return null;
+    }
+
+    private void write(TypeElement type, List<ExecutableElement> methods, TypeElement subscribeEvent, TypeMirror event) throws IOException {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        String owner = types.erasure(type.asType()).toString();
+
+        StringBuilder out = new StringBuilder();
+        if (!packageName.isEmpty()) out.append("package ").append(packageName).append(";\n\n");
+        out.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        out.append("@SuppressWarnings({\"rawtypes\", \"unchecked\", \"deprecation\", \"removal\"}) // Listeners may be deprecated themselves\n");
+        out.append("public final class ").append(simpleName).append(" implements ").append(BUS_PACKAGE).append(".SubscriberDescriptor {\n");
+        out.append("    @Override\n");
+        out.append("    public ").append(BUS_PACKAGE).append(".Subscriber[] subscribers() {\n");
+        out.append("        return new ").append(BUS_PACKAGE).append(".Subscriber[] {\n");
+
+        for (ExecutableElement method : methods) {
+            if (method.getModifiers().contains(Modifier.STATIC)) continue;
+            if (method.getParameters().size() != 1) continue;
+
+            TypeMirror parameter = types.erasure(method.getParameters().get(0).asType());
+            if (parameter.getKind() != TypeKind.DECLARED || !types.isAssignable(parameter, event)) continue;
+
+            int priority = 0;
+            boolean receiveConsumed = false;
+            for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+                if (!types.isSameType(mirror.getAnnotationType(), subscribeEvent.asType())) continue;
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+                        : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+                    String name = value.getKey().getSimpleName().toString();
+                    if (name.equals("priority")) priority = (Integer) value.getValue().getValue();
+                    else if (name.equals("receiveConsumed")) receiveConsumed = (Boolean) value.getValue().getValue();
+                }
+            }
+
+            String eventType = parameter.toString();
+            String methodName = method.getSimpleName().toString();
+            out.append("            new ").append(BUS_PACKAGE).append(".Subscriber(")
+                    .append(eventType).append(".class, ")
+                    .append(priority).append(", ")
+                    .append(receiveConsumed).append(", \"")
+                    .append(methodName).append("\",\n");
+            out.append("                    (listener, event) -> ((").append(owner).append(") listener).")
+                    .append(methodName).append("((").append(eventType).append(") event)),\n");
+        }
+
+        out.append("        };\n");
+        out.append("    }\n");
+        out.append("}\n");
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(out.toString());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.infinitytwogames.wispui;
+
+import org.infinitytwogames.wispui.event.bus.EventBus;
+import org.infinitytwogames.wispui.ui.base.UI;
+import org.lwjgl.glfw.GLFW;
+
+/**
+ * A main loop that only draws when something changed and sleeps otherwise.
+ * <p>
+ * A screen that is just sitting there does not need a new frame every few milliseconds.
+ * This loop draws a frame, then waits in {@code glfwWaitEventsTimeout} until input arrives,
+ * another thread posts an event, or the next timed redraw is due, and only draws again if
+ * the UI reports damage.
+ * </p>
+ *
+ *
+ *
+ * <h2>Damage Sources</h2>
+ * <ul>
+ * <li><b>Visual Changes:</b> Setters of {@link UI} and its components bump
+ * {@link UI#getVisualRevision()}. A frame during which the revision moved is followed by another,
+ * so animations driven from {@code update}/{@code draw} keep running until they settle.</li>
+ * <li><b>Timed Redraws:</b> Time-based changes, like a caret blink or a tooltip delay, call
+ * {@link UI#requestRedraw(float)}. The wait ends at the earliest requested time.</li>
+ * <li><b>Window Events:</b> Any input, a resize or an expose triggers a frame, since hover
+ * and tooltips are resolved while drawing.</li>
+ * <li><b>Other Threads:</b> Events queued with {@link EventBus#postAsync} wake the loop up, and so
+ * do textures that finished decoding. Pending texture uploads keep requesting frames until done.</li>
+ * </ul>
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * RenderLoop loop = new RenderLoop(window, () -> {
+ *     Display.clearBufferBits();
+ *     SceneManager.draw();
+ * });
+ * loop.run(); // Returns once the window should close
+ * }</pre>
+ *
+ * @author Infinity Two Games
+ */
+public class RenderLoop {
+    private final Window window;
+    private final Runnable frame;
+    private double maxWait = 1.0; // seconds, upper bound for one sleep
+
+    private volatile boolean woken; // Set by other threads posting events
+    private boolean damaged = true;
+    private int drawnRevision;
+    private long framesDrawn, framesSkipped;
+
+    /**
+     * @param window
+     *         The window to present to and wait on.
+     * @param frame
+     *         Draws one frame, without swapping buffers.
+     */
+    public RenderLoop(Window window, Runnable frame) {
+        if (window == null || frame == null) throw new IllegalArgumentException("Window and frame cannot be null.");
+        this.window = window;
+        this.frame = frame;
+    }
+
+    /**
+     * Runs until the window should close.
+     */
+    public void run() {
+        EventBus.setAsyncWakeup(this::wakeUp);
+        try {
+            while (!window.isShouldClose()) {
+                step();
+            }
+        } finally {
+            EventBus.setAsyncWakeup(null);
+        }
+    }
+
+    /**
+     * Draws a frame if anything is damaged, then waits for the next reason to draw.
+     * For applications running their own loop around this one.
+     *
+     * @return {@code true} if a frame was drawn.
+     */
+    public boolean step() {
+        boolean drawn = damaged || woken || System.nanoTime() >= UI.getRedrawDeadline();
+        if (drawn) {
+            woken = false;
+            UI.clearRedrawDeadline();
+            drawnRevision = UI.getVisualRevision();
+            frame.run();
+            window.swapBuffers();
+            framesDrawn++;
+        } else {
+            framesSkipped++;
+        }
+
+        // Something changed while drawing, like an animation step: draw again right away
+        boolean changing = UI.getVisualRevision() != drawnRevision;
+        damaged = window.waitEvents(changing || woken ? 0 : timeout());
+        damaged |= UI.getVisualRevision() != drawnRevision; // Listeners may have changed the UI
+        return drawn;
+    }
+
+    private double timeout() {
+        long deadline = UI.getRedrawDeadline();
+        if (deadline == Long.MAX_VALUE) return maxWait;
+        double seconds = (deadline - System.nanoTime()) / 1_000_000_000.0;
+        return Math.max(0, Math.min(maxWait, seconds));
+    }
+
+    /**
+     * Wakes the loop from another thread so it draws the next frame.
+     */
+    public void wakeUp() {
+        woken = true;
+        GLFW.glfwPostEmptyEvent();
+    }
+
+    /**
+     * Marks the screen as damaged so the next step draws, e.g. after changing state the UI does not track.
+     */
+    public void invalidate() {
+        damaged = true;
+    }
+
+    public double getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * Sets the longest single sleep in seconds. The loop never sleeps longer even if nothing is scheduled.
+     */
+    public void setMaxWait(double maxWait) {
+        if (maxWait <= 0) throw new IllegalArgumentException("Max wait must be positive, got " + maxWait);
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * @return The number of frames drawn and presented.
+     */
+    public long getFramesDrawn() {
+        return framesDrawn;
+    }
+
+    /**
+     * @return The number of wake-ups that found nothing damaged and drew no frame.
+     */
+    public long getFramesSkipped() {
+        return framesSkipped;
+    }
+}
@@ -1,15 +1,12 @@
 package org.infinitytwogames.wispui;
 
 import org.infinitytwogames.wispui.data.RGBA;
+import org.infinitytwogames.wispui.data.Resource;
 import org.infinitytwogames.wispui.data.ResourceLoader;
 import org.infinitytwogames.wispui.data.template.window.DefaultWindowParameterHint;
 import org.infinitytwogames.wispui.data.template.window.WindowParameterHint;
 import org.infinitytwogames.wispui.event.bus.EventBus;
-import org.infinitytwogames.wispui.event.input.keyboard.CharacterInputEvent;
-import org.infinitytwogames.wispui.event.input.keyboard.KeyPressEvent;
-import org.infinitytwogames.wispui.event.input.mouse.MouseButtonEvent;
-import org.infinitytwogames.wispui.event.input.mouse.MouseCoordinatesEvent;
-import org.infinitytwogames.wispui.event.input.mouse.MouseScrollEvent;
+import org.infinitytwogames.wispui.event.input.InputQueue;
 import org.infinitytwogames.wispui.event.state.WindowResizedEvent;
 import org.joml.Vector2f;
 import org.joml.Vector2i;
@@ -38,6 +35,14 @@ import static org.lwjgl.opengl.GL11.*;
  * utility methods for window state (focus, size, icon).
  * </p>
  *
+ * <h2>Input</h2>
+ * <p>
+ * Mouse and keyboard callbacks only record into an {@link InputQueue}. The queued
+ * events are posted in one pass at the end of {@link #update()}, after polling.
+ * {@link #waitEvents(double)} does the same after sleeping, for loops that only draw on
+ * demand (see {@link RenderLoop}).
+ * </p>
+ *
  * <h2>Threading Note</h2>
  * <p>
  * Most methods in this class, specifically {@link #update()} and {@link #init()},
@@ -63,6 +68,10 @@ public class Window {
     private GLFWCharCallback glfwCharCallback;
     private GLFWScrollCallback scrollCallback;
     private GLFWCursorPosCallback cursorPosCallback;
+    private GLFWWindowRefreshCallback refreshCallback;
+    private boolean damaged; // Resized or exposed since the last event pass, the content must be drawn again
+    
+    private final InputQueue inputQueue = new InputQueue(this);
     
     public int getHeight() {
         return height;
@@ -165,22 +174,32 @@ public class Window {
             public void invoke(long window, int newWidth, int newHeight) {
                 width = newWidth;
                 height = newHeight;
-                EventBus.dispatch(new WindowResizedEvent(width, height, instance));
+                WindowResizedEvent event = WindowResizedEvent.obtain(width, height, instance);
+                EventBus.dispatch(event);
+                event.release();
                 GL11.glViewport(0, 0, width, height);
+                damaged = true;
+            }
+        });
+        
+        glfwSetWindowRefreshCallback(window, refreshCallback = new GLFWWindowRefreshCallback() {
+            @Override
+            public void invoke(long window) {
+                damaged = true;
             }
         });
         
         glfwSetScrollCallback(window, scrollCallback = new GLFWScrollCallback() {
             @Override
             public void invoke(long handle, double x, double y) {
-                if (isFocused()) EventBus.dispatch(new MouseScrollEvent(instance, (int) x, (int) y));
+                if (isFocused()) inputQueue.scroll(x, y);
             }
         });
         
         glfwSetKeyCallback(window, glfwKeyCallback = new GLFWKeyCallback() {
             @Override
             public void invoke(long window, int key, int scancode, int action, int mods) {
-                if (isFocused()) EventBus.dispatch(new KeyPressEvent(key, action, mods));
+                if (isFocused()) inputQueue.key(key, action, mods);
             }
         });
         
@@ -189,7 +208,7 @@ public class Window {
             public void invoke(long window, int button, int action, int mods) {
                 if (isFocused()) {
                     Vector2f p = getMousePosition();
-                    EventBus.dispatch(new MouseButtonEvent(button, action, mods, p.x, p.y, instance));
+                    inputQueue.button(button, action, mods, p.x, p.y);
                 }
             }
         });
@@ -197,14 +216,14 @@ public class Window {
         glfwSetCharCallback(window, glfwCharCallback = new GLFWCharCallback() {
             @Override
             public void invoke(long handle, int codepoint) {
-                if (isFocused()) EventBus.dispatch(new CharacterInputEvent(codepoint, Character.toChars(codepoint)));
+                if (isFocused()) inputQueue.character(codepoint);
             }
         });
         
         glfwSetCursorPosCallback(window, cursorPosCallback = new GLFWCursorPosCallback() {
             @Override
             public void invoke(long window, double x, double y) {
-                if (isFocused()) EventBus.dispatch(MouseCoordinatesEvent.get((float) x, (float) y, instance));
+                if (isFocused()) inputQueue.cursor(x, y);
             }
         });
         
@@ -236,12 +255,49 @@ public class Window {
     }
     
     /**
-     * Swaps the front and back buffers and polls for window events.
-     * Should be called once per frame in the main loop.
+     * Swaps the front and back buffers, polls for window events and dispatches
+     * the input gathered while polling, followed by the events other threads queued
+     * on the global bus. Should be called once per frame in the main loop.
      */
     public void update() {
         glfwSwapBuffers(window);
         glfwPollEvents();
+        dispatchEvents();
+    }
+    
+    /**
+     * Presents the frame drawn since the last swap.
+     */
+    public void swapBuffers() {
+        glfwSwapBuffers(window);
+    }
+    
+    /**
+     * Sleeps until a window event arrives or {@code timeoutSeconds} passed, then dispatches
+     * like {@link #update()} does. A timeout of 0 only polls.
+     *
+     * @return {@code true} if input arrived, the window was resized or exposed, or events
+     * from other threads were delivered, i.e. the screen may need to be drawn again.
+     */
+    public boolean waitEvents(double timeoutSeconds) {
+        if (timeoutSeconds > 0) glfwWaitEventsTimeout(timeoutSeconds);
+        else glfwPollEvents();
+        
+        boolean changed = damaged || inputQueue.size() > 0;
+        damaged = false;
+        return dispatchEvents() > 0 || changed;
+    }
+    
+    private int dispatchEvents() {
+        inputQueue.dispatch();
+        return EventBus.getGlobal().drainAsync();
+    }
+    
+    /**
+     * @return The queue input callbacks record into, e.g. to change its coalescing policy.
+     */
+    public InputQueue getInputQueue() {
+        return inputQueue;
     }
     
     public boolean isShouldClose() {
@@ -262,6 +318,7 @@ public class Window {
         if (framebufferSizeCallback != null) framebufferSizeCallback.free();
         if (scrollCallback != null) scrollCallback.free();
         if (cursorPosCallback != null) cursorPosCallback.free();
+        if (refreshCallback != null) refreshCallback.free();
         
         GLFW.glfwDestroyWindow(window);
     }
@@ -286,23 +343,21 @@ public class Window {
      *         Path to the image file (e.g., "assets/textures/icon.png").
      */
     public void setWindowIcon(String iconPath) {
-        ByteBuffer imageBuffer;
         try (MemoryStack stack = MemoryStack.stackPush()) { // Use MemoryStack for temporary allocations
             IntBuffer w = stack.mallocInt(1);
             IntBuffer h = stack.mallocInt(1);
             IntBuffer comp = stack.mallocInt(1); // Number of components (e.g., 3 for RGB, 4 for RGBA)
             
-            // 1. Load the image into a ByteBuffer
-            try {
-                // Use the helper to load from classpath or filesystem
-                imageBuffer = ResourceLoader.ioResourceToByteBuffer(iconPath, 4 * 1024); // 4KB initial buffer
+            // 1. Load and decode the image; the encoded bytes are released right after
+            ByteBuffer decodedImage;
+            try (Resource icon = ResourceLoader.load(iconPath)) {
+                // Load image using STBImage (expects 4 elements for RGBA)
+                decodedImage = STBImage.stbi_load_from_memory(icon.getBuffer(), w, h, comp, 4);
             } catch (IOException e) {
                 logger.error("Failed to load icon resource: {}", iconPath, e);
                 return;
             }
             
-            // Load image using STBImage (expects 4 elements for RGBA)
-            ByteBuffer decodedImage = STBImage.stbi_load_from_memory(imageBuffer, w, h, comp, 4);
             if (decodedImage == null) {
                 logger.error("Failed to decode image data for icon: {} - {}", iconPath, STBImage.stbi_failure_reason());
                 return;
@@ -0,0 +1,199 @@
+package org.infinitytwogames.wispui.data;
+
+import org.infinitytwogames.wispui.data.template.texture.DefaultParam;
+import org.infinitytwogames.wispui.data.template.texture.TextureParameter;
+import org.infinitytwogames.wispui.renderer.FontRenderer;
+import org.infinitytwogames.wispui.renderer.ShaderProgram;
+import org.lwjgl.stb.STBTTBakedChar;
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runtime reader for pre-baked asset packs written by {@link AssetPackBuilder}.
+ * <p>
+ * A pack is a single indexed file holding decoded RGBA textures, composed atlases
+ * with their region tables, baked font bitmaps with glyph metrics, and shader sources.
+ * The file is memory-mapped through {@link ResourceLoader#load(String)}, and assets
+ * are created straight from slices of the mapping, so nothing is decoded or baked
+ * at startup.
+ * </p>
+ *
+ *
+ *
+ * <h2>File Layout</h2>
+ * <ul>
+ * <li><b>Header:</b> {@code int magic, int version, int entryCount, int indexSize}.</li>
+ * <li><b>Index:</b> Per entry: {@code byte type, short nameLength, UTF-8 name,
+ * long offset, long length, int meta[4]}. The meaning of {@code meta} depends on the type.</li>
+ * <li><b>Payloads:</b> Each entry's bytes, aligned to 16 bytes. All values are little-endian;
+ * baked glyph records are stored in the native {@code stbtt_bakedchar} layout.</li>
+ * </ul>
+ *
+ * <h2>Entry Types</h2>
+ * <ul>
+ * <li><b>TEXTURE:</b> meta = width, height. Payload = RGBA rows, bottom-up.</li>
+ * <li><b>ATLAS:</b> meta = rows, columns, imageWidth, imageHeight. Payload = region count,
+ * sub-rect table, nine-slice table, then the composed RGBA pixels.</li>
+ * <li><b>FONT:</b> meta = bitmap width, bitmap height, glyph count, baked height (float bits).
+ * Payload = glyph records followed by the grayscale bitmap.</li>
+ * <li><b>SHADER:</b> Payload = UTF-8 source. Sources are still compiled by the driver;
+ * program binaries are driver-specific and are not stored.</li>
+ * </ul>
+ *
+ * @author Infinity Two Games
+ */
+public class AssetPack implements AutoCloseable {
+    public static final int MAGIC = 0x4B505357; // "WSPK"
+    public static final int VERSION = 1;
+    static final int ALIGNMENT = 16;
+
+    public enum Type {
+        TEXTURE, ATLAS, FONT, SHADER
+    }
+
+    private record Entry(Type type, long offset, long length, int meta0, int meta1, int meta2, int meta3) {}
+
+    private final Resource resource;
+    private final ByteBuffer data;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private AssetPack(Resource resource) throws IOException {
+        this.resource = resource;
+        this.data = resource.getBuffer().duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+        if (data.remaining() < 16 || data.getInt(0) != MAGIC)
+            throw new IOException("Not an asset pack: " + resource.getName());
+        int version = data.getInt(4);
+        if (version != VERSION)
+            throw new IOException("Unsupported asset pack version " + version + " in " + resource.getName());
+
+        int count = data.getInt(8);
+        data.position(16);
+        for (int i = 0; i < count; i++) {
+            Type type = Type.values()[data.get()];
+            byte[] name = new byte[data.getShort() & 0xFFFF];
+            data.get(name);
+            entries.put(new String(name, StandardCharsets.UTF_8),
+                    new Entry(type, data.getLong(), data.getLong(), data.getInt(), data.getInt(), data.getInt(), data.getInt()));
+        }
+        data.position(0);
+    }
+
+    /**
+     * Opens a pack from the classpath or filesystem. Filesystem packs are memory-mapped.
+     *
+     * @throws IOException If the pack cannot be read or has an unknown format.
+     */
+    public static AssetPack open(String path) throws IOException {
+        Resource resource = ResourceLoader.load(path);
+        try {
+            return new AssetPack(resource);
+        } catch (IOException | RuntimeException e) {
+            resource.close();
+            throw e;
+        }
+    }
+
+    public boolean contains(String name) {
+        return entries.containsKey(name);
+    }
+
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    public Type getType(String name) {
+        return get(name, null).type();
+    }
+
+    /**
+     * @return A little-endian view of an entry's raw payload. Valid until the pack is closed.
+     */
+    public ByteBuffer slice(String name) {
+        Entry entry = get(name, null);
+        return data.slice((int) entry.offset(), (int) entry.length()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public Texture loadTexture(String name) {
+        return loadTexture(name, DefaultParam.get());
+    }
+
+    public Texture loadTexture(String name, TextureParameter param) {
+        Entry entry = get(name, Type.TEXTURE);
+        return new Texture(slice(name), entry.meta0(), entry.meta1(), param);
+    }
+
+    public TextureAtlas loadAtlas(String name) {
+        Entry entry = get(name, Type.ATLAS);
+        ByteBuffer payload = slice(name);
+
+        int regionCount = payload.getInt();
+        int[] subRects = new int[regionCount * 4];
+        int[] sliceInsets = new int[regionCount * 4];
+        payload.asIntBuffer().get(subRects);
+        payload.position(payload.position() + subRects.length * Integer.BYTES);
+        payload.asIntBuffer().get(sliceInsets);
+        payload.position(payload.position() + sliceInsets.length * Integer.BYTES);
+
+        return TextureAtlas.fromPixels(payload.slice(), entry.meta0(), entry.meta1(), entry.meta2(), entry.meta3(),
+                regionCount, subRects, sliceInsets);
+    }
+
+    public FontRenderer loadFont(String name) {
+        Entry entry = get(name, Type.FONT);
+        if (entry.meta0() != FontRenderer.BITMAP_W || entry.meta1() != FontRenderer.BITMAP_H)
+            throw new IllegalStateException("Font \"" + name + "\" was baked at " + entry.meta0() + "x" + entry.meta1()
+                    + " but the renderer expects " + FontRenderer.BITMAP_W + "x" + FontRenderer.BITMAP_H);
+
+        ByteBuffer payload = slice(name);
+        int glyphs = entry.meta2();
+        int glyphBytes = glyphs * STBTTBakedChar.SIZEOF;
+
+        // The renderer owns and frees its glyph table, so copy it out of the mapping
+        STBTTBakedChar.Buffer charData = STBTTBakedChar.malloc(glyphs);
+        MemoryUtil.memCopy(MemoryUtil.memAddress(payload), charData.address(), glyphBytes);
+
+        ByteBuffer bitmap = payload.slice(glyphBytes, entry.meta0() * entry.meta1());
+        return new FontRenderer(charData, bitmap, Float.intBitsToFloat(entry.meta3()));
+    }
+
+    public String loadShader(String name) {
+        get(name, Type.SHADER);
+        ByteBuffer source = slice(name);
+        return MemoryUtil.memUTF8(source, source.remaining(), 0);
+    }
+
+    public ShaderProgram loadProgram(String vertexName, String fragmentName) {
+        return new ShaderProgram(loadShader(vertexName), loadShader(fragmentName));
+    }
+
+    private Entry get(String name, Type expected) {
+        Entry entry = entries.get(name);
+        if (entry == null) throw new IllegalArgumentException("Asset \"" + name + "\" not found in " + resource.getName());
+        if (expected != null && entry.type() != expected)
+            throw new IllegalArgumentException("Asset \"" + name + "\" is a " + entry.type() + ", not a " + expected);
+        return entry;
+    }
+
+    /**
+     * Releases the pack. Slices handed out earlier must not be used afterwards;
+     * GPU objects created from them are unaffected.
+     */
+    public void cleanup() {
+        entries.clear();
+        resource.cleanup();
+    }
+
+    @Override
+    public void close() {
+        cleanup();
+    }
+}
@@ -0,0 +1,217 @@
+package org.infinitytwogames.wispui.data;
+
+import org.infinitytwogames.wispui.renderer.FontRenderer;
+import org.lwjgl.stb.STBImage;
+import org.lwjgl.stb.STBTTBakedChar;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offline tool that bakes assets into a pack readable by {@link AssetPack}.
+ * <p>
+ * Images are decoded, atlases composed and fonts baked here, once, so the game
+ * can map the result at startup instead of repeating the work. None of the steps
+ * need an OpenGL context.
+ * </p>
+ *
+ *
+ *
+ * <h2>Command Line</h2>
+ * <pre>
+ * AssetPackBuilder &lt;output&gt; &lt;entry&gt;...
+ *
+ *   texture:&lt;name&gt;=&lt;path&gt;[@flip]
+ *   atlas:&lt;name&gt;=&lt;rows&gt;x&lt;columns&gt;@&lt;path&gt;,&lt;path&gt;,...
+ *   font:&lt;name&gt;=&lt;path&gt;@&lt;height&gt;
+ *   shader:&lt;name&gt;=&lt;path&gt;
+ * </pre>
+ * <p>
+ * Atlases needing sub-rects or nine-slice insets can be built in code and added
+ * with {@link #addAtlas(String, TextureAtlas)}.
+ * </p>
+ *
+ * @author Infinity Two Games
+ */
+public class AssetPackBuilder {
+    private record Pending(AssetPack.Type type, String name, ByteBuffer payload, int meta0, int meta1, int meta2, int meta3) {}
+
+    private final List<Pending> entries = new ArrayList<>();
+
+    /**
+     * Decodes an image into RGBA. {@code flip} has the same meaning as
+     * {@code TextureParameter.flipTexture()} when loading the image directly.
+     */
+    public AssetPackBuilder addTexture(String name, String path, boolean flip) throws IOException {
+        try (Resource encoded = ResourceLoader.load(path); MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer w = stack.mallocInt(1);
+            IntBuffer h = stack.mallocInt(1);
+            IntBuffer channels = stack.mallocInt(1);
+
+            STBImage.stbi_set_flip_vertically_on_load_thread(flip ? 1 : 0);
+            ByteBuffer image = STBImage.stbi_load_from_memory(encoded.getBuffer(), w, h, channels, 4); // Load as RGBA
+            if (image == null) throw new IOException("Failed to load image " + path + ": " + STBImage.stbi_failure_reason());
+
+            ByteBuffer pixels = ByteBuffer.allocate(image.remaining());
+            pixels.put(image.duplicate()).flip();
+            STBImage.stbi_image_free(image);
+
+            entries.add(new Pending(AssetPack.Type.TEXTURE, name, pixels, w.get(0), h.get(0), 0, 0));
+        }
+        return this;
+    }
+
+    /**
+     * Composes an atlas on the CPU and stores its pixels with the region tables.
+     */
+    public AssetPackBuilder addAtlas(String name, TextureAtlas atlas) {
+        BufferedImage composed = atlas.compose();
+        ByteBuffer pixels = Texture.convertImageToRGBA(composed);
+        int regions = atlas.getRegionCount();
+
+        ByteBuffer payload = ByteBuffer.allocate(Integer.BYTES * (1 + regions * 8) + pixels.remaining())
+                .order(ByteOrder.LITTLE_ENDIAN);
+        payload.putInt(regions);
+        for (int i = 0; i < regions * 4; i++) payload.putInt(atlas.subRects[i]);
+        for (int i = 0; i < regions * 4; i++) payload.putInt(atlas.sliceInsets[i]);
+        payload.put(pixels).flip();
+
+        entries.add(new Pending(AssetPack.Type.ATLAS, name, payload,
+                atlas.getRows(), atlas.getColumns(), atlas.imageWidth, atlas.imageHeight));
+        return this;
+    }
+
+    /**
+     * Bakes a TTF font at the given pixel height, like {@code new FontRenderer(path, height)} does.
+     */
+    public AssetPackBuilder addFont(String name, String path, float height) {
+        float bakedHeight = height * 2; // Same supersampling as the FontRenderer constructor
+        ByteBuffer bitmap = MemoryUtil.memAlloc(FontRenderer.BITMAP_W * FontRenderer.BITMAP_H);
+        try {
+            STBTTBakedChar.Buffer charData = FontRenderer.bake(path, bakedHeight, bitmap);
+            int glyphBytes = charData.capacity() * STBTTBakedChar.SIZEOF;
+
+            ByteBuffer payload = ByteBuffer.allocate(glyphBytes + bitmap.capacity());
+            payload.put(MemoryUtil.memByteBuffer(charData.address(), glyphBytes));
+            payload.put(bitmap.duplicate()).flip();
+
+            entries.add(new Pending(AssetPack.Type.FONT, name, payload, FontRenderer.BITMAP_W, FontRenderer.BITMAP_H,
+                    charData.capacity(), Float.floatToRawIntBits(bakedHeight)));
+            charData.free();
+        } finally {
+            MemoryUtil.memFree(bitmap);
+        }
+        return this;
+    }
+
+    public AssetPackBuilder addShader(String name, String path) throws IOException {
+        try (Resource source = ResourceLoader.load(path)) {
+            return addShaderSource(name, source.asString());
+        }
+    }
+
+    public AssetPackBuilder addShaderSource(String name, String source) {
+        entries.add(new Pending(AssetPack.Type.SHADER, name,
+                ByteBuffer.wrap(source.getBytes(StandardCharsets.UTF_8)), 0, 0, 0, 0));
+        return this;
+    }
+
+    /**
+     * Writes the header, the index and every payload to {@code output}.
+     */
+    public void write(Path output) throws IOException {
+        int indexSize = 0;
+        List<byte[]> names = new ArrayList<>();
+        for (Pending entry : entries) {
+            byte[] name = entry.name().getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xFFFF) throw new IllegalArgumentException("Asset name too long: " + entry.name());
+            names.add(name);
+            indexSize += 1 + 2 + name.length + 8 + 8 + 4 * 4;
+        }
+
+        ByteBuffer index = ByteBuffer.allocate(16 + indexSize).order(ByteOrder.LITTLE_ENDIAN);
+        index.putInt(AssetPack.MAGIC).putInt(AssetPack.VERSION).putInt(entries.size()).putInt(indexSize);
+
+        long offset = align(index.capacity());
+        long[] offsets = new long[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            Pending entry = entries.get(i);
+            offsets[i] = offset;
+
+            index.put((byte) entry.type().ordinal());
+            index.putShort((short) names.get(i).length);
+            index.put(names.get(i));
+            index.putLong(offset).putLong(entry.payload().remaining());
+            index.putInt(entry.meta0()).putInt(entry.meta1()).putInt(entry.meta2()).putInt(entry.meta3());
+
+            offset = align(offset + entry.payload().remaining());
+        }
+        index.flip();
+
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (index.hasRemaining()) channel.write(index);
+            for (int i = 0; i < entries.size(); i++) {
+                ByteBuffer payload = entries.get(i).payload().duplicate();
+                long position = offsets[i];
+                while (payload.hasRemaining()) position += channel.write(payload, position);
+            }
+        }
+    }
+
+    private static long align(long offset) {
+        return (offset + AssetPack.ALIGNMENT - 1) & -AssetPack.ALIGNMENT;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: AssetPackBuilder <output> <type>:<name>=<source>...");
+            System.exit(1);
+        }
+
+        AssetPackBuilder builder = new AssetPackBuilder();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            int colon = arg.indexOf(':');
+            int equals = arg.indexOf('=');
+            if (colon < 0 || equals < colon) throw new IllegalArgumentException("Malformed entry: " + arg);
+
+            String type = arg.substring(0, colon);
+            String name = arg.substring(colon + 1, equals);
+            String source = arg.substring(equals + 1);
+            int at = source.lastIndexOf('@');
+
+            switch (type) {
+                case "texture" -> builder.addTexture(name, at < 0 ? source : source.substring(0, at),
+                        at >= 0 && source.substring(at + 1).equals("flip"));
+                case "font" -> builder.addFont(name, source.substring(0, at), Float.parseFloat(source.substring(at + 1)));
+                case "shader" -> builder.addShader(name, source);
+                case "atlas" -> {
+                    String[] grid = source.substring(0, source.indexOf('@')).split("x");
+                    TextureAtlas atlas = new TextureAtlas(Integer.parseInt(grid[0]), Integer.parseInt(grid[1]));
+                    for (String image : source.substring(source.indexOf('@') + 1).split(",")) {
+                        atlas.addTexture(image, false);
+                    }
+                    builder.addAtlas(name, atlas);
+                }
+                default -> throw new IllegalArgumentException("Unknown entry type: " + type);
+            }
+        }
+
+        Path output = Paths.get(args[0]);
+        builder.write(output);
+        System.out.println("Wrote " + builder.entries.size() + " assets to " + output);
+    }
+}
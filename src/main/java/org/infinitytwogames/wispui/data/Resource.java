@@ -0,0 +1,81 @@
+package org.infinitytwogames.wispui.data;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A loaded asset whose bytes live outside the Java heap.
+ * <p>
+ * Returned by {@link ResourceLoader#load(String)}. The buffer is either a
+ * memory-mapped view of a file or an exactly-sized native allocation, so it
+ * can be handed directly to STB, GLFW or OpenGL without another copy.
+ * </p>
+ *
+ *
+ *
+ * <h2>Lifecycle</h2>
+ * <ul>
+ * <li><b>Native Allocations:</b> Classpath resources packed in a JAR are read into
+ * {@code memAlloc} memory, which is freed immediately by {@link #cleanup()}.</li>
+ * <li><b>Mapped Files:</b> Filesystem resources are mapped with {@code FileChannel.map}.
+ * The JDK only releases a mapping once the buffer is garbage collected, so
+ * {@link #cleanup()} drops the reference and the OS pages are reclaimed lazily.</li>
+ * <li><b>Ownership:</b> The buffer must not be used after the resource is closed.
+ * Use try-with-resources around the code that consumes it.</li>
+ * </ul>
+ *
+ * @author Infinity Two Games
+ */
+public class Resource implements AutoCloseable {
+    private final String name;
+    private final boolean mapped;
+    private final long address; // Base address, so consumers moving the position cannot break the free
+    private ByteBuffer buffer;
+
+    Resource(String name, ByteBuffer buffer, boolean mapped) {
+        this.name = name;
+        this.buffer = buffer;
+        this.mapped = mapped;
+        this.address = MemoryUtil.memAddress0(buffer);
+    }
+
+    /**
+     * @return The resource bytes, positioned at 0 with the limit at the resource size.
+     */
+    public ByteBuffer getBuffer() {
+        if (buffer == null) throw new IllegalStateException("Resource \"" + name + "\" has already been closed.");
+        return buffer;
+    }
+
+    public int size() {
+        return buffer == null ? 0 : buffer.limit();
+    }
+
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The resource decoded as UTF-8 text, e.g. shader sources.
+     */
+    public String asString() {
+        ByteBuffer data = getBuffer();
+        return MemoryUtil.memUTF8(data, data.remaining(), data.position());
+    }
+
+    public void cleanup() {
+        if (buffer == null) return;
+        if (!mapped) MemoryUtil.nmemFree(address);
+        buffer = null;
+    }
+
+    @Override
+    public void close() {
+        cleanup();
+    }
+}
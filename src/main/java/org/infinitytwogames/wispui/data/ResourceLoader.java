@@ -1,14 +1,20 @@
 package org.infinitytwogames.wispui.data;
 
+import org.lwjgl.system.MemoryUtil;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
-import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 import static org.lwjgl.BufferUtils.createByteBuffer;
 
@@ -17,83 +23,136 @@ import static org.lwjgl.BufferUtils.createByteBuffer;
  * <p>
  * This class handles the complexity of locating files whether they are
  * sitting in a developer's local folder or packaged inside a compressed JAR file.
- * It is essential for loading TTF fonts and PNG textures into memory for the GPU.
+ * It is essential for loading TTF fonts, PNG textures, icons and shaders into memory.
  * </p>
  *
  *
  *
  * <h2>Technical Logic</h2>
  * <ul>
- * <li><b>Direct Buffers:</b> Uses {@code ByteBuffer.createByteBuffer()} to allocate
- * memory outside the Java Heap, allowing native libraries (OpenGL/STB) to
- * access the data directly without a performance-heavy copy operation.</li>
- * <li><b>Dynamic Resizing:</b> Implements a growth algorithm (1.5x scaling)
- * when reading from streams of unknown size, ensuring large assets can be loaded
- * without crashing.</li>
+ * <li><b>Zero-Copy Files:</b> Resources that exist on the filesystem (including an
+ * exploded IDE resources folder) are memory-mapped with {@code FileChannel.map}
+ * instead of being read.</li>
+ * <li><b>Exact Sizing:</b> Resources inside a JAR are read into a native buffer sized
+ * from the entry's length, so no grow-and-copy step is needed. Streams of unknown
+ * length fall back to doubling with {@code memRealloc}.</li>
+ * <li><b>Deterministic Release:</b> {@link #load(String)} returns a {@link Resource}
+ * that frees its native memory when closed.</li>
  * <li><b>Dual-Path Strategy:</b> Attempts to load from the Classpath (standard for assets)
  * and falls back to the local Filesystem (useful for external mods or configs).</li>
  * </ul>
  */
 public class ResourceLoader {
+    private static final int UNKNOWN_SIZE_INITIAL = 8 * 1024;
+
+    /**
+     * Loads a resource from the classpath or the filesystem.
+     * <p>
+     * The context class loader is tried first, then this library's class loader,
+     * then the path is treated as an absolute or relative file path.
+     * </p>
+     *
+     * @param resource The path to the resource (e.g., "textures/icon.png").
+     * @return A closeable handle over the resource bytes.
+     * @throws IOException If the resource cannot be found or read.
+     */
+    public static Resource load(String resource) throws IOException {
+        URL url = findResource(resource);
+
+        if (url != null) {
+            if ("file".equals(url.getProtocol())) {
+                try {
+                    return map(resource, Paths.get(url.toURI()));
+                } catch (URISyntaxException | IllegalArgumentException ignored) {
+                    // Fall through to a regular stream read
+                }
+            }
+            return read(resource, url);
+        }
+
+        // Fallback: Try as a direct Absolute or Relative File Path
+        Path path = Paths.get(resource);
+        if (!Files.isReadable(path)) {
+            throw new IOException("Resource not found on classpath or filesystem: " + resource);
+        }
+        return map(resource, path);
+    }
 
     /**
      * Loads a resource into a ByteBuffer, handling both file system and classpath resources.
+     * <p>
+     * The returned buffer is garbage collected rather than explicitly freed. Prefer
+     * {@link #load(String)} so the memory is released as soon as the data is consumed.
+     * </p>
      *
      * @param resource The path to the resource (e.g., "textures/icon.png").
-     * @param bufferSize The initial buffer size. Will be resized if needed.
+     * @param bufferSize Unused, the size is taken from the resource itself.
      * @return A ByteBuffer containing the resource data.
      * @throws IOException If the resource cannot be read.
      */
     public static ByteBuffer ioResourceToByteBuffer(String resource, int bufferSize) throws IOException {
-        ByteBuffer buffer;
-        
-        // 1. Always try the Classpath first.
-        // This is the "Universal" way for both IDE and JAR.
-        InputStream source = ResourceLoader.class.getClassLoader().getResourceAsStream(resource);
-        
-        if (source != null) {
-            // Resource found in JAR or IDE Resources folder
-            try (ReadableByteChannel rbc = Channels.newChannel(source)) {
-                buffer = createByteBuffer(bufferSize);
-                while (true) {
-                    int bytes = rbc.read(buffer);
-                    if (bytes == -1) break;
-                    if (buffer.remaining() == 0) {
-                        buffer = resizeBuffer(buffer, buffer.capacity() * 3 / 2);
-                    }
-                }
-            }
-        } else {
-            // 2. Fallback: Try as a direct Absolute or Relative File Path
-            Path path = Paths.get(resource);
-            if (!Files.isReadable(path)) {
-                throw new IOException("Resource not found on classpath or filesystem: " + resource);
-            }
-            try (SeekableByteChannel fc = Files.newByteChannel(path)) {
-                buffer = createByteBuffer((int) fc.size() + 1);
-                while (fc.read(buffer) != -1);
-            }
+        try (Resource loaded = load(resource)) {
+            ByteBuffer buffer = createByteBuffer(loaded.size());
+            buffer.put(loaded.getBuffer()).flip();
+            return buffer;
         }
-        
-        buffer.flip();
-        return buffer;
     }
-    
+
     public static InputStream getFileFromResourceAsStream(String fileName) {
         ClassLoader classLoader = ResourceLoader.class.getClassLoader();
         InputStream inputStream = classLoader.getResourceAsStream(fileName);
-        
+
         if (inputStream == null) {
             throw new IllegalArgumentException("File not found! " + fileName);
         } else {
             return inputStream;
         }
     }
-    
-    private static ByteBuffer resizeBuffer(ByteBuffer buffer, int newCapacity) {
-        ByteBuffer newBuffer = createByteBuffer(newCapacity);
-        buffer.flip(); // Prepare old buffer for reading
-        newBuffer.put(buffer); // Copy contents
-        return newBuffer;
+
+    private static URL findResource(String resource) {
+        ClassLoader context = Thread.currentThread().getContextClassLoader();
+        URL url = context == null ? null : context.getResource(resource);
+        if (url == null) url = ResourceLoader.class.getClassLoader().getResource(resource);
+        return url;
+    }
+
+    private static Resource map(String name, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Resource(name, buffer, true);
+        }
+    }
+
+    private static Resource read(String name, URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        long length = connection.getContentLengthLong();
+
+        try (InputStream in = connection.getInputStream();
+             ReadableByteChannel channel = Channels.newChannel(in)) {
+            ByteBuffer buffer = MemoryUtil.memAlloc(length >= 0 ? (int) Math.max(1, length) : UNKNOWN_SIZE_INITIAL);
+
+            try {
+                if (length >= 0) {
+                    // Size is known up front (JAR entries report it), read straight into place
+                    buffer.limit((int) length);
+                    while (buffer.hasRemaining() && channel.read(buffer) != -1);
+                } else {
+                    while (channel.read(buffer) != -1) {
+                        if (!buffer.hasRemaining()) {
+                            int position = buffer.position();
+                            buffer = MemoryUtil.memRealloc(buffer, buffer.capacity() * 2);
+                            buffer.limit(buffer.capacity()).position(position);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                MemoryUtil.memFree(buffer);
+                throw e;
+            }
+
+            buffer.flip();
+            return new Resource(name, buffer, false);
+        }
     }
-}
\ No newline at end of file
+}
@@ -120,6 +120,70 @@ public abstract class ShaderFiles {
              }
              """;
 
+    /**
+     * Expands one nine-slice instance into 9 cells (54 vertices) using {@code gl_VertexID}.
+     */
+    public static final String nineSliceVertex = """
+             #version 330 core
+            
+             layout (location = 0) in vec4 aRect;     // x, y, width, height
+             layout (location = 1) in vec4 aUV;       // u0, v0 (top), u1, v1 (bottom)
+             layout (location = 2) in vec4 aUVInset;  // left, top, right, bottom in UV units
+             layout (location = 3) in vec4 aInset;    // left, top, right, bottom in virtual pixels
+             layout (location = 4) in vec4 aColor;
+             layout (location = 5) in vec2 aDepthAngle; // z, angle in degrees
+            
+             uniform mat4 projection;
+            
+             out vec4 vColor;
+             out vec2 vTexCoord;
+            
+             const int CORNERS[6] = int[6](0, 1, 2, 0, 2, 3); // TL, BL, BR, TR
+            
+             void main() {
+                 int cell = gl_VertexID / 6;
+                 int corner = CORNERS[gl_VertexID % 6];
+                 int ix = cell % 3 + (corner >= 2 ? 1 : 0);
+                 int iy = cell / 3 + ((corner == 1 || corner == 2) ? 1 : 0);
+            
+                 vec2 size = aRect.zw;
+            
+                 // Shrink the borders proportionally when the quad is smaller than both borders
+                 vec2 borderSum = max(aInset.xy + aInset.zw, vec2(0.00001));
+                 vec2 fit = min(vec2(1.0), size / borderSum);
+                 vec4 inset = aInset * fit.xyxy;
+            
+                 float xs[4] = float[4](0.0, inset.x, size.x - inset.z, size.x);
+                 float ys[4] = float[4](0.0, inset.y, size.y - inset.w, size.y);
+                 float us[4] = float[4](aUV.x, aUV.x + aUVInset.x, aUV.z - aUVInset.z, aUV.z);
+                 float vs[4] = float[4](aUV.y, aUV.y + aUVInset.y, aUV.w - aUVInset.w, aUV.w);
+            
+                 vec2 local = vec2(xs[ix], ys[iy]) - size * 0.5;
+                 float a = radians(aDepthAngle.y);
+                 vec2 rotated = vec2(local.x * cos(a) - local.y * sin(a), local.x * sin(a) + local.y * cos(a));
+            
+                 gl_Position = projection * vec4(aRect.xy + size * 0.5 + rotated, aDepthAngle.x, 1.0);
+                 vColor = aColor;
+                 vTexCoord = vec2(us[ix], vs[iy]);
+             }
+             """;
+
+    public static final String nineSliceFragment = """
+             #version 330 core
+            
+             in vec4 vColor;
+             in vec2 vTexCoord;
+            
+             uniform sampler2D u_texture;
+            
+             out vec4 FragColor;
+            
+             void main() {
+                 FragColor = texture(u_texture, vTexCoord) * vColor;
+                 if (FragColor.a < 0.005) discard;
+             }
+             """;
+
     public static final String textVertex = """
             #version 330 core
             layout(location = 0) in vec2 inPos;
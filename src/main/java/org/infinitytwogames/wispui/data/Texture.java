@@ -11,12 +11,6 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
-import java.nio.channels.SeekableByteChannel;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
@@ -25,8 +19,20 @@ import static org.lwjgl.opengl.GL30.glGenerateMipmap;
 
 // MODIFIED
 public class Texture {
-    private final int textureID;
+    private int textureID;
     private int width, height;
+    
+    // Only pending handles created by TextureUploader start out not ready
+    private volatile boolean ready = true;
+    private volatile boolean failed, disposed;
+    
+    /**
+     * Creates a pending handle for {@link TextureUploader}. No GL texture exists
+     * until the decoded image is allocated on the GL thread.
+     */
+    Texture() {
+        ready = false;
+    }
 
     public Texture(ByteBuffer imageBuffer, TextureParameter param) {
         textureID = glGenTextures();
@@ -74,19 +80,9 @@ public class Texture {
 
         param.apply();
 
-        ByteBuffer imageBuffer;
-        try {
-            // Attempt to load from classpath resources first, then filesystem
-            imageBuffer = loadResourceToByteBuffer(filePath);
-        } catch (IOException e) {
-            System.err.println("Failed to load texture from resource path: " + filePath + ". Trying filesystem path.");
-            // Fallback to direct file system loading if resource path fails
-            try {
-                imageBuffer = ioResourceToByteBuffer(filePath, 2048); // Initial buffer size
-            } catch (IOException ex) {
-                throw new RuntimeException("Failed to load texture from either resource or filesystem: " + filePath, ex);
-            }
-        }
+        // Attempt to load from classpath resources first, then filesystem
+        Resource imageResource = loadResource(filePath);
+        ByteBuffer imageBuffer = imageResource.getBuffer();
 
         try (MemoryStack stack = MemoryStack.stackPush()) {
             IntBuffer w = stack.mallocInt(1);
@@ -96,6 +92,7 @@ public class Texture {
             // Load image using STBImage
             STBImage.stbi_set_flip_vertically_on_load(param.flipTexture()); // Flip texture vertically
             ByteBuffer image = STBImage.stbi_load_from_memory(imageBuffer, w, h, channels, 4); // Load as RGBA
+            imageResource.cleanup(); // Encoded bytes are no longer needed once decoded
             if (image == null) {
                 throw new RuntimeException("Failed to load image: " + STBImage.stbi_failure_reason());
             }
@@ -122,6 +119,15 @@ public class Texture {
     }
 
     public Texture(BufferedImage image, boolean antiAliasing) {
+        // Convert BufferedImage to RGBA ByteBuffer
+        this(convertImageToRGBA(image), image.getWidth(), image.getHeight(), antiAliasing);
+    }
+    
+    /**
+     * Creates a texture from already decoded RGBA pixels, e.g. a slice of an {@link AssetPack}.
+     * Rows are expected bottom-up, the way OpenGL reads them.
+     */
+    public Texture(ByteBuffer rgba, int width, int height, boolean antiAliasing) {
         textureID = glGenTextures();
         glBindTexture(GL_TEXTURE_2D, textureID);
 
@@ -131,20 +137,33 @@ public class Texture {
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, antiAliasing ? GL_LINEAR : GL_NEAREST);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, antiAliasing ? GL_LINEAR : GL_NEAREST);
 
-        this.width = image.getWidth();
-        this.height = image.getHeight();
-
-        // Convert BufferedImage to RGBA ByteBuffer
-        ByteBuffer buffer = convertImageToRGBA(image);
+        this.width = width;
+        this.height = height;
 
         glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
 
         // Upload to OpenGL
         glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width, height, 0,
-                GL_RGBA, GL_UNSIGNED_BYTE, buffer);
+                GL_RGBA, GL_UNSIGNED_BYTE, rgba);
         glGenerateMipmap(GL_TEXTURE_2D);
     }
     
+    /**
+     * Creates a texture from already decoded RGBA pixels using the given parameters.
+     */
+    public Texture(ByteBuffer rgba, int width, int height, TextureParameter param) {
+        textureID = glGenTextures();
+        glBindTexture(GL_TEXTURE_2D, textureID);
+        
+        param.apply();
+        
+        this.width = width;
+        this.height = height;
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, rgba);
+        
+        param.generateMipmap();
+    }
+    
     public Texture(BufferedImage bufferedImage) {
         this(bufferedImage, false);
     }
@@ -159,19 +178,9 @@ public class Texture {
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, antiAliasing ? GL_LINEAR : GL_NEAREST);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, antiAliasing ? GL_LINEAR : GL_NEAREST);
         
-        ByteBuffer imageBuffer;
-        try {
-            // Attempt to load from classpath resources first, then filesystem
-            imageBuffer = loadResourceToByteBuffer(filePath);
-        } catch (IOException e) {
-            System.err.println("Failed to load texture from resource path: " + filePath + ". Trying filesystem path.");
-            // Fallback to direct file system loading if resource path fails
-            try {
-                imageBuffer = ioResourceToByteBuffer(filePath, 2048); // Initial buffer size
-            } catch (IOException ex) {
-                throw new RuntimeException("Failed to load texture from either resource or filesystem: " + filePath, ex);
-            }
-        }
+        // Attempt to load from classpath resources first, then filesystem
+        Resource imageResource = loadResource(filePath);
+        ByteBuffer imageBuffer = imageResource.getBuffer();
         
         try (MemoryStack stack = MemoryStack.stackPush()) {
             IntBuffer w = stack.mallocInt(1);
@@ -181,6 +190,7 @@ public class Texture {
             // Load image using STBImage
             STBImage.stbi_set_flip_vertically_on_load(true); // Flip texture vertically
             ByteBuffer image = STBImage.stbi_load_from_memory(imageBuffer, w, h, channels, 4); // Load as RGBA
+            imageResource.cleanup(); // Encoded bytes are no longer needed once decoded
             if (image == null) {
                 throw new RuntimeException("Failed to load image: " + STBImage.stbi_failure_reason());
             }
@@ -230,7 +240,7 @@ public class Texture {
         return flippedImage;
     }
 
-    private ByteBuffer convertImageToRGBA(BufferedImage image) {
+    static ByteBuffer convertImageToRGBA(BufferedImage image) {
         int[] pixels = new int[image.getWidth() * image.getHeight()];
         image.getRGB(0, 0, image.getWidth(), image.getHeight(), pixels, 0, image.getWidth());
 
@@ -262,62 +272,60 @@ public class Texture {
     }
 
     public void cleanup() {
-        glDeleteTextures(textureID);
+        disposed = true;
+        ready = false;
+        if (textureID != 0) glDeleteTextures(textureID);
+        textureID = 0;
     }
-
-    // Helper method to load resource into a ByteBuffer, useful for textures.
-    // This tries to load from the classpath, which is generally better for packaged games.
-    private ByteBuffer loadResourceToByteBuffer(String resourcePath) throws IOException {
-        ClassLoader classLoader = getClass().getClassLoader();
-        try (var is = classLoader.getResourceAsStream(resourcePath);
-            ReadableByteChannel rbc = Channels.newChannel(is)) {
-            if (is == null) {
-                throw new IOException("Resource not found: " + resourcePath);
-            }
-            ByteBuffer buffer = BufferUtils.createByteBuffer(2048); // Initial capacity
-            while (true) {
-                int bytes = rbc.read(buffer);
-                if (bytes == -1) break;
-                if (buffer.remaining() == 0) {
-                    buffer = resizeBuffer(buffer, buffer.capacity() * 2);
-                }
-            }
-            buffer.flip();
-            return buffer;
-        }
+    
+    /**
+     * Loads a texture on a background thread and uploads it over the next frames.
+     *
+     * @see TextureUploader#load(String, TextureParameter)
+     */
+    public static Texture loadAsync(String filePath, TextureParameter param) {
+        return TextureUploader.load(filePath, param);
     }
-
-    // Fallback if loadResourceToByteBuffer fails, for direct file system paths
-    private ByteBuffer ioResourceToByteBuffer(String resource, int bufferSize) throws IOException {
-        ByteBuffer buffer;
-        Path path = Paths.get(resource);
-        if (Files.isReadable(path)) {
-            try (SeekableByteChannel fc = Files.newByteChannel(path)) {
-                buffer = BufferUtils.createByteBuffer((int)fc.size() + 1);
-                while (fc.read(buffer) != -1) ;
-            }
-        } else {
-            try (
-                    ReadableByteChannel rbc = Channels.newChannel(getClass().getClassLoader().getResourceAsStream(resource))) {
-                buffer = BufferUtils.createByteBuffer(bufferSize);
-                while (true) {
-                    int bytes = rbc.read(buffer);
-                    if (bytes == -1) break;
-                    if (buffer.remaining() == 0) {
-                        buffer = resizeBuffer(buffer, buffer.capacity() * 2);
-                    }
-                }
-            }
-        }
-        buffer.flip();
-        return buffer;
+    
+    void allocate(int textureID, int width, int height) {
+        this.textureID = textureID;
+        this.width = width;
+        this.height = height;
+    }
+    
+    void markReady() {
+        ready = true;
+    }
+    
+    void markFailed() {
+        failed = true;
+    }
+    
+    boolean isDisposed() {
+        return disposed;
+    }
+    
+    /**
+     * @return {@code true} once the pixel data is fully resident on the GPU.
+     * Textures created through the constructors are always ready.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * @return {@code true} if an asynchronous load could not read or decode its image.
+     */
+    public boolean isFailed() {
+        return failed;
     }
 
-    private ByteBuffer resizeBuffer(ByteBuffer buffer, int newCapacity) {
-        ByteBuffer newBuffer = BufferUtils.createByteBuffer(newCapacity);
-        buffer.flip();
-        newBuffer.put(buffer);
-        return newBuffer;
+    private static Resource loadResource(String filePath) {
+        try {
+            return ResourceLoader.load(filePath);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load texture from either resource or filesystem: " + filePath, e);
+        }
     }
 
     public int getWidth() { return width; }
@@ -6,11 +6,33 @@ import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import static org.lwjgl.opengl.GL11.GL_MAX_TEXTURE_SIZE;
 import static org.lwjgl.opengl.GL11.glGetInteger;
 
+/**
+ * A fixed-grid atlas that packs equally sized images into a single GPU texture.
+ * <p>
+ * Regions are addressed by the index returned when they were added. UV rectangles
+ * for every region are computed once in {@link #build()} and kept in a flat
+ * primitive table, so the renderer can read them every frame without allocating.
+ * </p>
+ *
+ *
+ *
+ * <h2>Region Metadata</h2>
+ * <ul>
+ * <li><b>UV Table:</b> Four floats per region ({@code u0, v0, u1, v1}), read through
+ * {@link #getU0(int)} and friends, or copied with {@link #writeUVCoords(int, float[], int)}.</li>
+ * <li><b>Sub-Rects:</b> {@link #setRegion(int, int, int, int, int)} narrows a region to a
+ * pixel rectangle inside its cell, e.g. for icons smaller than the grid.</li>
+ * <li><b>Nine-Slice Insets:</b> {@link #setNineSlice(int, int, int, int, int)} records the
+ * border widths that stay unscaled when the region is stretched.</li>
+ * </ul>
+ */
 public class TextureAtlas {
     protected int rows;
     protected int columns;
@@ -18,6 +40,12 @@ public class TextureAtlas {
     protected final ArrayList<BufferedImage> images = new ArrayList<>();
     protected Texture plain;
     private boolean isBuilt = false;
+    protected int regionCount;
+    
+    // Flat per-region tables, 4 entries per region
+    protected float[] uvTable = new float[0]; // u0, v0, u1, v1
+    protected int[] subRects = new int[0];    // x, y, width, height in cell pixels (width 0 = full cell)
+    protected int[] sliceInsets = new int[0]; // left, top, right, bottom in pixels
 
     /**
      * Creates a new TextureAtlas class.
@@ -51,6 +79,8 @@ public class TextureAtlas {
             images.add(image);
         } else if (imageWidth == image.getWidth() && imageHeight == image.getHeight()) images.add(image);
         else throw new IllegalStateException("The image must match the size: " + imageWidth + "x" + imageHeight);
+        regionCount = images.size();
+        ensureRegionCapacity(regionCount);
         return images.size()-1;
     }
 
@@ -68,6 +98,8 @@ public class TextureAtlas {
         } else {
             throw new IllegalStateException("The image must match the size: " + imageWidth + "x" + imageHeight);
         }
+        regionCount = images.size();
+        ensureRegionCapacity(regionCount);
     }
 
     public Texture build() {
@@ -84,6 +116,24 @@ public class TextureAtlas {
             plain = null;
         }
 
+        BufferedImage atlas = compose();
+        isBuilt = true;
+
+        plain = new Texture(atlas, true);
+        rebuildUVTable();
+        return plain;
+    }
+    
+    /**
+     * Draws every added image into its grid cell on the CPU, without touching OpenGL.
+     * {@link #build()} uploads the result; {@code AssetPackBuilder} stores it pre-decoded.
+     *
+     * @return The composed atlas image.
+     */
+    public BufferedImage compose() {
+        atlasWidth = imageWidth * columns;
+        atlasHeight = imageHeight * rows;
+
         BufferedImage atlas = new BufferedImage(imageWidth * columns, imageHeight * rows, BufferedImage.TYPE_INT_ARGB);
         Graphics2D graphic = atlas.createGraphics();
 
@@ -124,48 +174,189 @@ public class TextureAtlas {
 
         // Restore the original transform state (identity matrix)
         graphic.setTransform(originalTransform);
-        isBuilt = true;
         graphic.dispose();
-        try {
-            ImageIO.write(atlas,"png",new File("e.png"));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-
-        plain = new Texture(atlas, true);
-        return plain;
+        return atlas;
+    }
+    
+    /**
+     * Recreates a built atlas from pre-composed pixels, as stored by {@link AssetPack}.
+     *
+     * @param rgba Atlas pixels in OpenGL row order, {@code imageWidth * columns} wide.
+     */
+    static TextureAtlas fromPixels(ByteBuffer rgba, int rows, int columns, int imageWidth, int imageHeight,
+                                   int regionCount, int[] subRects, int[] sliceInsets) {
+        TextureAtlas atlas = new TextureAtlas(rows, columns);
+        atlas.imageWidth = imageWidth;
+        atlas.imageHeight = imageHeight;
+        atlas.atlasWidth = imageWidth * columns;
+        atlas.atlasHeight = imageHeight * rows;
+        atlas.regionCount = regionCount;
+        atlas.ensureRegionCapacity(regionCount);
+        System.arraycopy(subRects, 0, atlas.subRects, 0, regionCount * 4);
+        System.arraycopy(sliceInsets, 0, atlas.sliceInsets, 0, regionCount * 4);
+        
+        atlas.plain = new Texture(rgba, atlas.atlasWidth, atlas.atlasHeight, true);
+        atlas.isBuilt = true;
+        atlas.rebuildUVTable();
+        return atlas;
+    }
+    
+    /**
+     * Restricts a region to a pixel rectangle inside its cell.
+     * Coordinates are relative to the top-left corner of the original image.
+     *
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     * @throws IllegalArgumentException  If the rectangle does not fit inside the cell.
+     */
+    public void setRegion(int textureIndex, int x, int y, int width, int height) {
+        checkIndex(textureIndex);
+        if (x < 0 || y < 0 || width <= 0 || height <= 0 || x + width > imageWidth || y + height > imageHeight)
+            throw new IllegalArgumentException("Region " + x + "," + y + " " + width + "x" + height + " does not fit the cell size: " + imageWidth + "x" + imageHeight);
+        
+        int slot = textureIndex * 4;
+        subRects[slot] = x;
+        subRects[slot + 1] = y;
+        subRects[slot + 2] = width;
+        subRects[slot + 3] = height;
+        if (isBuilt) computeUV(textureIndex);
+    }
+    
+    /**
+     * Marks a region as nine-slice artwork. The insets are the widths, in source pixels,
+     * of the borders that keep their size when the region is stretched.
+     *
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     */
+    public void setNineSlice(int textureIndex, int left, int top, int right, int bottom) {
+        checkIndex(textureIndex);
+        if (left < 0 || top < 0 || right < 0 || bottom < 0)
+            throw new IllegalArgumentException("Nine-slice insets cannot be negative");
+        
+        int slot = textureIndex * 4;
+        sliceInsets[slot] = left;
+        sliceInsets[slot + 1] = top;
+        sliceInsets[slot + 2] = right;
+        sliceInsets[slot + 3] = bottom;
+    }
+    
+    public boolean isNineSlice(int textureIndex) {
+        checkIndex(textureIndex);
+        int slot = textureIndex * 4;
+        return (sliceInsets[slot] | sliceInsets[slot + 1] | sliceInsets[slot + 2] | sliceInsets[slot + 3]) != 0;
+    }
+    
+    public int getSliceLeft(int textureIndex) { return sliceInsets[textureIndex * 4]; }
+    public int getSliceTop(int textureIndex) { return sliceInsets[textureIndex * 4 + 1]; }
+    public int getSliceRight(int textureIndex) { return sliceInsets[textureIndex * 4 + 2]; }
+    public int getSliceBottom(int textureIndex) { return sliceInsets[textureIndex * 4 + 3]; }
+    
+    /**
+     * @return The region's width in source pixels, honoring {@link #setRegion(int, int, int, int, int)}.
+     */
+    public int getRegionWidth(int textureIndex) {
+        int width = subRects[textureIndex * 4 + 2];
+        return width == 0 ? imageWidth : width;
+    }
+    
+    /**
+     * @return The region's height in source pixels, honoring {@link #setRegion(int, int, int, int, int)}.
+     */
+    public int getRegionHeight(int textureIndex) {
+        int height = subRects[textureIndex * 4 + 3];
+        return height == 0 ? imageHeight : height;
     }
 
     /**
      * Returns the UV coordinates for the texture at a specific index in the atlas.
+     * <p>
+     * This allocates a new array on every call. Per-frame code should use
+     * {@link #writeUVCoords(int, float[], int)} or the {@code getU0}/{@code getV0}/
+     * {@code getU1}/{@code getV1} accessors instead.
+     * </p>
      *
      * @param textureIndex The 0-indexed position of the texture in the order it was added.
      * @return A float array {uMin, vMin, uMax, vMax} representing the normalized UV coordinates.
      * @throws IndexOutOfBoundsException If the index is out of bounds.
      */
     public float[] getUVCoords(int textureIndex) {
-        if (textureIndex < 0 || textureIndex >= images.size()) {
-            throw new IndexOutOfBoundsException("Texture index " + textureIndex + " out of bounds for atlas containing " + images.size() + " textures.");
+        return writeUVCoords(textureIndex, new float[4], 0); // [u0, v0, u1, v1]
+    }
+    
+    /**
+     * Copies a region's UV rectangle into a caller-provided array without allocating.
+     *
+     * @param textureIndex The 0-indexed position of the texture in the order it was added.
+     * @param dest         The array receiving {uMin, vMin, uMax, vMax}.
+     * @param offset       Where in {@code dest} to start writing.
+     * @return {@code dest}, for chaining.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     * @throws IllegalStateException     If the atlas has not been built yet.
+     */
+    public float[] writeUVCoords(int textureIndex, float[] dest, int offset) {
+        checkIndex(textureIndex);
+        if (!isBuilt) throw new IllegalStateException("Atlas texture has not been built yet.");
+        System.arraycopy(uvTable, textureIndex * 4, dest, offset, 4);
+        return dest;
+    }
+    
+    // Unchecked hot-path accessors. The index must be valid and the atlas built.
+    public float getU0(int textureIndex) { return uvTable[textureIndex * 4]; }
+    public float getV0(int textureIndex) { return uvTable[textureIndex * 4 + 1]; }
+    public float getU1(int textureIndex) { return uvTable[textureIndex * 4 + 2]; }
+    public float getV1(int textureIndex) { return uvTable[textureIndex * 4 + 3]; }
+    
+    /**
+     * @return The number of regions added to the atlas.
+     */
+    public int getRegionCount() {
+        return regionCount;
+    }
+    
+    private void rebuildUVTable() {
+        for (int i = 0; i < regionCount; i++) {
+            computeUV(i);
         }
-
+    }
+    
+    private void computeUV(int textureIndex) {
         int currentColumn = textureIndex % columns;
         int currentRow = textureIndex / columns;
-
-        float uMin = (float) (currentColumn * imageWidth) / atlasWidth;
-        float uMax = (float) ((currentColumn + 1) * imageWidth) / atlasWidth;
-
+        
+        int slot = textureIndex * 4;
+        int x = subRects[slot], y = subRects[slot + 1];
+        int width = getRegionWidth(textureIndex), height = getRegionHeight(textureIndex);
+        
+        float uMin = (float) (currentColumn * imageWidth + x) / atlasWidth;
+        float uMax = (float) (currentColumn * imageWidth + x + width) / atlasWidth;
+        
         // Since the image was flipped when drawn into the atlas (row 0 at the top, but content is flipped),
         // we use the standard OpenGL UV-flip logic: V=0 is bottom, V=1 is top.
-        // We calculate the UVs as if the atlas was drawn *unflipped* from a Java perspective,
-        // and then apply the OpenGL V-flip.
-
-        // This is the V-flip needed for OpenGL when the Java image is built top-down (row 0 at Y=0)
-        float vMax = 1.0f - ((float) (currentRow * imageHeight) / atlasHeight);
-        float vMin = 1.0f - ((float) ((currentRow + 1) * imageHeight) / atlasHeight);
-
-        return new float[]{uMin, vMin, uMax, vMax}; // [u0, v0, u1, v1]
+        // The sub-rect is measured from the top of the source image, which lands at the bottom of its cell.
+        float cellBottom = (currentRow + 1) * imageHeight;
+        float vMin = 1.0f - (cellBottom - y) / atlasHeight;
+        float vMax = 1.0f - (cellBottom - y - height) / atlasHeight;
+        
+        uvTable[slot] = uMin;
+        uvTable[slot + 1] = vMin;
+        uvTable[slot + 2] = uMax;
+        uvTable[slot + 3] = vMax;
+    }
+    
+    private void ensureRegionCapacity(int regions) {
+        int needed = regions * 4;
+        if (uvTable.length >= needed) return;
+        
+        int capacity = Math.max(needed, rows * columns * 4);
+        uvTable = Arrays.copyOf(uvTable, capacity);
+        subRects = Arrays.copyOf(subRects, capacity);
+        sliceInsets = Arrays.copyOf(sliceInsets, capacity);
+    }
+    
+    private void checkIndex(int textureIndex) {
+        if (textureIndex < 0 || textureIndex >= regionCount) {
+            throw new IndexOutOfBoundsException("Texture index " + textureIndex + " out of bounds for atlas containing " + regionCount + " textures.");
+        }
     }
-
 
     public Texture getTexture() {
         if (plain == null) throw new IllegalStateException("Atlas texture has not been built yet.");
@@ -200,6 +391,7 @@ public class TextureAtlas {
 
     public void clear() {
         images.clear();
+        regionCount = 0;
         imageWidth = 0;
         imageHeight = 0;
         atlasWidth = 0;
@@ -207,6 +399,8 @@ public class TextureAtlas {
         if (plain != null) plain.cleanup();
         plain = null;
         isBuilt = false;
+        Arrays.fill(subRects, 0);
+        Arrays.fill(sliceInsets, 0);
     }
 
     public boolean isBuilt() {
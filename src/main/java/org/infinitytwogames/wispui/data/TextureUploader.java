@@ -0,0 +1,272 @@
+package org.infinitytwogames.wispui.data;
+
+import org.infinitytwogames.wispui.data.template.texture.TextureParameter;
+import org.infinitytwogames.wispui.event.bus.EventBus;
+import org.infinitytwogames.wispui.ui.base.UI;
+import org.lwjgl.stb.STBImage;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL21.GL_PIXEL_UNPACK_BUFFER;
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * Streams textures to the GPU without stalling the render thread.
+ * <p>
+ * Images are decoded on a background worker, then copied into a mapped
+ * {@code GL_PIXEL_UNPACK_BUFFER} and uploaded in row bands from the GL thread.
+ * Each frame only uploads up to {@link #setFrameBudget(long) the byte budget},
+ * so a large background or map image is spread across several frames instead
+ * of producing a single long frame.
+ * </p>
+ *
+ *
+ *
+ * <h2>Usage</h2>
+ * <ul>
+ * <li><b>Loading:</b> {@link #load(String, TextureParameter)} returns a {@link Texture}
+ * handle immediately. Check {@link Texture#isReady()} before sampling it.</li>
+ * <li><b>Pumping:</b> {@link #upload()} must be called once per frame on the GL thread.
+ * {@code SceneManager.draw()} already does this. While uploads are pending it requests
+ * another frame, so a {@link org.infinitytwogames.wispui.RenderLoop} keeps pumping them.</li>
+ * <li><b>Placeholders:</b> {@code Image} draws its background color until its texture
+ * reports ready.</li>
+ * </ul>
+ *
+ * @author Infinity Two Games
+ */
+public class TextureUploader {
+    private static final Logger logger = LoggerFactory.getLogger(TextureUploader.class);
+
+    private static final ExecutorService decoder = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "WispUI-TextureDecoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final ConcurrentLinkedQueue<PendingUpload> decoded = new ConcurrentLinkedQueue<>();
+    private static PendingUpload current;
+    private static int pbo;
+    private static long frameBudget = 4L * 1024 * 1024; // 4 MiB per frame
+
+    private TextureUploader() {}
+
+    /**
+     * Queues an image from the classpath or filesystem for asynchronous upload.
+     *
+     * @param path  Resource path or filesystem path of the encoded image.
+     * @param param Texture parameters applied once the storage is allocated.
+     * @return A handle that becomes usable once {@link Texture#isReady()} returns true.
+     */
+    public static Texture load(String path, TextureParameter param) {
+        Texture texture = new Texture();
+        decoder.execute(() -> {
+            if (texture.isDisposed()) return;
+
+            try (Resource encoded = ResourceLoader.load(path)) {
+                decode(texture, encoded.getBuffer(), param, path);
+            } catch (IOException e) {
+                logger.error("Failed to read texture: {}", path, e);
+                texture.markFailed();
+            }
+        });
+        return texture;
+    }
+
+    /**
+     * Queues an already read, encoded image for asynchronous upload.
+     * The buffer must stay valid until the texture is ready.
+     */
+    public static Texture load(ByteBuffer encoded, TextureParameter param) {
+        Texture texture = new Texture();
+        decoder.execute(() -> decode(texture, encoded, param, "<memory>"));
+        return texture;
+    }
+
+    private static void decode(Texture texture, ByteBuffer encoded, TextureParameter param, String name) {
+        if (texture.isDisposed()) return;
+
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer w = stack.mallocInt(1);
+            IntBuffer h = stack.mallocInt(1);
+            IntBuffer channels = stack.mallocInt(1);
+
+            // The flip flag is global in stb_image unless set per thread
+            STBImage.stbi_set_flip_vertically_on_load_thread(param.flipTexture() ? 1 : 0);
+            ByteBuffer image = STBImage.stbi_load_from_memory(encoded, w, h, channels, 4); // Load as RGBA
+            if (image == null) {
+                logger.error("Failed to decode texture {}: {}", name, STBImage.stbi_failure_reason());
+                texture.markFailed();
+                return;
+            }
+
+            decoded.add(new PendingUpload(texture, param, image, w.get(0), h.get(0)));
+            EventBus.wakeUp(); // A render loop sleeping for input would not pump the upload otherwise
+        }
+    }
+
+    /**
+     * Uploads pending texture data until the per-frame byte budget is spent.
+     * Must be called from the thread that owns the GL context.
+     */
+    public static void upload() {
+        long budget = frameBudget;
+
+        while (budget > 0) {
+            if (current == null) {
+                current = decoded.poll();
+                if (current == null) break;
+
+                if (current.texture.isDisposed()) {
+                    current.free();
+                    current = null;
+                    continue;
+                }
+                current.allocate();
+            }
+
+            if (current.texture.isDisposed()) {
+                current.free();
+                current = null;
+                continue;
+            }
+
+            budget -= current.uploadRows(budget);
+
+            if (current.isComplete()) {
+                current.finish();
+                current = null;
+            }
+        }
+
+        // Keep frames coming until everything queued is on the GPU
+        if (!isIdle()) UI.requestRedraw(0);
+    }
+
+    /**
+     * Sets how many bytes of pixel data may be uploaded per call to {@link #upload()}.
+     * At least one row is always uploaded so large textures still make progress.
+     */
+    public static void setFrameBudget(long bytes) {
+        frameBudget = Math.max(1, bytes);
+    }
+
+    public static long getFrameBudget() {
+        return frameBudget;
+    }
+
+    public static boolean isIdle() {
+        return current == null && decoded.isEmpty();
+    }
+
+    /**
+     * Drops all pending uploads and releases the staging buffer. Must be called on the GL thread.
+     */
+    public static void cleanup() {
+        if (current != null) {
+            current.free();
+            current = null;
+        }
+
+        PendingUpload upload;
+        while ((upload = decoded.poll()) != null) upload.free();
+
+        if (pbo != 0) {
+            glDeleteBuffers(pbo);
+            pbo = 0;
+        }
+    }
+
+    private static final class PendingUpload {
+        private final Texture texture;
+        private final TextureParameter param;
+        private final int width, height, rowBytes;
+        private ByteBuffer pixels;
+        private int uploadedRows;
+
+        private PendingUpload(Texture texture, TextureParameter param, ByteBuffer pixels, int width, int height) {
+            this.texture = texture;
+            this.param = param;
+            this.pixels = pixels;
+            this.width = width;
+            this.height = height;
+            this.rowBytes = width * 4;
+        }
+
+        private void allocate() {
+            int id = glGenTextures();
+            glBindTexture(GL_TEXTURE_2D, id);
+            param.apply();
+
+            // Allocate storage only; the pixels arrive in bands through the PBO
+            glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, 0L);
+            glBindTexture(GL_TEXTURE_2D, 0);
+
+            texture.allocate(id, width, height);
+        }
+
+        private long uploadRows(long budget) {
+            int rows = (int) Math.min(height - uploadedRows, Math.max(1, budget / rowBytes));
+            int bytes = rows * rowBytes;
+            ByteBuffer band = MemoryUtil.memSlice(pixels, uploadedRows * rowBytes, bytes);
+
+            if (pbo == 0) pbo = glGenBuffers();
+            glBindBuffer(GL_PIXEL_UNPACK_BUFFER, pbo);
+
+            // Orphan the previous storage so the driver never waits on an in-flight upload
+            glBufferData(GL_PIXEL_UNPACK_BUFFER, bytes, GL_STREAM_DRAW);
+            ByteBuffer mapped = glMapBufferRange(GL_PIXEL_UNPACK_BUFFER, 0, bytes,
+                    GL_MAP_WRITE_BIT | GL_MAP_INVALIDATE_BUFFER_BIT);
+
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+            glBindTexture(GL_TEXTURE_2D, texture.getTextureID());
+
+            if (mapped != null) {
+                MemoryUtil.memCopy(band, mapped);
+                glUnmapBuffer(GL_PIXEL_UNPACK_BUFFER);
+                glTexSubImage2D(GL_TEXTURE_2D, 0, 0, uploadedRows, width, rows, GL_RGBA, GL_UNSIGNED_BYTE, 0L);
+                glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+            } else {
+                // Mapping failed, fall back to a direct upload from client memory
+                glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+                glTexSubImage2D(GL_TEXTURE_2D, 0, 0, uploadedRows, width, rows, GL_RGBA, GL_UNSIGNED_BYTE, band);
+            }
+
+            glBindTexture(GL_TEXTURE_2D, 0);
+            uploadedRows += rows;
+            return bytes;
+        }
+
+        private boolean isComplete() {
+            return uploadedRows >= height;
+        }
+
+        private void finish() {
+            glBindTexture(GL_TEXTURE_2D, texture.getTextureID());
+            param.generateMipmap();
+            glBindTexture(GL_TEXTURE_2D, 0);
+
+            free();
+            texture.markReady();
+            UI.markVisualChange(); // Images drawing the placeholder, or a retained frame that recorded it, must redraw
+        }
+
+        private void free() {
+            if (pixels == null) return;
+            STBImage.stbi_image_free(pixels); // Free the image buffer after uploading to GPU
+            pixels = null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.infinitytwogames.wispui.event;
+
+/**
+ * An event that a listener can claim, so later listeners skip it.
+ * <p>
+ * Once {@link #consume()} is called, the EventBus only calls the remaining listeners
+ * that are annotated with {@code @SubscribeEvent(receiveConsumed = true)}. Combined
+ * with {@link SubscribeEvent#priority()}, this lets the front-most or focused widget
+ * handle an input event without every other widget running its handler too.
+ * </p>
+ *
+ * @author Infinity Two Games
+ */
+public class ConsumableEvent extends Event {
+    private boolean consumed;
+    
+    public void consume() {
+        consumed = true;
+    }
+    
+    public boolean isConsumed() {
+        return consumed;
+    }
+    
+    @Override
+    protected void reset() {
+        consumed = false;
+    }
+}
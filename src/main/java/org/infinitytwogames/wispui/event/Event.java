@@ -1,4 +1,33 @@
 package org.infinitytwogames.wispui.event;
 
+/**
+ * Base class of everything posted on an {@link org.infinitytwogames.wispui.event.bus.EventBus}.
+ * <p>
+ * Frequent events, like input, are recycled through an {@link EventPool} once their
+ * dispatch returns. A listener that keeps a reference to an event past its handler
+ * must call {@link #retain()} first; a retained event is never reused.
+ * </p>
+ */
 public class Event {
+    private boolean retained;
+    
+    /**
+     * Marks this event as kept beyond dispatch, so it is not recycled and its fields stay valid.
+     *
+     * @return This event, for {@code saved = e.retain()}.
+     */
+    public Event retain() {
+        retained = true;
+        return this;
+    }
+    
+    public boolean isRetained() {
+        return retained;
+    }
+    
+    /**
+     * Clears per-dispatch state before the event is reused.
+     */
+    protected void reset() {
+    }
 }
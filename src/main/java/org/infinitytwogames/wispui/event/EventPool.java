@@ -0,0 +1,48 @@
+package org.infinitytwogames.wispui.event;
+
+import java.util.function.Supplier;
+
+/**
+ * A small free list of reusable events.
+ * <p>
+ * Dispatch is synchronous, so an event can be returned to its pool as soon as
+ * {@code post} returns. Nested posts simply obtain another instance. Events that
+ * a listener {@link Event#retain() retained} are dropped instead of recycled.
+ * </p>
+ *
+ *
+ *
+ * <h2>Contract</h2>
+ * <ul>
+ * <li><b>Owner Releases:</b> Whoever obtains an event releases it after posting it.
+ * Listeners never release events they receive.</li>
+ * <li><b>Single Thread:</b> Pools are not synchronized; obtain and release on the thread
+ * that dispatches input.</li>
+ * </ul>
+ *
+ * @author Infinity Two Games
+ */
+public final class EventPool<T extends Event> {
+    private final Supplier<T> factory;
+    private final Object[] free;
+    private int count;
+    
+    public EventPool(Supplier<T> factory, int capacity) {
+        this.factory = factory;
+        this.free = new Object[capacity];
+    }
+    
+    @SuppressWarnings("unchecked")
+    public T obtain() {
+        if (count == 0) return factory.get();
+        T event = (T) free[--count];
+        free[count] = null;
+        return event;
+    }
+    
+    public void release(T event) {
+        if (event == null || event.isRetained() || count == free.length) return;
+        event.reset();
+        free[count++] = event;
+    }
+}
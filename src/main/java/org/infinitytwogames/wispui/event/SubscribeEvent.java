@@ -7,5 +7,15 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface SubscribeEvent {
-
+    /**
+     * Listeners with a higher priority are called first. Listeners with equal
+     * priority keep their registration order.
+     */
+    int priority() default 0;
+    
+    /**
+     * Whether the listener is still called after a {@link ConsumableEvent} was consumed.
+     * Set this for observers that must see every event, e.g. "click outside to close".
+     */
+    boolean receiveConsumed() default false;
 }
@@ -0,0 +1,157 @@
+package org.infinitytwogames.wispui.event.bus;
+
+import org.infinitytwogames.wispui.event.Event;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands events from any thread over to the thread draining an {@link EventBus}.
+ * <p>
+ * Many producers, one consumer. Producers only use atomic swaps and compare-and-set,
+ * so posting from a networking or world thread never blocks on the render thread.
+ * </p>
+ *
+ *
+ *
+ * <h2>Behaviour</h2>
+ * <ul>
+ * <li><b>Back-Pressure:</b> At most {@link #getCapacity()} events are pending. An offer on a full
+ * queue is rejected, so the producer decides whether to drop, retry later or coalesce.</li>
+ * <li><b>Coalescing Keys:</b> An event offered with a key replaces the pending event of that key,
+ * if it has not been drained yet. It keeps the queue position of the first one and does not
+ * count against the capacity again, so a flood of progress updates costs one slot.</li>
+ * <li><b>Frame Budget:</b> {@link #drain(EventBus)} only delivers the events that were pending
+ * when it started. Listeners that post asynchronously are served on the next drain.</li>
+ * </ul>
+ *
+ * @author Infinity Two Games
+ */
+final class AsyncEventQueue {
+    static final int DEFAULT_CAPACITY = 4096;
+
+    // Vyukov-style linked queue: producers swap the tail, the consumer follows next links from the head
+    private final AtomicReference<Node> tail;
+    private Node head; // Consumer only
+
+    private final AtomicInteger size = new AtomicInteger();
+    private final ConcurrentHashMap<Object, Slot> slots = new ConcurrentHashMap<>();
+    private volatile int capacity;
+
+    AsyncEventQueue(int capacity) {
+        setCapacity(capacity);
+        head = new Node(null, null);
+        tail = new AtomicReference<>(head);
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    void setCapacity(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive, got " + capacity);
+        this.capacity = capacity;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * @return {@code false} if the queue is full and the event was dropped.
+     */
+    boolean offer(Event event) {
+        if (!reserve()) return false;
+        enqueue(new Node(event, null));
+        return true;
+    }
+
+    /**
+     * Replaces the pending event of {@code key}, or queues {@code event} if there is none.
+     *
+     * @return {@code false} if the queue is full and the event was dropped.
+     */
+    boolean offer(Object key, Event event) {
+        Slot slot = slots.computeIfAbsent(key, Slot::new);
+        for (;;) {
+            Event pending = slot.get();
+            if (pending != null) {
+                if (slot.compareAndSet(pending, event)) return true; // Coalesced into the queued slot
+                continue;
+            }
+
+            if (!reserve()) return false;
+            if (slot.compareAndSet(null, event)) {
+                enqueue(new Node(null, slot));
+                return true;
+            }
+            size.decrementAndGet(); // Another producer queued the slot first, replace its event instead
+        }
+    }
+
+    /**
+     * Posts the pending events to {@code bus}. Must only be called from one thread.
+     *
+     * @return The number of events delivered.
+     */
+    int drain(EventBus bus) {
+        int budget = size.get();
+        int delivered = 0;
+
+        while (budget-- > 0) {
+            Node next = head.next;
+            if (next == null) break; // A producer swapped the tail but has not linked its node yet
+            head = next;
+
+            Event event = next.event;
+            Slot slot = next.slot;
+            next.event = null;
+            next.slot = null;
+            size.decrementAndGet();
+
+            if (slot != null) {
+                event = slot.getAndSet(null);
+                slots.remove(slot.key, slot); // The next offer for the key starts a fresh slot
+            }
+            if (event == null) continue;
+
+            delivered++;
+            bus.post(event);
+        }
+        return delivered;
+    }
+
+    private boolean reserve() {
+        if (size.incrementAndGet() <= capacity) return true;
+        size.decrementAndGet();
+        return false;
+    }
+
+    private void enqueue(Node node) {
+        Node previous = tail.getAndSet(node);
+        previous.next = node;
+    }
+
+    private static final class Node {
+        private volatile Node next;
+        private Event event;
+        private Slot slot;
+
+        private Node(Event event, Slot slot) {
+            this.event = event;
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Holds the latest event of a coalescing key while it waits in the queue.
+     */
+    private static final class Slot extends AtomicReference<Event> {
+        private final Object key;
+
+        private Slot(Object key) {
+            this.key = key;
+        }
+    }
+}
@@ -1,14 +1,17 @@
 package org.infinitytwogames.wispui.event.bus;
 
+import org.infinitytwogames.wispui.event.ConsumableEvent;
 import org.infinitytwogames.wispui.event.Event;
 import org.infinitytwogames.wispui.event.SubscribeEvent;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
 
 /**
- * A high-performance, reflection-based event distribution system.
+ * A high-performance, annotation-driven event distribution system.
  * <p>
  * The EventBus facilitates loose coupling by allowing objects to communicate
  * without direct references. It supports both instance-based and static
@@ -21,18 +24,75 @@ import java.util.*;
  * in parent classes, supporting deep inheritance in UI components.</li>
  * <li><b>Polymorphic Dispatch:</b> Posting a sub-event (e.g., MouseClickedEvent)
  * will also trigger listeners for the parent event (e.g., MouseEvent or InputEvent).</li>
- * <li><b>Thread Safety (Simulation):</b> Uses local copies of listener lists during
- * dispatch to prevent ConcurrentModificationExceptions.</li>
+ * <li><b>Dispatch Tables:</b> The listeners for each concrete event class are flattened
+ * into a cached array on first post. Only the tables affected by a {@code register} or
+ * {@code unregister} are dropped, so a post is a map lookup plus an array loop with no allocation.</li>
+ * <li><b>Copy-on-Write Storage:</b> Listener arrays are replaced, never mutated, and an identity
+ * index maps each instance to its registrations, so disconnecting a widget only touches its
+ * own registrations, even with hundreds of listeners on the bus.</li>
+ * <li><b>Thread Safety (Simulation):</b> A post iterates over the array it looked up, so
+ * listeners may connect or disconnect during dispatch without a ConcurrentModificationException.</li>
+ * <li><b>Generated Invokers:</b> Subscriber methods are bound to an {@link EventInvoker}
+ * at registration time, so posting calls them directly instead of through reflection.</li>
+ * <li><b>Subscriber Descriptors:</b> Classes compiled with the {@code wispui-processor} annotation
+ * processor ship a generated {@link SubscriberDescriptor}, so registering them needs no reflection.
+ * Other classes are scanned once and the result is cached per class.</li>
+ * <li><b>Priorities:</b> Dispatch tables are sorted by {@link SubscribeEvent#priority()},
+ * highest first, when they are built. Ties keep registration order.</li>
+ * <li><b>Consumption:</b> Once a {@link ConsumableEvent} is consumed, only listeners marked
+ * {@code receiveConsumed} are still called.</li>
+ * <li><b>Weak Subscriptions:</b> {@link #connectWeak(Object)} does not keep the listener alive.
+ * Once it is garbage collected, its entries are dropped on the next post. Widgets should
+ * prefer this, or a {@link EventScope}, so forgotten widgets do not accumulate on the bus.</li>
+ * <li><b>Cross-Thread Posting:</b> Registration and {@link #post(Event)} belong to the render thread.
+ * Other threads use {@link #postAsync(Event)} or {@link #postToRenderThread(Event)}, which queue the
+ * event without locking. The queue is bounded and supports coalescing keys; it is drained once per
+ * frame by {@code Window.update()} for the global bus and by {@code Scene.draw()} for scene buses.</li>
  * </ul>
  */
 public class EventBus {
     private static final EventBus global = new EventBus();
-    private final Map<Class<?>, List<ListenerMethod>> subscribers = new HashMap<>();
+    private static volatile Runnable asyncWakeup;
+    private static final ListenerMethod[] NO_LISTENERS = new ListenerMethod[0];
+    private static final Comparator<ListenerMethod> BY_PRIORITY = (a, b) -> Integer.compare(b.priority, a.priority);
+    
+    // Copy-on-write: arrays are replaced on register/unregister and never mutated in place
+    private final Map<Class<?>, ListenerMethod[]> subscribers = new HashMap<>();
+    private final Map<Class<?>, ListenerMethod[]> dispatchTables = new HashMap<>();
+    
+    // Reverse index, so unregister only touches the lists an instance is actually in
+    private final Map<Object, List<ListenerMethod>> registrations = new IdentityHashMap<>();
+    private final Map<WeakKey, List<ListenerMethod>> weakRegistrations = new HashMap<>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    private final Set<Class<?>> dirtyTypes = new HashSet<>(); // Types holding removed listeners not yet compacted
+    private final AsyncEventQueue async = new AsyncEventQueue(AsyncEventQueue.DEFAULT_CAPACITY);
+    
+    public static EventBus getGlobal() {
+        return global;
+    }
     
     public static void dispatch(Event event) {
         global.post(event);
     }
     
+    /**
+     * Queues an event for the global bus from any thread.
+     *
+     * @see #postAsync(Event)
+     */
+    public static boolean postToRenderThread(Event event) {
+        return global.postAsync(event);
+    }
+    
+    /**
+     * Queues an event for the global bus from any thread, replacing the pending event of {@code key}.
+     *
+     * @see #postAsync(Object, Event)
+     */
+    public static boolean postToRenderThread(Object key, Event event) {
+        return global.postAsync(key, event);
+    }
+    
     /**
      * Registers all non-static methods marked with @SubscribeEvent in the object.
      * <p>
@@ -44,6 +104,15 @@ public class EventBus {
         global.register(obj);
     }
     
+    /**
+     * Registers the object's @SubscribeEvent methods without keeping it reachable.
+     *
+     * @see #registerWeak(Object)
+     */
+    public static void connectWeak(Object obj) {
+        global.registerWeak(obj);
+    }
+    
     public static void disconnect(Object obj) {
         global.unregister(obj);
     }
@@ -74,14 +143,13 @@ public class EventBus {
         
         for (Method method : listenerClass.getDeclaredMethods()) {
             // Only process static methods for static registration
-            if (Modifier.isStatic(method.getModifiers()) && method.isAnnotationPresent(SubscribeEvent.class)) {
+            SubscribeEvent annotation = method.getAnnotation(SubscribeEvent.class);
+            if (Modifier.isStatic(method.getModifiers()) && annotation != null) {
                 Class<?>[] params = method.getParameterTypes();
                 if (params.length == 1 && Event.class.isAssignableFrom(params[0])) {
                     Class<?> eventType = params[0];
-                    method.setAccessible(true); // Allow access to private static methods
-                    global.subscribers
-                            .computeIfAbsent(eventType, k -> new ArrayList<>())
-                            .add(new ListenerMethod(null, method)); // Pass null for instance for static methods
+                    global.add(new ListenerMethod(eventType, null, InvokerFactory.create(method, null), // Pass null for instance for static methods
+                            annotation.priority(), annotation.receiveConsumed()));
                 }
             }
         }
@@ -95,82 +163,293 @@ public class EventBus {
      * </p>
      */
     public void register(Object listenerInstance) {
+        register(listenerInstance, false);
+    }
+    
+    /**
+     * Registers like {@link #register(Object)}, but only holds the listener through a weak reference.
+     * <p>
+     * The listener stops receiving events once nothing else references it, and its entries
+     * are removed automatically. The caller must keep the listener reachable for as long as
+     * it should receive events; a listener that is only referenced by the bus is collected.
+     * </p>
+     */
+    public void registerWeak(Object listenerInstance) {
+        register(listenerInstance, true);
+    }
+    
+    private void register(Object listenerInstance, boolean weak) {
         if (listenerInstance == null) return;
+        expungeCollected();
         
-        Class<?> clazz = listenerInstance.getClass();
-        
-        // --- FIX: Traverse the class hierarchy to find inherited @SubscribeEvent methods ---
-        while (clazz != null && clazz != Object.class) {
-            for (Method method : clazz.getDeclaredMethods()) {
-                if (method.isAnnotationPresent(SubscribeEvent.class)) {
-                    Class<?>[] params = method.getParameterTypes();
-                    if (params.length == 1 && Event.class.isAssignableFrom(params[0])) {
-                        Class<?> eventType = params[0];
-                        
-                        // Check if the method is static (should be handled by the other register overload)
-                        if (!Modifier.isStatic(method.getModifiers())) {
-                            method.setAccessible(true);
-                            subscribers
-                                    .computeIfAbsent(eventType, k -> new ArrayList<>())
-                                    .add(new ListenerMethod(listenerInstance, method));
-                        }
-                    }
-                }
+        // Resolved once per class, from a generated descriptor or by reflection, then cached
+        SubscriberRegistry.Entry[] entries = SubscriberRegistry.get(listenerInstance.getClass());
+        if (entries.length == 0) return;
+        
+        if (weak) {
+            WeakKey key = new WeakKey(listenerInstance, collected);
+            List<ListenerMethod> owned = weakRegistrations.computeIfAbsent(key, k -> new ArrayList<>(entries.length));
+            for (SubscriberRegistry.Entry entry : entries) {
+                ListenerMethod lm = new ListenerMethod(entry.eventType(), null, entry.bindWeak(key), entry.priority(), entry.receiveConsumed());
+                add(lm);
+                owned.add(lm);
+            }
+        } else {
+            List<ListenerMethod> owned = registrations.computeIfAbsent(listenerInstance, k -> new ArrayList<>(entries.length));
+            for (SubscriberRegistry.Entry entry : entries) {
+                ListenerMethod lm = new ListenerMethod(entry.eventType(), listenerInstance, entry.bind(listenerInstance), entry.priority(), entry.receiveConsumed());
+                add(lm);
+                owned.add(lm);
             }
-            clazz = clazz.getSuperclass(); // Move up to the superclass
         }
     }
     
+    private void add(ListenerMethod lm) {
+        ListenerMethod[] current = compact(lm.eventType);
+        ListenerMethod[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = lm;
+        subscribers.put(lm.eventType, updated);
+        invalidate(lm.eventType);
+    }
+    
     public void post(Event event) {
-        Class<?> eventType = event.getClass();
+        expungeCollected();
         
-        // Collect listeners for the event class AND all its superclasses/interfaces
-        List<ListenerMethod> collectedMethods = new ArrayList<>();
-        Set<Class<?>> classesToSearch = new HashSet<>();
+        ListenerMethod[] listeners = dispatchTables.get(event.getClass());
+        if (listeners == null) listeners = buildDispatchTable(event.getClass());
+        ConsumableEvent consumable = event instanceof ConsumableEvent c ? c : null;
         
-        // Start by adding the exact event class
-        classesToSearch.add(eventType);
-        
-        // Add all superclasses and interfaces up to (but excluding) Object
-        Class<?> currentClass = eventType;
-        while (currentClass != null && currentClass != Object.class) {
-            classesToSearch.add(currentClass);
-            
-            // Add all implemented interfaces (e.g., if you have interfaces like Cancellable)
-            classesToSearch.addAll(Arrays.asList(currentClass.getInterfaces()));
+        for (ListenerMethod lm : listeners) {
+            if (lm.removed) continue; // Disconnected by an earlier listener of this post
+            if (consumable != null && !lm.receiveConsumed && consumable.isConsumed()) continue;
             
-            currentClass = currentClass.getSuperclass();
+            try {
+                lm.invoker.invoke(event);
+            } catch (Exception e) {
+                // Wrap in RuntimeException for propagation
+                throw new RuntimeException("Error invoking listener for event " + event.getClass().getSimpleName(), e);
+            }
+        }
+    }
+    
+    /**
+     * Queues an event to be posted on the thread that drains this bus. Safe to call from any thread.
+     * <p>
+     * The event is handed over as-is, so it must not be a pooled event the caller recycles,
+     * and must not be modified after this call.
+     * </p>
+     *
+     * @return {@code false} if {@link #getAsyncCapacity()} events are already pending and this one was dropped.
+     */
+    public boolean postAsync(Event event) {
+        if (event == null) return true;
+        return wake(async.offer(event));
+    }
+    
+    /**
+     * Queues an event like {@link #postAsync(Event)}, but collapses it with the pending event of the same key.
+     * <p>
+     * If an event queued under {@code key} has not been delivered yet, it is replaced by this one and
+     * only the latest value is posted, e.g. one progress update per frame no matter how many were sent.
+     * Keys are compared with {@code equals} and should be stable, such as a task or a constant.
+     * </p>
+     *
+     * @return {@code false} if the queue is full and the event was dropped.
+     */
+    public boolean postAsync(Object key, Event event) {
+        if (event == null) return true;
+        if (key == null) return wake(async.offer(event));
+        return wake(async.offer(key, event));
+    }
+    
+    /**
+     * Sets what runs after an event is queued asynchronously on any bus, e.g. a
+     * {@code glfwPostEmptyEvent} so a render loop waiting for input wakes up to deliver it.
+     * Runs on the posting thread; {@code null} removes it.
+     */
+    public static void setAsyncWakeup(Runnable wakeup) {
+        asyncWakeup = wakeup;
+    }
+    
+    /**
+     * Runs the wakeup set with {@link #setAsyncWakeup(Runnable)}, for other threads that hand work
+     * to the render thread outside the bus, like decoded textures waiting for upload.
+     */
+    public static void wakeUp() {
+        Runnable wakeup = asyncWakeup;
+        if (wakeup != null) wakeup.run();
+    }
+    
+    private static boolean wake(boolean queued) {
+        Runnable wakeup = asyncWakeup;
+        if (queued && wakeup != null) wakeup.run();
+        return queued;
+    }
+    
+    /**
+     * Posts the events queued by {@link #postAsync(Event)}. Call once per frame on the render thread.
+     * <p>
+     * Only events that were pending when the drain started are delivered, so a listener posting
+     * asynchronously cannot keep the frame from finishing.
+     * </p>
+     *
+     * @return The number of events posted.
+     */
+    public int drainAsync() {
+        if (async.size() == 0) return 0;
+        return async.drain(this);
+    }
+    
+    public int getAsyncCapacity() {
+        return async.getCapacity();
+    }
+    
+    /**
+     * Sets how many events may wait in the async queue before {@link #postAsync(Event)} starts rejecting them.
+     */
+    public void setAsyncCapacity(int capacity) {
+        async.setCapacity(capacity);
+    }
+    
+    /**
+     * Flattens the listeners of an event class and all its superclasses/interfaces into one array.
+     */
+    private ListenerMethod[] buildDispatchTable(Class<?> eventType) {
+        Set<Class<?>> classesToSearch = new LinkedHashSet<>();
+        
+        // Exact class first, then superclasses up to (but excluding) Object, then their interfaces
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        for (Class<?> current = eventType; current != null && current != Object.class; current = current.getSuperclass()) {
+            classesToSearch.add(current);
+            pending.addAll(Arrays.asList(current.getInterfaces()));
+        }
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.poll();
+            if (classesToSearch.add(type)) pending.addAll(Arrays.asList(type.getInterfaces()));
         }
         
-        // Search the listener map using the collected class types
+        List<ListenerMethod> collectedMethods = new ArrayList<>();
         for (Class<?> type : classesToSearch) {
-            List<ListenerMethod> methods = subscribers.get(type);
-            if (methods != null) {
-                collectedMethods.addAll(methods);
-            }
+            if (subscribers.containsKey(type)) Collections.addAll(collectedMethods, compact(type));
         }
         
-        if (!collectedMethods.isEmpty()) {
-            // Use a new list to prevent ConcurrentModificationException if a listener unregisters itself
-            for (ListenerMethod lm : new ArrayList<>(collectedMethods)) {
-                try {
-                    lm.method.invoke(lm.instance, event);
-                } catch (Exception e) {
-                    // Wrap in RuntimeException for propagation
-                    throw new RuntimeException("Error invoking listener for event " + event.getClass().getSimpleName(), e);
-                }
-            }
-        }
+        collectedMethods.sort(BY_PRIORITY); // Stable, so equal priorities keep registration order
+        ListenerMethod[] table = collectedMethods.isEmpty() ? NO_LISTENERS : collectedMethods.toArray(NO_LISTENERS);
+        dispatchTables.put(eventType, table);
+        return table;
     }
     
+    /**
+     * Removes every listener method registered for the instance.
+     * <p>
+     * The instance's registrations are found through the reverse index and only
+     * flagged as removed, which is O(1) per method. The affected listener arrays
+     * are compacted in a single pass the next time they are read, so tearing down
+     * a scene with hundreds of widgets does not rebuild an array per widget.
+     * </p>
+     */
     public void unregister(Object listenerInstance) {
         if (listenerInstance == null) return;
+        expungeCollected();
         
-        for (List<ListenerMethod> methods : subscribers.values()) {
-            methods.removeIf(lm -> lm.instance == listenerInstance);
+        markRemoved(registrations.remove(listenerInstance));
+        if (!weakRegistrations.isEmpty()) {
+            markRemoved(weakRegistrations.remove(new WeakKey(listenerInstance, null)));
         }
     }
     
-    private record ListenerMethod(Object instance, Method method) {
+    private void markRemoved(List<ListenerMethod> owned) {
+        if (owned == null) return;
+        
+        for (ListenerMethod lm : owned) {
+            lm.removed = true;
+            if (dirtyTypes.add(lm.eventType)) invalidate(lm.eventType);
+        }
+    }
+    
+    /**
+     * Drops the entries of weak listeners that have been garbage collected.
+     */
+    private void expungeCollected() {
+        Object stale;
+        while ((stale = collected.poll()) != null) {
+            markRemoved(weakRegistrations.remove(stale));
+        }
+    }
+    
+    /**
+     * @return The live listeners of exactly {@code eventType}, dropping removed ones if the type is dirty.
+     */
+    private ListenerMethod[] compact(Class<?> eventType) {
+        ListenerMethod[] current = subscribers.getOrDefault(eventType, NO_LISTENERS);
+        if (!dirtyTypes.remove(eventType)) return current;
+        
+        ListenerMethod[] live = new ListenerMethod[current.length];
+        int count = 0;
+        for (ListenerMethod lm : current) {
+            if (!lm.removed) live[count++] = lm;
+        }
+        
+        if (count == 0) {
+            subscribers.remove(eventType);
+            return NO_LISTENERS;
+        }
+        live = Arrays.copyOf(live, count);
+        subscribers.put(eventType, live);
+        return live;
+    }
+    
+    /**
+     * Drops the cached dispatch tables of every event class that would reach listeners of {@code eventType}.
+     */
+    private void invalidate(Class<?> eventType) {
+        if (eventType == Event.class) {
+            dispatchTables.clear();
+            return;
+        }
+        dispatchTables.keySet().removeIf(eventType::isAssignableFrom);
+    }
+    
+    /**
+     * Weak reference compared by the identity of its referent, for use as a map key.
+     * A cleared key is only equal to itself, so it can still be removed once collected.
+     */
+    static final class WeakKey extends WeakReference<Object> {
+        private final int hash;
+        
+        WeakKey(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof WeakKey other)) return false;
+            Object referent = get();
+            return referent != null && referent == other.get();
+        }
+    }
+    
+    private static final class ListenerMethod {
+        private final Class<?> eventType;
+        private final Object instance;
+        private final EventInvoker invoker;
+        private final int priority;
+        private final boolean receiveConsumed;
+        private boolean removed;
+        
+        private ListenerMethod(Class<?> eventType, Object instance, EventInvoker invoker, int priority, boolean receiveConsumed) {
+            this.eventType = eventType;
+            this.instance = instance;
+            this.invoker = invoker;
+            this.priority = priority;
+            this.receiveConsumed = receiveConsumed;
+        }
     }
 }
@@ -0,0 +1,18 @@
+package org.infinitytwogames.wispui.event.bus;
+
+import org.infinitytwogames.wispui.event.Event;
+
+/**
+ * A direct call into a single {@link org.infinitytwogames.wispui.event.SubscribeEvent} method.
+ * <p>
+ * The EventBus creates one invoker per registered listener method, so dispatch is a
+ * plain interface call instead of {@code Method.invoke}. The event is passed through
+ * as-is; no argument array is allocated.
+ * </p>
+ *
+ * @author Infinity Two Games
+ */
+@FunctionalInterface
+public interface EventInvoker {
+    void invoke(Event event) throws Exception;
+}
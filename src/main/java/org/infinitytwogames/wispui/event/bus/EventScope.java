@@ -0,0 +1,72 @@
+package org.infinitytwogames.wispui.event.bus;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A group of subscriptions that are disconnected together.
+ * <p>
+ * Every {@code Scene} owns a scope, and widgets built for that scene connect through
+ * it instead of straight to the global bus. Closing the scene closes the scope, so
+ * its widgets stop receiving events even if one of them forgot to disconnect.
+ * </p>
+ *
+ *
+ *
+ * <h2>Behavior</h2>
+ * <ul>
+ * <li><b>Weak Members:</b> Listeners are registered with {@link EventBus#registerWeak(Object)}
+ * and the scope only holds weak references, so neither keeps a closed widget alive.</li>
+ * <li><b>Reusable:</b> After {@link #close()} the scope is empty and can accept new listeners.</li>
+ * </ul>
+ *
+ * @author Infinity Two Games
+ */
+public class EventScope implements AutoCloseable {
+    private final EventBus bus;
+    private final List<WeakReference<Object>> members = new ArrayList<>();
+    private int purgeThreshold = 64;
+    
+    public EventScope() {
+        this(EventBus.getGlobal());
+    }
+    
+    public EventScope(EventBus bus) {
+        this.bus = bus;
+    }
+    
+    public void connect(Object listener) {
+        if (listener == null) return;
+        
+        bus.registerWeak(listener);
+        members.add(new WeakReference<>(listener));
+        
+        // Drop references to collected listeners once the list has doubled
+        if (members.size() >= purgeThreshold) {
+            members.removeIf(ref -> ref.get() == null);
+            purgeThreshold = Math.max(64, members.size() * 2);
+        }
+    }
+    
+    public void disconnect(Object listener) {
+        bus.unregister(listener);
+    }
+    
+    public EventBus getBus() {
+        return bus;
+    }
+    
+    /**
+     * Disconnects every listener that joined this scope.
+     */
+    @Override
+    public void close() {
+        for (WeakReference<Object> ref : members) {
+            Object listener = ref.get();
+            if (listener != null) bus.unregister(listener);
+        }
+        members.clear();
+        purgeThreshold = 64;
+    }
+}
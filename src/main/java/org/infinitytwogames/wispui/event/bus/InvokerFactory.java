@@ -0,0 +1,120 @@
+package org.infinitytwogames.wispui.event.bus;
+
+import org.infinitytwogames.wispui.event.Event;
+
+import java.lang.invoke.*;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Spins {@link EventInvoker} implementations for subscriber methods.
+ * <p>
+ * Each subscriber method gets a lambda class generated by {@link LambdaMetafactory}
+ * that calls the method directly, so the JIT sees an ordinary monomorphic call it
+ * can inline. The generated factory is cached per {@link Method}; registering another
+ * instance of the same class only binds the receiver. Weak listeners get a lambda that takes
+ * the receiver as an argument, called after the weak reference is resolved.
+ * </p>
+ *
+ *
+ *
+ * <h2>Fallback</h2>
+ * <ul>
+ * <li><b>Reflection:</b> If a lambda cannot be spun (e.g. the listener lives in a module
+ * that is not open to WispUI), the invoker falls back to {@code Method.invoke}.</li>
+ * </ul>
+ *
+ * @author Infinity Two Games
+ */
+final class InvokerFactory {
+    private static final MethodType INVOKE_TYPE = MethodType.methodType(void.class, Event.class);
+    private static final MethodHandle REFLECTIVE = MethodHandles.zero(EventInvoker.class); // Marks methods that could not be spun
+
+    // Factory handle per method: (receiver)EventInvoker for instance methods, ()EventInvoker for static ones
+    private static final Map<Method, MethodHandle> factories = new ConcurrentHashMap<>();
+    
+    // Receiver-less invokers for weak listeners, whose receiver cannot be captured
+    private static final Map<Method, BiConsumer<Object, Event>> unbound = new ConcurrentHashMap<>();
+    private static final BiConsumer<Object, Event> NOT_SPUN = (target, event) -> {}; // Marks methods that could not be spun
+
+    private InvokerFactory() {}
+
+    static EventInvoker create(Method method, Object instance) {
+        MethodHandle factory = factories.computeIfAbsent(method, InvokerFactory::spin);
+        if (factory != REFLECTIVE) {
+            try {
+                return instance == null ? (EventInvoker) factory.invoke() : (EventInvoker) factory.invoke(instance);
+            } catch (Throwable ignored) {
+                // Fall through to reflection
+            }
+        }
+
+        method.setAccessible(true);
+        return event -> method.invoke(instance, event);
+    }
+
+    /**
+     * Creates an invoker that resolves the receiver on every call, so the listener stays collectable.
+     * Events posted after the receiver is collected are ignored.
+     */
+    static EventInvoker createWeak(Method method, WeakReference<Object> receiver) {
+        BiConsumer<Object, Event> invoker = unbound.computeIfAbsent(method, InvokerFactory::spinUnbound);
+        if (invoker != NOT_SPUN) {
+            return event -> {
+                Object target = receiver.get();
+                if (target != null) invoker.accept(target, event);
+            };
+        }
+        
+        method.setAccessible(true);
+        return event -> {
+            Object target = receiver.get();
+            if (target != null) method.invoke(target, event);
+        };
+    }
+    
+    /**
+     * Spins a {@link BiConsumer} calling {@code method} on the receiver it is given, the weak
+     * counterpart of {@link #spin(Method)}. A JDK interface, because the lambda is defined in the
+     * listener's package and must be able to see it; checked exceptions pass through unchanged.
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Event> spinUnbound(Method method) {
+        if (Modifier.isStatic(method.getModifiers())) return NOT_SPUN;
+        try {
+            Class<?> owner = method.getDeclaringClass();
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            MethodHandle target = lookup.unreflect(method);
+
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), target,
+                    MethodType.methodType(void.class, owner, method.getParameterTypes()[0]));
+            return (BiConsumer<Object, Event>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            return NOT_SPUN;
+        }
+    }
+    
+    private static MethodHandle spin(Method method) {
+        try {
+            Class<?> owner = method.getDeclaringClass();
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            MethodHandle target = lookup.unreflect(method);
+
+            boolean isStatic = Modifier.isStatic(method.getModifiers());
+            MethodType factoryType = isStatic
+                    ? MethodType.methodType(EventInvoker.class)
+                    : MethodType.methodType(EventInvoker.class, owner);
+
+            CallSite site = LambdaMetafactory.metafactory(lookup, "invoke", factoryType, INVOKE_TYPE, target,
+                    MethodType.methodType(void.class, method.getParameterTypes()[0]));
+            return site.getTarget();
+        } catch (Throwable e) {
+            return REFLECTIVE;
+        }
+    }
+}
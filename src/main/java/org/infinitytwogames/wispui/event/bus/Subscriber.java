@@ -0,0 +1,21 @@
+package org.infinitytwogames.wispui.event.bus;
+
+import org.infinitytwogames.wispui.event.Event;
+
+/**
+ * One {@code @SubscribeEvent} method as listed by a {@link SubscriberDescriptor}.
+ *
+ * @param eventType       The method's parameter type.
+ * @param priority        {@code SubscribeEvent.priority()}.
+ * @param receiveConsumed {@code SubscribeEvent.receiveConsumed()}.
+ * @param name            The method name, for diagnostics.
+ * @param handler         Calls the method on a listener instance.
+ * @author Infinity Two Games
+ */
+public record Subscriber(Class<?> eventType, int priority, boolean receiveConsumed, String name, Handler handler) {
+    
+    @FunctionalInterface
+    public interface Handler {
+        void invoke(Object listener, Event event) throws Exception;
+    }
+}
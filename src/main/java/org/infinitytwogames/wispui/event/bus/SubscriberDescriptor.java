@@ -0,0 +1,26 @@
+package org.infinitytwogames.wispui.event.bus;
+
+/**
+ * Lists the {@code @SubscribeEvent} instance methods declared by one class, without reflection.
+ * <p>
+ * Implementations are generated at compile time by the {@code wispui-processor} annotation
+ * processor as {@code <ClassName>$$Subscribers} next to the class they describe. The EventBus
+ * looks them up once per class; classes without one are scanned reflectively instead.
+ * </p>
+ *
+ *
+ *
+ * <h2>Contract</h2>
+ * <ul>
+ * <li><b>Declared Only:</b> A descriptor covers the methods declared by its class, not inherited
+ * ones. Superclasses are described by their own descriptors.</li>
+ * <li><b>Public Constructor:</b> Implementations must be public with a public no-arg constructor.</li>
+ * </ul>
+ *
+ * @author Infinity Two Games
+ */
+public interface SubscriberDescriptor {
+    String SUFFIX = "$$Subscribers";
+    
+    Subscriber[] subscribers();
+}
@@ -0,0 +1,114 @@
+package org.infinitytwogames.wispui.event.bus;
+
+import org.infinitytwogames.wispui.event.Event;
+import org.infinitytwogames.wispui.event.SubscribeEvent;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-class cache of subscriber methods, so registering the 500th {@code Label} does no reflection.
+ * <p>
+ * Each class level is resolved once: from its generated {@link SubscriberDescriptor} if one
+ * exists, otherwise by scanning its declared methods. The flattened list for a concrete class,
+ * including everything it inherits, is cached in a {@link ClassValue}.
+ * </p>
+ *
+ * @author Infinity Two Games
+ */
+final class SubscriberRegistry {
+    private static final Entry[] NONE = new Entry[0];
+    
+    /**
+     * A subscriber method, backed either by a generated handler or by a reflected {@link Method}.
+     */
+    record Entry(Class<?> eventType, int priority, boolean receiveConsumed, Subscriber.Handler handler, Method method) {
+        EventInvoker bind(Object instance) {
+            if (handler == null) return InvokerFactory.create(method, instance);
+            
+            Subscriber.Handler h = handler;
+            return event -> h.invoke(instance, event);
+        }
+        
+        EventInvoker bindWeak(WeakReference<Object> receiver) {
+            if (handler == null) return InvokerFactory.createWeak(method, receiver);
+            
+            Subscriber.Handler h = handler;
+            return event -> {
+                Object target = receiver.get();
+                if (target != null) h.invoke(target, event);
+            };
+        }
+    }
+    
+    private static final ClassValue<Entry[]> declared = new ClassValue<>() {
+        @Override
+        protected Entry[] computeValue(Class<?> type) {
+            Entry[] generated = fromDescriptor(type);
+            return generated != null ? generated : fromReflection(type);
+        }
+    };
+    
+    private static final ClassValue<Entry[]> hierarchy = new ClassValue<>() {
+        @Override
+        protected Entry[] computeValue(Class<?> type) {
+            // Declared methods first, then inherited ones, like the original hierarchy walk
+            List<Entry> entries = new ArrayList<>();
+            for (Class<?> level = type; level != null && level != Object.class; level = level.getSuperclass()) {
+                entries.addAll(List.of(declared.get(level)));
+            }
+            return entries.isEmpty() ? NONE : entries.toArray(NONE);
+        }
+    };
+    
+    private SubscriberRegistry() {}
+    
+    /**
+     * @return Every non-static subscriber method of {@code type} and its superclasses.
+     */
+    static Entry[] get(Class<?> type) {
+        return hierarchy.get(type);
+    }
+    
+    private static Entry[] fromDescriptor(Class<?> type) {
+        Class<?> descriptorClass;
+        try {
+            descriptorClass = Class.forName(type.getName() + SubscriberDescriptor.SUFFIX, true, type.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+        
+        try {
+            SubscriberDescriptor descriptor = (SubscriberDescriptor) descriptorClass.getDeclaredConstructor().newInstance();
+            Subscriber[] subscribers = descriptor.subscribers();
+            Entry[] entries = new Entry[subscribers.length];
+            for (int i = 0; i < subscribers.length; i++) {
+                Subscriber s = subscribers[i];
+                entries[i] = new Entry(s.eventType(), s.priority(), s.receiveConsumed(), s.handler(), null);
+            }
+            return entries;
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            System.err.println("EventBus: Ignoring unusable subscriber descriptor " + descriptorClass.getName() + ": " + e);
+            return null;
+        }
+    }
+    
+    private static Entry[] fromReflection(Class<?> type) {
+        List<Entry> entries = new ArrayList<>();
+        for (Method method : type.getDeclaredMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) continue; // Handled by register(Class)
+            
+            SubscribeEvent annotation = method.getAnnotation(SubscribeEvent.class);
+            if (annotation == null) continue;
+            
+            Class<?>[] params = method.getParameterTypes();
+            if (params.length == 1 && Event.class.isAssignableFrom(params[0])) {
+                entries.add(new Entry(params[0], annotation.priority(), annotation.receiveConsumed(), null, method));
+            }
+        }
+        return entries.isEmpty() ? NONE : entries.toArray(NONE);
+    }
+}
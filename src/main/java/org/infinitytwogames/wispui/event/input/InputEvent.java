@@ -0,0 +1,17 @@
+package org.infinitytwogames.wispui.event.input;
+
+import org.infinitytwogames.wispui.event.ConsumableEvent;
+
+/**
+ * Base class of events produced by the mouse and keyboard.
+ * <p>
+ * Scenes only forward input events to their own bus while they handle input,
+ * so a paused scene's widgets never see them. Other events, such as window
+ * resizes, reach every scene. The widget that handles an input event consumes it,
+ * so lower-priority listeners skip it.
+ * </p>
+ *
+ * @author Infinity Two Games
+ */
+public class InputEvent extends ConsumableEvent {
+}
@@ -0,0 +1,208 @@
+package org.infinitytwogames.wispui.event.input;
+
+import org.infinitytwogames.wispui.Window;
+import org.infinitytwogames.wispui.event.bus.EventBus;
+import org.infinitytwogames.wispui.event.input.keyboard.CharacterInputEvent;
+import org.infinitytwogames.wispui.event.input.keyboard.KeyPressEvent;
+import org.infinitytwogames.wispui.event.input.mouse.MouseButtonEvent;
+import org.infinitytwogames.wispui.event.input.mouse.MouseCoordinatesEvent;
+import org.infinitytwogames.wispui.event.input.mouse.MouseScrollEvent;
+
+/**
+ * Buffers raw input from the GLFW callbacks and dispatches it once per frame.
+ * <p>
+ * GLFW invokes its callbacks from inside {@code glfwPollEvents}. Instead of running the
+ * listener chain there, {@link Window} records each event into this queue, and
+ * {@link Window#update()} calls {@link #dispatch()} right after polling. Events are stored
+ * in preallocated primitive arrays, so recording never allocates, and are posted as pooled
+ * event objects that are recycled once their dispatch returns.
+ * </p>
+ *
+ *
+ *
+ * <h2>Coalescing</h2>
+ * <ul>
+ * <li><b>Cursor Moves:</b> A cursor move directly following another one replaces it, so
+ * a fast mouse produces one {@link MouseCoordinatesEvent} per frame instead of several.</li>
+ * <li><b>Scrolling:</b> Consecutive scroll deltas are summed. Fractional trackpad deltas
+ * add up before they are truncated to whole steps.</li>
+ * <li><b>Ordering:</b> Only adjacent events merge. A click between two moves keeps both
+ * moves, so every listener still sees the cursor where the button was pressed.</li>
+ * <li><b>Configuration:</b> {@link #setCoalesceCursor(boolean)} and
+ * {@link #setCoalesceScroll(boolean)} turn either policy off.</li>
+ * </ul>
+ *
+ * @author Infinity Two Games
+ */
+public class InputQueue {
+    private static final int CURSOR = 0, SCROLL = 1, KEY = 2, BUTTON = 3, CHARACTER = 4;
+    
+    private final Window window;
+    private final EventBus bus;
+    
+    // Slot i uses kinds[i], values[2i..2i+1] and codes[3i..3i+2]
+    private int[] kinds;
+    private double[] values;
+    private int[] codes;
+    private int mask;
+    private int head, size;
+    
+    private boolean coalesceCursor = true;
+    private boolean coalesceScroll = true;
+    
+    public InputQueue(Window window) {
+        this(window, EventBus.getGlobal(), 256);
+    }
+    
+    /**
+     * @param capacity Initial number of slots, rounded up to a power of two. The queue only
+     *                 grows if more events than this arrive within a single frame.
+     */
+    public InputQueue(Window window, EventBus bus, int capacity) {
+        this.window = window;
+        this.bus = bus;
+        allocate(Integer.highestOneBit(Math.max(2, capacity - 1)) << 1);
+    }
+    
+    private void allocate(int capacity) {
+        kinds = new int[capacity];
+        values = new double[capacity * 2];
+        codes = new int[capacity * 3];
+        mask = capacity - 1;
+    }
+    
+    public void cursor(double x, double y) {
+        int last = last();
+        if (coalesceCursor && last >= 0 && kinds[last] == CURSOR) {
+            values[last * 2] = x;
+            values[last * 2 + 1] = y;
+            return;
+        }
+        push(CURSOR, x, y, 0, 0, 0);
+    }
+    
+    public void scroll(double dx, double dy) {
+        int last = last();
+        if (coalesceScroll && last >= 0 && kinds[last] == SCROLL) {
+            values[last * 2] += dx;
+            values[last * 2 + 1] += dy;
+            return;
+        }
+        push(SCROLL, dx, dy, 0, 0, 0);
+    }
+    
+    public void key(int key, int action, int mods) {
+        push(KEY, 0, 0, key, action, mods);
+    }
+    
+    public void button(int button, int action, int mods, double x, double y) {
+        push(BUTTON, x, y, button, action, mods);
+    }
+    
+    public void character(int codepoint) {
+        push(CHARACTER, 0, 0, codepoint, 0, 0);
+    }
+    
+    /**
+     * Posts every queued event in arrival order and empties the queue.
+     * Must be called from the main thread, outside of {@code glfwPollEvents}.
+     */
+    public void dispatch() {
+        while (size > 0) {
+            int slot = head;
+            head = (head + 1) & mask;
+            size--;
+            
+            double a = values[slot * 2], b = values[slot * 2 + 1];
+            int c0 = codes[slot * 3], c1 = codes[slot * 3 + 1], c2 = codes[slot * 3 + 2];
+            
+            switch (kinds[slot]) {
+                case CURSOR -> bus.post(MouseCoordinatesEvent.get((float) a, (float) b, window));
+                case SCROLL -> {
+                    MouseScrollEvent event = MouseScrollEvent.obtain(window, (int) a, (int) b);
+                    bus.post(event);
+                    event.release();
+                }
+                case KEY -> {
+                    KeyPressEvent event = KeyPressEvent.obtain(c0, c1, c2);
+                    bus.post(event);
+                    event.release();
+                }
+                case BUTTON -> {
+                    MouseButtonEvent event = MouseButtonEvent.obtain(c0, c1, c2, (float) a, (float) b, window);
+                    bus.post(event);
+                    event.release();
+                }
+                case CHARACTER -> {
+                    CharacterInputEvent event = CharacterInputEvent.obtain(c0);
+                    bus.post(event);
+                    event.release();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Drops all queued events, e.g. when the window loses focus.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isCoalesceCursor() {
+        return coalesceCursor;
+    }
+    
+    public void setCoalesceCursor(boolean coalesceCursor) {
+        this.coalesceCursor = coalesceCursor;
+    }
+    
+    public boolean isCoalesceScroll() {
+        return coalesceScroll;
+    }
+    
+    public void setCoalesceScroll(boolean coalesceScroll) {
+        this.coalesceScroll = coalesceScroll;
+    }
+    
+    private int last() {
+        return size == 0 ? -1 : (head + size - 1) & mask;
+    }
+    
+    private void push(int kind, double a, double b, int c0, int c1, int c2) {
+        if (size == kinds.length) grow();
+        
+        int slot = (head + size) & mask;
+        kinds[slot] = kind;
+        values[slot * 2] = a;
+        values[slot * 2 + 1] = b;
+        codes[slot * 3] = c0;
+        codes[slot * 3 + 1] = c1;
+        codes[slot * 3 + 2] = c2;
+        size++;
+    }
+    
+    /**
+     * Doubles the capacity, unwrapping the ring so the oldest event is at slot 0.
+     */
+    private void grow() {
+        int capacity = kinds.length;
+        int[] oldKinds = kinds;
+        double[] oldValues = values;
+        int[] oldCodes = codes;
+        
+        allocate(capacity * 2);
+        for (int i = 0; i < size; i++) {
+            int from = (head + i) & (capacity - 1);
+            kinds[i] = oldKinds[from];
+            System.arraycopy(oldValues, from * 2, values, i * 2, 2);
+            System.arraycopy(oldCodes, from * 3, codes, i * 3, 3);
+        }
+        head = 0;
+    }
+}
@@ -1,13 +1,47 @@
 package org.infinitytwogames.wispui.event.input.keyboard;
 
-import org.infinitytwogames.wispui.event.Event;
+import org.infinitytwogames.wispui.event.EventPool;
+import org.infinitytwogames.wispui.event.input.InputEvent;
 
-public class CharacterInputEvent extends Event {
-    public final int codepoint;
-    public final String character;
+public class CharacterInputEvent extends InputEvent {
+    private static final EventPool<CharacterInputEvent> pool = new EventPool<>(CharacterInputEvent::new, 8);
+    
+    // Interned strings for Latin-1, so typing ordinary text does not allocate
+    private static final String[] LATIN1 = new String[256];
+    
+    static {
+        for (int i = 0; i < LATIN1.length; i++) LATIN1[i] = String.valueOf((char) i).intern();
+    }
+    
+    // Reassigned when recycled, treat as read-only
+    public int codepoint;
+    public String character;
+
+    private CharacterInputEvent() {}
 
     public CharacterInputEvent(int codepoint, char[] chars) {
         this.codepoint = codepoint;
         character = String.valueOf(chars);
     }
+    
+    /**
+     * @return A recycled event; hand it back with {@link #release()} after posting it.
+     */
+    public static CharacterInputEvent obtain(int codepoint) {
+        CharacterInputEvent event = pool.obtain();
+        event.codepoint = codepoint;
+        event.character = toString(codepoint);
+        return event;
+    }
+    
+    public void release() {
+        pool.release(this);
+    }
+    
+    /**
+     * @return The codepoint as a string, shared for Latin-1 and allocated otherwise.
+     */
+    public static String toString(int codepoint) {
+        return codepoint >= 0 && codepoint < LATIN1.length ? LATIN1[codepoint] : Character.toString(codepoint);
+    }
 }
@@ -1,16 +1,38 @@
 package org.infinitytwogames.wispui.event.input.keyboard;
 
-import org.infinitytwogames.wispui.event.Event;
+import org.infinitytwogames.wispui.event.EventPool;
+import org.infinitytwogames.wispui.event.input.InputEvent;
 
-public class KeyPressEvent extends Event {
-    public final int key;
-    public final int action;
-    public final int mods;
+public class KeyPressEvent extends InputEvent {
+    private static final EventPool<KeyPressEvent> pool = new EventPool<>(KeyPressEvent::new, 8);
+    
+    // Reassigned when recycled, treat as read-only
+    public int key;
+    public int action;
+    public int mods;
+
+    private KeyPressEvent() {}
 
     public KeyPressEvent(int key, int action, int mods) {
+        set(key, action, mods);
+    }
+    
+    /**
+     * @return A recycled event; hand it back with {@link #release()} after posting it.
+     */
+    public static KeyPressEvent obtain(int key, int action, int mods) {
+        return pool.obtain().set(key, action, mods);
+    }
+    
+    public void release() {
+        pool.release(this);
+    }
+    
+    private KeyPressEvent set(int key, int action, int mods) {
         this.key = key;
         this.action = action;
         this.mods = mods;
+        return this;
     }
 
     public int getKey() {
@@ -20,4 +42,4 @@ public class KeyPressEvent extends Event {
     public int getAction() {
         return action;
     }
-}
\ No newline at end of file
+}
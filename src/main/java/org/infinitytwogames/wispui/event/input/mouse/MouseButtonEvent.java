@@ -1,23 +1,53 @@
 package org.infinitytwogames.wispui.event.input.mouse;
 
 import org.infinitytwogames.wispui.Window;
-import org.infinitytwogames.wispui.event.Event;
+import org.infinitytwogames.wispui.event.EventPool;
+import org.infinitytwogames.wispui.event.input.InputEvent;
 
-public class MouseButtonEvent extends Event {
-    public final int button;
-    public final int action;
-    public final int x;
-    public final int y;
-    public final Window window;
-    public final int mods;
+public class MouseButtonEvent extends InputEvent {
+    private static final EventPool<MouseButtonEvent> pool = new EventPool<>(MouseButtonEvent::new, 8);
+    
+    // Reassigned when recycled, treat as read-only
+    public int button;
+    public int action;
+    public int x;
+    public int y;
+    public Window window;
+    public int mods;
+
+    private MouseButtonEvent() {}
 
     public MouseButtonEvent(int button, int action, int mods, float x, float y, Window window) {
+        set(button, action, mods, x, y, window);
+    }
+    
+    /**
+     * @return A recycled event; hand it back with {@link #release()} after posting it.
+     */
+    public static MouseButtonEvent obtain(int button, int action, int mods, float x, float y, Window window) {
+        return pool.obtain().set(button, action, mods, x, y, window);
+    }
+    
+    public void release() {
+        pool.release(this);
+    }
+    
+    /**
+     * Only runs when the pool takes the event back, so a retained event keeps its window.
+     */
+    @Override
+    protected void reset() {
+        super.reset();
+        window = null;
+    }
+    
+    private MouseButtonEvent set(int button, int action, int mods, float x, float y, Window window) {
         this.button = button;
         this.action = action;
         this.x = (int) x;
         this.y = (int) y;
         this.window = window;
         this.mods = mods;
+        return this;
     }
 }
-
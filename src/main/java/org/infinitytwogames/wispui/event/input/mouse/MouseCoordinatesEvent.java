@@ -1,19 +1,25 @@
 package org.infinitytwogames.wispui.event.input.mouse;
 
 import org.infinitytwogames.wispui.Window;
-import org.infinitytwogames.wispui.event.Event;
+import org.infinitytwogames.wispui.event.input.InputEvent;
 
 // MODIFIED
-public class MouseCoordinatesEvent extends Event {
+public class MouseCoordinatesEvent extends InputEvent {
     private float x;
     private float y;
     private Window window;
     
-    private static final MouseCoordinatesEvent event = new MouseCoordinatesEvent();
+    private static MouseCoordinatesEvent event = new MouseCoordinatesEvent();
     
     private MouseCoordinatesEvent() {}
     
+    /**
+     * @return The shared instance, updated in place. A listener that {@link #retain() retained}
+     * the previous one gets to keep it; a fresh instance is shared from then on.
+     */
     public static MouseCoordinatesEvent get(float x, float y, Window window) {
+        if (event.isRetained()) event = new MouseCoordinatesEvent();
+        event.reset();
         return event.set(x,y,window);
     }
     
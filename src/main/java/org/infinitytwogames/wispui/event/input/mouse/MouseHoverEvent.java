@@ -2,12 +2,19 @@ package org.infinitytwogames.wispui.event.input.mouse;
 
 import org.infinitytwogames.wispui.Window;
 import org.infinitytwogames.wispui.event.Event;
+import org.infinitytwogames.wispui.event.EventPool;
 import org.joml.Vector2i;
 
 // MODIFIED
 public class MouseHoverEvent extends Event {
+    private static final EventPool<MouseHoverEvent> pool = new EventPool<>(MouseHoverEvent::new, 4);
+    
     private final Vector2i mousePosition;
-    private final Window window;
+    private Window window;
+
+    private MouseHoverEvent() {
+        this.mousePosition = new Vector2i();
+    }
 
     public MouseHoverEvent(Vector2i mousePosition, Window window) {
         this.mousePosition = mousePosition;
@@ -23,6 +30,33 @@ public class MouseHoverEvent extends Event {
         this((int) e.getX(), (int) e.getY(), e.getWindow());
     }
     
+    /**
+     * @return A recycled event holding a copy of {@code mousePosition}; hand it back with {@link #release()}.
+     */
+    public static MouseHoverEvent obtain(Vector2i mousePosition, Window window) {
+        return obtain(mousePosition.x, mousePosition.y, window);
+    }
+    
+    public static MouseHoverEvent obtain(int x, int y, Window window) {
+        MouseHoverEvent event = pool.obtain();
+        event.mousePosition.set(x, y);
+        event.window = window;
+        return event;
+    }
+    
+    public void release() {
+        pool.release(this);
+    }
+    
+    /**
+     * Only runs when the pool takes the event back, so a retained event keeps its window.
+     */
+    @Override
+    protected void reset() {
+        super.reset();
+        window = null;
+    }
+    
     public Vector2i getMousePosition() {
         return mousePosition;
     }
@@ -1,15 +1,46 @@
 package org.infinitytwogames.wispui.event.input.mouse;
 
 import org.infinitytwogames.wispui.Window;
-import org.infinitytwogames.wispui.event.Event;
+import org.infinitytwogames.wispui.event.EventPool;
+import org.infinitytwogames.wispui.event.input.InputEvent;
 
-public class MouseScrollEvent extends Event {
-    public final Window window;
-    public final int x,y;
+public class MouseScrollEvent extends InputEvent {
+    private static final EventPool<MouseScrollEvent> pool = new EventPool<>(MouseScrollEvent::new, 4);
+    
+    // Reassigned when recycled, treat as read-only
+    public Window window;
+    public int x,y;
+
+    private MouseScrollEvent() {}
 
     public MouseScrollEvent(Window window, int x, int y) {
+        set(window, x, y);
+    }
+    
+    /**
+     * @return A recycled event; hand it back with {@link #release()} after posting it.
+     */
+    public static MouseScrollEvent obtain(Window window, int x, int y) {
+        return pool.obtain().set(window, x, y);
+    }
+    
+    public void release() {
+        pool.release(this);
+    }
+    
+    /**
+     * Only runs when the pool takes the event back, so a retained event keeps its window.
+     */
+    @Override
+    protected void reset() {
+        super.reset();
+        window = null;
+    }
+    
+    private MouseScrollEvent set(Window window, int x, int y) {
         this.window = window;
         this.x = x;
         this.y = y;
+        return this;
     }
 }
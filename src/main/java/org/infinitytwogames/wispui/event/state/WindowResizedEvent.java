@@ -2,11 +2,16 @@ package org.infinitytwogames.wispui.event.state;
 
 import org.infinitytwogames.wispui.Window;
 import org.infinitytwogames.wispui.event.Event;
+import org.infinitytwogames.wispui.event.EventPool;
 
 public class WindowResizedEvent extends Event {
+    private static final EventPool<WindowResizedEvent> pool = new EventPool<>(WindowResizedEvent::new, 2);
+    
     public int width, height;
     public Window window;
 
+    private WindowResizedEvent() {}
+
     public WindowResizedEvent(int width, int height, Window window) {
         this.width = width;
         this.height = height;
@@ -18,4 +23,28 @@ public class WindowResizedEvent extends Event {
         this.height = window.getHeight();
         this.window = window;
     }
+    
+    /**
+     * @return A recycled event; hand it back with {@link #release()} after posting it.
+     */
+    public static WindowResizedEvent obtain(int width, int height, Window window) {
+        WindowResizedEvent event = pool.obtain();
+        event.width = width;
+        event.height = height;
+        event.window = window;
+        return event;
+    }
+    
+    public void release() {
+        pool.release(this);
+    }
+    
+    /**
+     * Only runs when the pool takes the event back, so a retained event keeps its window.
+     */
+    @Override
+    protected void reset() {
+        super.reset();
+        window = null;
+    }
 }
@@ -1,6 +1,7 @@
 package org.infinitytwogames.wispui.manager;
 
 import org.infinitytwogames.wispui.Display;
+import org.infinitytwogames.wispui.data.TextureUploader;
 import org.infinitytwogames.wispui.event.input.mouse.MouseButtonEvent;
 import org.infinitytwogames.wispui.event.input.mouse.MouseHoverEvent;
 import org.infinitytwogames.wispui.ui.base.Label;
@@ -101,6 +102,9 @@ public class SceneManager {
      * The bottom screen is usually the main HUD or Game view.
      */
     public static void draw() {
+        // Pump pending texture uploads before anything samples them this frame
+        TextureUploader.upload();
+        
         // Iterate through the stack to draw all screens in order (bottom to top)
         for (Scene scene : activeScenes) {
             scene.draw();
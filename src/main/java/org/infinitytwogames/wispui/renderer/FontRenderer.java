@@ -1,6 +1,8 @@
 package org.infinitytwogames.wispui.renderer;
 
 import org.infinitytwogames.wispui.data.RGBA;
+import org.infinitytwogames.wispui.data.Resource;
+import org.infinitytwogames.wispui.data.ResourceLoader;
 import org.infinitytwogames.wispui.data.ShaderFiles;
 import org.infinitytwogames.wispui.event.bus.EventBus;
 import org.joml.Matrix4f;
@@ -13,7 +15,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
@@ -46,8 +47,8 @@ import static org.lwjgl.stb.STBTruetype.stbtt_GetBakedQuad;
  * @author Infinity Two Games
  */
 public class FontRenderer {
-    private static final int BITMAP_W   = 1024;
-    private static final int BITMAP_H   = 1024;
+    public static final int BITMAP_W   = 1024;
+    public static final int BITMAP_H   = 1024;
     private static final int FIRST_CHAR = 32;
     private static final int CHAR_COUNT = 224;
     
@@ -94,10 +95,59 @@ public class FontRenderer {
         this.fontHeight = height * 2;
         program = new ShaderProgram(ShaderFiles.textVertex,ShaderFiles.textFragment);
         this.fontPath = fontPath;
-        EventBus.connect(this);
+        EventBus.connectWeak(this);
         init();
     }
     
+    /**
+     * Creates a renderer from glyphs that were baked ahead of time, e.g. by an asset pack.
+     * Nothing is decoded or baked; the bitmap is uploaded as is.
+     *
+     * @param charData   Baked glyph metrics. The renderer takes ownership and frees them in {@link #cleanup()}.
+     * @param bitmap     {@code BITMAP_W * BITMAP_H} grayscale bytes.
+     * @param fontHeight The pixel height the glyphs were baked at.
+     */
+    public FontRenderer(STBTTBakedChar.Buffer charData, ByteBuffer bitmap, float fontHeight) {
+        this.fontHeight = fontHeight;
+        program = new ShaderProgram(ShaderFiles.textVertex,ShaderFiles.textFragment);
+        this.fontPath = null;
+        this.charData = charData;
+        EventBus.connectWeak(this);
+        initGL(bitmap);
+    }
+    
+    /**
+     * Bakes a TTF font into a grayscale bitmap on the CPU, without any OpenGL calls.
+     *
+     * @param fontPath   path to a TTF file
+     * @param fontHeight pixel height to bake at
+     * @param bitmap     destination of {@code BITMAP_W * BITMAP_H} bytes
+     * @return The baked glyph metrics, which the caller must free.
+     */
+    public static STBTTBakedChar.Buffer bake(String fontPath, float fontHeight, ByteBuffer bitmap) {
+        // Ensure the size of the memory buffer matches the intended range exactly
+        STBTTBakedChar.Buffer charData = STBTTBakedChar.malloc(NUM_CODEPOINTS);
+        
+        // CRITICAL: Check the return value of stbtt_BakeFontBitmap.
+        // A non-zero return value indicates how many more characters *could* fit,
+        // but a negative value indicates a failure or insufficient buffer.
+        int result;
+        
+        // The TTF bytes are only needed while baking, so release them right after
+        try (Resource font = ResourceLoader.load(fontPath)) {
+            result = stbtt_BakeFontBitmap(font.getBuffer(), fontHeight, bitmap, BITMAP_W, BITMAP_H, FIRST_CHAR, charData);
+        } catch (IOException e) {
+            charData.free();
+            throw new RuntimeException("Failed to load font: " + fontPath, e);
+        }
+        
+        // Add logging to see if the baking failed
+        if (result <= 0) {
+            LoggerFactory.getLogger(FontRenderer.class).error("STBTT Bake failed or returned zero chars fit! Result: {}", result);
+        }
+        return charData;
+    }
+    
     /**
      * Bakes the TTF font into a bitmap and uploads it to the GPU.
      * <p>
@@ -106,42 +156,19 @@ public class FontRenderer {
      * </p>
      */
     private void init() {
+        // Bake glyphs
+        ByteBuffer bitmap = BufferUtils.createByteBuffer(BITMAP_W * BITMAP_H);
+        charData = bake(fontPath, fontHeight, bitmap);
+        
+        initGL(bitmap);
+    }
+    
+    private void initGL(ByteBuffer bitmap) {
         // Query uniforms once
         locProj      = glGetUniformLocation(program.getProgramId(), "uProj");
         locTextColor = glGetUniformLocation(program.getProgramId(), "uTextColor");
         locFontAtlas = glGetUniformLocation(program.getProgramId(), "uFontAtlas");
         locModel     = program.getUniformLocation("uModel");
-
-        // Load font data
-        ByteBuffer fontBuffer;
-        try {
-            fontBuffer = loadFont(fontPath); // Buffer is loaded, and flipped (position=0, limit=size)
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to load font: " + fontPath, e);
-        }
-        
-        // CRITICAL FIX: Reset the buffer's position to the beginning (0)
-        // before calling the baking function, ensuring it reads from the start.
-        fontBuffer.position(0);
-        
-        // Bake glyphs
-        // Ensure the size of the memory buffer matches the intended range exactly
-        charData = STBTTBakedChar.malloc(NUM_CODEPOINTS);
-        ByteBuffer bitmap = BufferUtils.createByteBuffer(BITMAP_W * BITMAP_H);
-        
-        // 2. Prepare the array of code points.
-        IntBuffer codePointsBuffer = BufferUtils.createIntBuffer(NUM_CODEPOINTS);
-        codePointsBuffer.put(CODEPOINTS).flip();
-        
-        // CRITICAL: Check the return value of stbtt_BakeFontBitmap.
-        // A non-zero return value indicates how many more characters *could* fit,
-        // but a negative value indicates a failure or insufficient buffer.
-        int result = stbtt_BakeFontBitmap(fontBuffer, fontHeight, bitmap, BITMAP_W, BITMAP_H, FIRST_CHAR, charData);
-        
-        // Add logging to see if the baking failed
-        if (result <= 0) {
-            logger.error("STBTT Bake failed or returned zero chars fit! Result: {}", result);
-        }
         
         // Upload texture atlas
         texID = glGenTextures();
@@ -283,6 +310,7 @@ public class FontRenderer {
 
     /** Cleanup GPU resources */
     public void cleanup() {
+        EventBus.disconnect(this);
         if (!initialized) return;
         
         glDeleteTextures(texID);
@@ -296,35 +324,6 @@ public class FontRenderer {
         program.cleanup();
     }
     
-    private ByteBuffer loadFont(String resourcePath) throws IOException {
-        ByteBuffer buffer;
-        
-        // Use the ContextClassLoader to bridge the gap between the Library and the Mod
-        ClassLoader loader = Thread.currentThread().getContextClassLoader();
-        try (java.io.InputStream is = loader.getResourceAsStream(resourcePath)) {
-            
-            if (is == null) {
-                // Fallback: try the ClassLoader that loaded this specific class
-                InputStream fallback = getClass().getClassLoader().getResourceAsStream(resourcePath);
-                if (fallback != null) {
-                    return readStreamToBuffer(fallback);
-                }
-                throw new IOException("Font resource not found: " + resourcePath);
-            }
-            
-            return readStreamToBuffer(is);
-        }
-    }
-    
-    // Cleaned up helper to avoid code duplication
-    private ByteBuffer readStreamToBuffer(java.io.InputStream is) throws IOException {
-        byte[] bytes = is.readAllBytes();
-        ByteBuffer buffer = BufferUtils.createByteBuffer(bytes.length);
-        buffer.put(bytes);
-        buffer.flip();
-        return buffer;
-    }
-    
     /**
      * Calculates the pixel width of a string based on baked character advance data.
      * @param text The string to measure.
@@ -367,6 +366,7 @@ public class FontRenderer {
     }
 
     public void setFontHeight(int fontHeight) {
+        if (fontPath == null) throw new IllegalStateException("Pre-baked fonts cannot be resized, bake the pack at the new height instead.");
         this.fontHeight = fontHeight;
         reinit();
     }
@@ -374,6 +374,7 @@ public class FontRenderer {
     private void reinit() {
         cleanup();
         init();
+        EventBus.connectWeak(this); // cleanup() disconnected us
     }
 
     public STBTTBakedChar.Buffer getCharData() {
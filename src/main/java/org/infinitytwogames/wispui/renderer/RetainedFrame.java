@@ -0,0 +1,185 @@
+package org.infinitytwogames.wispui.renderer;
+
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * A recorded UI frame kept on the GPU, replayed without re-emitting its geometry.
+ * <p>
+ * While a {@link UIRenderer} records into a frame, every batch it would have drawn is appended
+ * here instead, together with the texture and scissor state it needs. Replaying the frame issues
+ * the same draw calls straight from persistent buffers, so a screen that did not change costs no
+ * vertex generation and no upload.
+ * </p>
+ *
+ *
+ *
+ * <h2>Buffers</h2>
+ * <ul>
+ * <li><b>Streams:</b> Quads and nine-slice instances are kept in two streams, each with its own
+ * VBO laid out exactly like the renderer's batch buffers.</li>
+ * <li><b>Dirty Ranges:</b> Each stream keeps a mirror of what the GPU holds. After a re-record only
+ * the chunks that differ from the mirror are written with {@code glBufferSubData}, so moving one
+ * widget uploads roughly that widget's vertices instead of the whole screen.</li>
+ * <li><b>Growth:</b> A stream that outgrows its buffer is reallocated once with {@code glBufferData}
+ * at twice the size and uploaded in full.</li>
+ * </ul>
+ *
+ * @author Infinity Two Games
+ */
+public class RetainedFrame {
+    static final int QUADS = 0;
+    static final int NINE_SLICES = 1;
+    static final int SCISSOR = 2;
+    static final int NO_SCISSOR = 3;
+    static final int COMMAND_SIZE = 5;
+
+    final Stream quads;
+    final Stream nineSlices;
+
+    int[] commands = new int[COMMAND_SIZE * 32];
+    int commandCount;
+
+    private boolean recorded;
+
+    public RetainedFrame() {
+        quads = new Stream();
+        nineSlices = new Stream();
+    }
+
+    /**
+     * @return {@code true} once the frame holds a finished recording.
+     */
+    public boolean isRecorded() {
+        return recorded;
+    }
+
+    /**
+     * @return The number of floats written to the GPU by the last recording, for profiling.
+     */
+    public int getLastUploadSize() {
+        return quads.lastUpload + nineSlices.lastUpload;
+    }
+
+    void begin() {
+        quads.size = 0;
+        nineSlices.size = 0;
+        commandCount = 0;
+        recorded = false;
+    }
+
+    void end() {
+        recorded = true;
+    }
+
+    void command(int kind, int a, int b, int c, int d) {
+        if (commandCount + COMMAND_SIZE > commands.length) commands = Arrays.copyOf(commands, commands.length * 2);
+        commands[commandCount++] = kind;
+        commands[commandCount++] = a;
+        commands[commandCount++] = b;
+        commands[commandCount++] = c;
+        commands[commandCount++] = d;
+    }
+
+    public void cleanup() {
+        quads.cleanup();
+        nineSlices.cleanup();
+        recorded = false;
+    }
+
+    /**
+     * One persistent vertex stream and the CPU copy of what was last uploaded.
+     */
+    static final class Stream {
+        private static final int CHUNK = 1024; // Floats compared and uploaded together
+
+        float[] data = new float[CHUNK];
+        int size;
+        int vaoId, vboId;
+
+        private float[] uploaded = new float[0];
+        private int uploadedSize;
+        private int capacity; // Floats allocated on the GPU
+        private FloatBuffer staging;
+        private int lastUpload;
+
+        boolean isCreated() {
+            return vaoId != 0;
+        }
+
+        void create() {
+            vaoId = GL30.glGenVertexArrays();
+            vboId = GL15.glGenBuffers();
+        }
+
+        void append(float[] source, int length) {
+            if (size + length > data.length) data = Arrays.copyOf(data, Math.max(size + length, data.length * 2));
+            System.arraycopy(source, 0, data, size, length);
+            size += length;
+        }
+
+        /**
+         * Writes the parts of {@link #data} that differ from the GPU copy. The VBO must be bound.
+         */
+        void upload() {
+            lastUpload = 0;
+            if (size > capacity) {
+                capacity = Math.max(size, capacity * 2);
+                staging = staging == null ? MemoryUtil.memAllocFloat(capacity) : MemoryUtil.memRealloc(staging, capacity);
+                staging.clear();
+                staging.put(data, 0, size).flip();
+                GL15.glBufferData(GL15.GL_ARRAY_BUFFER, (long) capacity * Float.BYTES, GL15.GL_DYNAMIC_DRAW);
+                GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, staging);
+                lastUpload = size;
+                remember();
+                return;
+            }
+
+            // Merge neighbouring dirty chunks into one range per upload call
+            int rangeStart = -1;
+            for (int start = 0; start < size; start += CHUNK) {
+                int end = Math.min(start + CHUNK, size);
+                boolean dirty = end > uploadedSize || !Arrays.equals(data, start, end, uploaded, start, end);
+                if (dirty) {
+                    if (rangeStart < 0) rangeStart = start;
+                } else if (rangeStart >= 0) {
+                    write(rangeStart, start);
+                    rangeStart = -1;
+                }
+            }
+            if (rangeStart >= 0) write(rangeStart, size);
+            remember();
+        }
+
+        private void write(int start, int end) {
+            staging.clear();
+            staging.put(data, start, end - start).flip();
+            GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, (long) start * Float.BYTES, staging);
+            lastUpload += end - start;
+        }
+
+        private void remember() {
+            if (uploaded.length < size) uploaded = new float[data.length];
+            System.arraycopy(data, 0, uploaded, 0, size);
+            uploadedSize = size;
+        }
+
+        void cleanup() {
+            if (vaoId != 0) {
+                GL15.glDeleteBuffers(vboId);
+                GL30.glDeleteVertexArrays(vaoId);
+                vaoId = vboId = 0;
+            }
+            if (staging != null) {
+                MemoryUtil.memFree(staging);
+                staging = null;
+            }
+            capacity = 0;
+            uploadedSize = 0;
+        }
+    }
+}
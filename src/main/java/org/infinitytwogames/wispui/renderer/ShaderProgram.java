@@ -1,14 +1,13 @@
 package org.infinitytwogames.wispui.renderer;
 
+import org.infinitytwogames.wispui.data.Resource;
+import org.infinitytwogames.wispui.data.ResourceLoader;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
 import org.lwjgl.BufferUtils;
 
 import java.io.IOException;
 import java.nio.FloatBuffer;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.opengl.GL31.GL_INVALID_INDEX;
@@ -101,8 +100,9 @@ public class ShaderProgram {
     }
     
     public static String load(String path) throws IOException {
-        Path path2 = Paths.get(path);
-        return new String(Files.readAllBytes(path2));
+        try (Resource source = ResourceLoader.load(path)) {
+            return source.asString();
+        }
     }
     
     /**
@@ -53,7 +53,7 @@ public class TextBatchRenderer {
 
     public TextBatchRenderer(FontRenderer font) {
         this.font = font;
-        EventBus.connect(this);
+        EventBus.connectWeak(this);
 
         vaoId = glGenVertexArrays();
         vboId = glGenBuffers();
@@ -162,6 +162,7 @@ public class TextBatchRenderer {
     }
 
     public void cleanup() {
+        EventBus.disconnect(this);
         glDeleteBuffers(vboId);
         glDeleteVertexArrays(vaoId);
     }
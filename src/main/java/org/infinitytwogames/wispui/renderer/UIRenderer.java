@@ -16,6 +16,8 @@ import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL15;
 import org.lwjgl.opengl.GL20;
 import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL33;
 import org.lwjgl.system.MemoryStack;
 import org.lwjgl.system.MemoryUtil;
 
@@ -45,8 +47,14 @@ import static org.lwjgl.opengl.GL20.*;
  * the current data is sent to the GPU (flushed) and a new batch begins.</li>
  * <li><b>Vertex Layout:</b> Uses a 19-float vertex structure containing:
  * Position (3), RGBA (4), UV (2), Size (2), Radius (1), LocalUV (2), Border (1), BorderRGBA (4).</li>
+ * <li><b>Nine-Slice Instancing:</b> {@link #queueNineSlice} records one 22-float instance
+ * per sprite into a separate buffer. A dedicated shader expands it into 9 cells with
+ * {@code glDrawArraysInstanced}, so stretched panels cost one record instead of 9 quads.</li>
  * <li><b>Coordinate Space:</b> Projects coordinates using an Orthographic matrix
  * based on a fixed virtual height ({@code UI_DESIGN_HEIGHT}).</li>
+ * <li><b>Retained Frames:</b> Between {@link #beginRecording} and {@link #endRecording()} flushed
+ * batches and scissor changes are stored in a {@link RetainedFrame} instead of drawn. {@link #replay}
+ * draws the stored frame again from its own buffers.</li>
  * </ul>
  *
  * @author Infinity Two Games
@@ -62,12 +70,30 @@ public class UIRenderer {
     private final int VERTICES_PER_QUAD = 6;
     private final int FLOATS_PER_QUAD = VERTEX_SIZE * VERTICES_PER_QUAD;
     
+    // Corner order: TL, BL, BR, TR. First triangle (0, 1, 2), second triangle (0, 2, 3)
+    private static final int[] QUAD_INDICES = {0, 1, 2, 0, 2, 3};
+    private static final float[] CORNER_LX = {0f, 0f, 1f, 1f};
+    private static final float[] CORNER_LY = {0f, 1f, 1f, 0f};
+    
+    // Nine-slice instances: rect(4), uv(4), uv inset(4), inset(4), color(4), z + angle(2)
+    private final int NINE_SLICE_SIZE = 22;
+    private final int MAX_NINE_SLICES = 256;
+    private final int NINE_SLICE_VERTICES = 9 * VERTICES_PER_QUAD;
+    private int nineSliceVaoId, nineSliceVboId;
+    private ShaderProgram nineSliceProgram;
+    private float[] nineSliceData;
+    private FloatBuffer nineSliceBuffer;
+    private int nineSliceCount = 0;
+    
     private final Matrix4f projection = new Matrix4f();
     private int shaderProgramId;
     
     // --- BATCH STATE MANAGEMENT (NEW) ---
     private boolean currentBatchIsTextured = false;
     private int currentAtlasTextureID = 0; // The texture ID of the currently bound atlas
+    private boolean currentBatchIsNineSlice = false;
+    
+    private RetainedFrame recording; // Non-null while batches go into a frame instead of the screen
     
     public UIRenderer(Window window, int shaderProgramId) {
         this.window = window;
@@ -88,7 +114,7 @@ public class UIRenderer {
     }
     
     private void init() {
-        EventBus.connect(this);
+        EventBus.connectWeak(this);
         
         vaoId = GL30.glGenVertexArrays();
         vboId = GL15.glGenBuffers();
@@ -98,7 +124,26 @@ public class UIRenderer {
         GL30.glBindVertexArray(vaoId);
         GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboId);
         GL15.glBufferData(GL15.GL_ARRAY_BUFFER, (long) vertexData.length * Float.BYTES, GL15.GL_DYNAMIC_DRAW);
+        setupQuadAttributes();
+        
+        GL30.glBindVertexArray(0);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        
+        // Set the u_texture sampler uniform once
+        GL20.glUseProgram(shaderProgramId);
+        int locSampler = glGetUniformLocation(shaderProgramId, "u_texture");
+        glUniform1i(locSampler, 0); // Tell shader u_texture always refers to Texture Unit 0
+        GL20.glUseProgram(0);
+        
+        initNineSlice();
         
+        onWindowResize(new WindowResizedEvent(1024, 512, window));
+    }
+    
+    /**
+     * Describes the 19-float quad vertex to the bound VAO, reading from the bound VBO.
+     */
+    private void setupQuadAttributes() {
         // Attribute Pointers remain correct
         // Position (3 floats)
         GL20.glVertexAttribPointer(0, 3, GL11.GL_FLOAT, false, VERTEX_SIZE * Float.BYTES, 0);
@@ -124,26 +169,52 @@ public class UIRenderer {
         GL20.glEnableVertexAttribArray(5);
         GL20.glEnableVertexAttribArray(6);
         GL20.glEnableVertexAttribArray(7);
+    }
+    
+    private void initNineSlice() {
+        nineSliceProgram = new ShaderProgram(ShaderFiles.nineSliceVertex, ShaderFiles.nineSliceFragment);
+        nineSliceVaoId = GL30.glGenVertexArrays();
+        nineSliceVboId = GL15.glGenBuffers();
+        nineSliceData = new float[MAX_NINE_SLICES * NINE_SLICE_SIZE];
+        nineSliceBuffer = MemoryUtil.memAllocFloat(nineSliceData.length);
+        
+        GL30.glBindVertexArray(nineSliceVaoId);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, nineSliceVboId);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, (long) nineSliceData.length * Float.BYTES, GL15.GL_DYNAMIC_DRAW);
+        setupNineSliceAttributes(0);
         
         GL30.glBindVertexArray(0);
         GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
         
-        // Set the u_texture sampler uniform once
-        GL20.glUseProgram(shaderProgramId);
-        int locSampler = glGetUniformLocation(shaderProgramId, "u_texture");
-        glUniform1i(locSampler, 0); // Tell shader u_texture always refers to Texture Unit 0
+        GL20.glUseProgram(nineSliceProgram.getProgramId());
+        glUniform1i(glGetUniformLocation(nineSliceProgram.getProgramId(), "u_texture"), 0);
         GL20.glUseProgram(0);
-        
-        onWindowResize(new WindowResizedEvent(1024, 512, window));
+    }
+    
+    /**
+     * Points the bound VAO's instance attributes at the bound VBO, starting {@code baseOffset} bytes in.
+     * A replayed frame uses the offset to draw a range of instances without base-instance support.
+     */
+    private void setupNineSliceAttributes(long baseOffset) {
+        // Every attribute advances once per instance; the corners come from gl_VertexID
+        int stride = NINE_SLICE_SIZE * Float.BYTES;
+        int[] sizes = {4, 4, 4, 4, 4, 2};
+        int offset = 0;
+        for (int location = 0; location < sizes.length; location++) {
+            GL20.glVertexAttribPointer(location, sizes[location], GL11.GL_FLOAT, false, stride, baseOffset + (long) offset * Float.BYTES);
+            GL20.glEnableVertexAttribArray(location);
+            GL33.glVertexAttribDivisor(location, 1);
+            offset += sizes[location];
+        }
     }
     
     public void queueGlyph(float x, float y, float z, float u, float v, float r, float g, float b, float a, int textureID) {
         // 1. Check if we need to switch from Box rendering to Text rendering
-        if (!currentBatchIsTextured || currentAtlasTextureID != textureID) {
-            // Only flush if there is actually data in the buffer
-            if (vertexDataIndex > 0) flush();
+        if (!currentBatchIsTextured || currentBatchIsNineSlice || currentAtlasTextureID != textureID) {
+            flush(); // No-op when the batch is empty
             
             currentBatchIsTextured = true;
+            currentBatchIsNineSlice = false;
             currentAtlasTextureID = textureID;
             begin();
         }
@@ -177,6 +248,7 @@ public class UIRenderer {
         if (currentBatchIsTextured) {
             flush();
             currentBatchIsTextured = false;
+            currentBatchIsNineSlice = false;
             currentAtlasTextureID = 0;
             begin();
         }
@@ -186,94 +258,18 @@ public class UIRenderer {
             begin();
         }
         
-        RGBA color = ui.getBackgroundColor();
-        float x = ui.getPosition().x(); // Use float for rotation
-        float y = ui.getPosition().y(); // Use float for rotation
-        float w = ui.getWidth();
-        float h = ui.getHeight();
-        
-        float angle = ui.getAngle(); // Assuming this is defined
-        
-        // Calculate pivot
-        float pivotX = x + w / 2.0f;
-        float pivotY = y + h / 2.0f;
-        
-        float cosTheta = (float) Math.cos(Math.toRadians(angle));
-        float sinTheta = (float) Math.sin(Math.toRadians(angle));
-        
-        // Define corner offsets relative to pivot
-        // Corner: TL, BL, BR, TR
-        float[] dx = {-w / 2.0f, -w / 2.0f, w / 2.0f, w / 2.0f};
-        float[] dy = {-h / 2.0f, h / 2.0f, h / 2.0f, -h / 2.0f};
-        
         // UVs are still 0
-        float[] u = {0.0f, 0.0f, 0.0f, 0.0f}; // TL, BL, BR, TR
-        float[] v = {0.0f, 0.0f, 0.0f, 0.0f}; // TL, BL, BR, TR
-        
-        // Index map: First triangle (0, 1, 2), Second triangle (0, 2, 3)
-        int[] indices = {0, 1, 2, 0, 2, 3};
-        
-        // Corner-local coordinates
-        float[] lx = {0f, 0f, 1f, 1f};
-        float[] ly = {0f, 1f, 1f, 0f};
-        
-        float[] quad = new float[FLOATS_PER_QUAD]; // 6 vertices * 8 floats
-        
-        for (int i = 0; i < 6; i++) {
-            int cornerIndex = indices[i];
-            int vertexOffset = i * VERTEX_SIZE;
-            
-            // 1. Calculate Rotated Position
-            float localX = dx[cornerIndex];
-            float localY = dy[cornerIndex];
-            
-            float rotatedX = localX * cosTheta - localY * sinTheta;
-            float rotatedY = localX * sinTheta + localY * cosTheta;
-            
-            float finalX = rotatedX + pivotX;
-            float finalY = rotatedY + pivotY;
-            
-            // 2. Populate Vertex Data (9 FLOATS per vertex)
-            quad[vertexOffset] = finalX;
-            quad[vertexOffset + 1] = finalY;
-            quad[vertexOffset + 2] = ui.getDrawOrder() * 0.001f;
-            
-            quad[vertexOffset + 3] = color.getRed();
-            quad[vertexOffset + 4] = color.getGreen();
-            quad[vertexOffset + 5] = color.getBlue();
-            quad[vertexOffset + 6] = color.getAlpha();
-            
-            quad[vertexOffset + 7] = u[cornerIndex]; // U
-            quad[vertexOffset + 8] = v[cornerIndex]; // V
-            
-            quad[vertexOffset + 9] = ui.getWidth();
-            quad[vertexOffset + 10] = ui.getHeight();
-            
-            quad[vertexOffset + 11] = ui.getCornerRadius();
-            
-            quad[vertexOffset + 12] = lx[cornerIndex];
-            quad[vertexOffset + 13] = ly[cornerIndex];
-            
-            // Inside the vertex loop
-            quad[vertexOffset + 14] = ui.getBorderThickness(); // in pixels
-            RGBA bColor = ui.getBorderColor();
-            quad[vertexOffset + 15] = bColor.getRed();
-            quad[vertexOffset + 16] = bColor.getGreen();
-            quad[vertexOffset + 17] = bColor.getBlue();
-            quad[vertexOffset + 18] = bColor.getAlpha();
-        }
-        
-        System.arraycopy(quad, 0, vertexData, vertexDataIndex, quad.length);
-        vertexDataIndex += quad.length;
+        writeQuad(ui, ui.getBackgroundColor(), 0.0f, 0.0f, 0.0f, 0.0f);
     }
     
     public void queueTextured(int textureIndex, TextureAtlas atlas, RGBA foregroundColor, UI ui) {
         // --- BATCH BREAK: Switching texture OR switching from untextured ---
         int atlasID = atlas.getTexture().getTextureID();
         
-        if (!currentBatchIsTextured || currentAtlasTextureID != atlasID) {
+        if (!currentBatchIsTextured || currentBatchIsNineSlice || currentAtlasTextureID != atlasID) {
             flush();
             currentBatchIsTextured = true;
+            currentBatchIsNineSlice = false;
             currentAtlasTextureID = atlasID;
             begin();
         }
@@ -283,96 +279,21 @@ public class UIRenderer {
             begin();
         }
         
-        // Get UVs from atlas
-        float x = ui.getPosition().x();
-        float y = ui.getPosition().y();
-        float w = ui.getWidth();
-        float h = ui.getHeight();
-        float angle = ui.getAngle();
-        
-        // Calculate pivot
-        float pivotX = x + w / 2.0f;
-        float pivotY = y + h / 2.0f;
-        
-        float cosTheta = (float) Math.cos(Math.toRadians(angle));
-        float sinTheta = (float) Math.sin(Math.toRadians(angle));
-        
-        // Define corner offsets relative to pivot
-        // Corner: TL, BL, BR, TR
-        float[] dx = {-w / 2.0f, -w / 2.0f, w / 2.0f, w / 2.0f};
-        float[] dy = {-h / 2.0f, h / 2.0f, h / 2.0f, -h / 2.0f};
-        
-        float[] uv = atlas.getUVCoords(textureIndex);
-        
-        // Fixed UV Mapping:
-        // uv[0]=U0 (Left), uv[1]=U1 (Right)
-        // uv[2]=V0 (Top), uv[3]=V1 (Bottom)
-        float[] u = {uv[0], uv[0], uv[1], uv[1]}; // TL(U0), BL(U0), BR(U1), TR(U1)
-        float[] v = {uv[2], uv[3], uv[3], uv[2]}; // TL(V0), BL(V1), BR(V1), TR(V0)
-        
-        // Index map: First triangle (0, 1, 2), Second triangle (0, 2, 3)
-        int[] indices = {0, 1, 2, 0, 2, 3};
-        
-        float[] quad = new float[FLOATS_PER_QUAD]; // 6 vertices * 8 floats
-        
-        float[] lx = {0f, 0f, 1f, 1f};
-        float[] ly = {0f, 1f, 1f, 0f};
-        
-        for (int i = 0; i < 6; i++) {
-            int cornerIndex = indices[i];
-            int vertexOffset = i * VERTEX_SIZE;
-            
-            // 1. Calculate Rotated Position
-            float localX = dx[cornerIndex];
-            float localY = dy[cornerIndex];
-            
-            float rotatedX = localX * cosTheta - localY * sinTheta;
-            float rotatedY = localX * sinTheta + localY * cosTheta;
-            
-            float finalX = rotatedX + pivotX;
-            float finalY = rotatedY + pivotY;
-            
-            // 2. Populate Vertex Data (8 FLOATS per vertex)
-            quad[vertexOffset] = finalX;
-            quad[vertexOffset + 1] = finalY;
-            quad[vertexOffset + 2] = ui.getDrawOrder() * 0.001f;
-            
-            quad[vertexOffset + 3] = foregroundColor.getRed();
-            quad[vertexOffset + 4] = foregroundColor.getGreen();
-            quad[vertexOffset + 5] = foregroundColor.getBlue();
-            quad[vertexOffset + 6] = foregroundColor.getAlpha();
-            
-            quad[vertexOffset + 7] = u[cornerIndex]; // U
-            quad[vertexOffset + 8] = v[cornerIndex]; // V
-            
-            quad[vertexOffset + 9] = ui.getWidth();
-            quad[vertexOffset + 10] = ui.getHeight();
-            
-            quad[vertexOffset + 11] = ui.getCornerRadius();
-            
-            quad[vertexOffset + 12] = lx[cornerIndex];
-            quad[vertexOffset + 13] = ly[cornerIndex];
-            
-            // Inside the vertex loop
-            quad[vertexOffset + 14] = ui.getBorderThickness(); // in pixels
-            RGBA bColor = ui.getBorderColor();
-            quad[vertexOffset + 15] = bColor.getRed();
-            quad[vertexOffset + 16] = bColor.getGreen();
-            quad[vertexOffset + 17] = bColor.getBlue();
-            quad[vertexOffset + 18] = bColor.getAlpha();
-        }
-        
-        System.arraycopy(quad, 0, vertexData, vertexDataIndex, quad.length);
-        vertexDataIndex += quad.length;
+        // Read straight from the atlas' precomputed UV table: {u0, v0, u1, v1}.
+        // v0 is the top edge of the source image, v1 the bottom (the atlas stores cells flipped).
+        writeQuad(ui, foregroundColor,
+                atlas.getU0(textureIndex), atlas.getV0(textureIndex),
+                atlas.getU1(textureIndex), atlas.getV1(textureIndex));
     }
     
     public void queueTextureDirect(Texture texture, RGBA foregroundColor, UI ui) {
         int textureID = texture.getTextureID();
         
         // --- BATCH BREAK: If we switch from an atlas to a direct texture, or change direct textures ---
-        if (!currentBatchIsTextured || currentAtlasTextureID != textureID) {
+        if (!currentBatchIsTextured || currentBatchIsNineSlice || currentAtlasTextureID != textureID) {
             flush();
             currentBatchIsTextured = true;
+            currentBatchIsNineSlice = false;
             currentAtlasTextureID = textureID;
             begin();
         }
@@ -382,68 +303,159 @@ public class UIRenderer {
             begin();
         }
         
-        float x = ui.getPosition().x();
-        float y = ui.getPosition().y();
-        float w = ui.getWidth();
-        float h = ui.getHeight();
-        float angle = ui.getAngle();
+        writeQuad(ui, foregroundColor, 0.0f, 1.0f, 1.0f, 0.0f);
+    }
+    
+    /**
+     * Queues a stretched nine-slice sprite as a single instanced record.
+     * <p>
+     * The border widths come from {@link TextureAtlas#setNineSlice}, scaled by
+     * {@code borderScale} on screen. Consecutive nine-slices from the same atlas
+     * share one {@code glDrawArraysInstanced} call.
+     * </p>
+     */
+    public void queueNineSlice(int textureIndex, TextureAtlas atlas, RGBA foregroundColor, float borderScale, UI ui) {
+        int atlasID = atlas.getTexture().getTextureID();
+        
+        // --- BATCH BREAK: Nine-slices use their own buffer and program ---
+        if (!currentBatchIsNineSlice || currentAtlasTextureID != atlasID) {
+            flush();
+            currentBatchIsTextured = true;
+            currentBatchIsNineSlice = true;
+            currentAtlasTextureID = atlasID;
+            begin();
+        }
+        
+        if (nineSliceCount == MAX_NINE_SLICES) {
+            flush();
+            begin();
+        }
+        
+        float u0 = atlas.getU0(textureIndex), v0 = atlas.getV0(textureIndex);
+        float u1 = atlas.getU1(textureIndex), v1 = atlas.getV1(textureIndex);
+        
+        // Source pixels -> UV units of this region
+        float uPerPixel = (u1 - u0) / atlas.getRegionWidth(textureIndex);
+        float vPerPixel = (v1 - v0) / atlas.getRegionHeight(textureIndex);
         
-        float pivotX = x + w / 2.0f;
-        float pivotY = y + h / 2.0f;
-        float cosTheta = (float) Math.cos(Math.toRadians(angle));
-        float sinTheta = (float) Math.sin(Math.toRadians(angle));
+        int left = atlas.getSliceLeft(textureIndex), top = atlas.getSliceTop(textureIndex);
+        int right = atlas.getSliceRight(textureIndex), bottom = atlas.getSliceBottom(textureIndex);
         
-        float[] dx = {-w / 2.0f, -w / 2.0f, w / 2.0f, w / 2.0f};
-        float[] dy = {-h / 2.0f, h / 2.0f, h / 2.0f, -h / 2.0f};
+        Vector2i position = ui.getPosition();
+        int o = nineSliceCount * NINE_SLICE_SIZE;
+        float[] data = nineSliceData;
         
-        // Match these to your dx/dy: TL, BL, BR, TR
-        float[] u = {0.0f, 0.0f, 1.0f, 1.0f};
-        float[] v = {1.0f, 0.0f, 0.0f, 1.0f};
+        data[o] = position.x();
+        data[o + 1] = position.y();
+        data[o + 2] = ui.getWidth();
+        data[o + 3] = ui.getHeight();
         
-        float[] lx = {0f, 0f, 1f, 1f};
-        float[] ly = {0f, 1f, 1f, 0f};
+        data[o + 4] = u0;
+        data[o + 5] = v0;
+        data[o + 6] = u1;
+        data[o + 7] = v1;
         
-        int[] indices = {0, 1, 2, 0, 2, 3};
-        float[] quad = new float[FLOATS_PER_QUAD];
+        data[o + 8] = left * uPerPixel;
+        data[o + 9] = top * vPerPixel;
+        data[o + 10] = right * uPerPixel;
+        data[o + 11] = bottom * vPerPixel;
+        
+        data[o + 12] = left * borderScale;
+        data[o + 13] = top * borderScale;
+        data[o + 14] = right * borderScale;
+        data[o + 15] = bottom * borderScale;
+        
+        data[o + 16] = foregroundColor.getRed();
+        data[o + 17] = foregroundColor.getGreen();
+        data[o + 18] = foregroundColor.getBlue();
+        data[o + 19] = foregroundColor.getAlpha();
+        
+        data[o + 20] = ui.getDrawOrder() * 0.001f;
+        data[o + 21] = ui.getAngle();
+        
+        nineSliceCount++;
+    }
+    
+    /**
+     * Writes one rotated quad (6 vertices) for {@code ui} straight into the vertex array.
+     * <p>
+     * The UV rectangle is given by its left/right U and top/bottom V, so every queue
+     * method shares the same corner layout without building per-call arrays.
+     * </p>
+     */
+    private void writeQuad(UI ui, RGBA color, float uLeft, float vTop, float uRight, float vBottom) {
+        Vector2i position = ui.getPosition();
+        float halfW = ui.getWidth() / 2.0f;
+        float halfH = ui.getHeight() / 2.0f;
         
-        for (int i = 0; i < 6; i++) {
-            int cornerIndex = indices[i];
-            int vertexOffset = i * VERTEX_SIZE;
+        // Calculate pivot
+        float pivotX = position.x() + halfW;
+        float pivotY = position.y() + halfH;
+        
+        double radians = Math.toRadians(ui.getAngle());
+        float cosTheta = (float) Math.cos(radians);
+        float sinTheta = (float) Math.sin(radians);
+        
+        float z = ui.getDrawOrder() * 0.001f;
+        float width = ui.getWidth();
+        float height = ui.getHeight();
+        float radius = ui.getCornerRadius();
+        float border = ui.getBorderThickness(); // in pixels
+        RGBA bColor = ui.getBorderColor();
+        
+        for (int i = 0; i < VERTICES_PER_QUAD; i++) {
+            int corner = QUAD_INDICES[i];
+            float lx = CORNER_LX[corner];
+            float ly = CORNER_LY[corner];
+            
+            // 1. Calculate Rotated Position (corner offsets relative to pivot)
+            float localX = (lx * 2.0f - 1.0f) * halfW;
+            float localY = (ly * 2.0f - 1.0f) * halfH;
+            
+            int o = vertexDataIndex;
+            vertexData[o] = localX * cosTheta - localY * sinTheta + pivotX;
+            vertexData[o + 1] = localX * sinTheta + localY * cosTheta + pivotY;
+            vertexData[o + 2] = z;
             
-            float rotatedX = dx[cornerIndex] * cosTheta - dy[cornerIndex] * sinTheta;
-            float rotatedY = dx[cornerIndex] * sinTheta + dy[cornerIndex] * cosTheta;
-            RGBA bColor = ui.getBorderColor();
+            vertexData[o + 3] = color.getRed();
+            vertexData[o + 4] = color.getGreen();
+            vertexData[o + 5] = color.getBlue();
+            vertexData[o + 6] = color.getAlpha();
             
-            quad[vertexOffset] = rotatedX + pivotX;
-            quad[vertexOffset + 1] = rotatedY + pivotY;
-            quad[vertexOffset + 2] = ui.getDrawOrder() * 0.001f;
-            quad[vertexOffset + 3] = foregroundColor.getRed();
-            quad[vertexOffset + 4] = foregroundColor.getGreen();
-            quad[vertexOffset + 5] = foregroundColor.getBlue();
-            quad[vertexOffset + 6] = foregroundColor.getAlpha();
-            quad[vertexOffset + 7] = u[cornerIndex];
-            quad[vertexOffset + 8] = v[cornerIndex];
-            quad[vertexOffset + 9] = ui.getWidth();
-            quad[vertexOffset + 10] = ui.getHeight();
-            quad[vertexOffset + 11] = ui.getCornerRadius();
-            quad[vertexOffset + 12] = lx[cornerIndex];
-            quad[vertexOffset + 13] = ly[cornerIndex];
-            quad[vertexOffset + 14] = ui.getBorderThickness(); // in pixels
-            quad[vertexOffset + 15] = bColor.getRed();
-            quad[vertexOffset + 16] = bColor.getGreen();
-            quad[vertexOffset + 17] = bColor.getBlue();
-            quad[vertexOffset + 18] = bColor.getAlpha();
+            vertexData[o + 7] = lx == 0.0f ? uLeft : uRight; // U
+            vertexData[o + 8] = ly == 0.0f ? vTop : vBottom; // V
+            
+            vertexData[o + 9] = width;
+            vertexData[o + 10] = height;
+            vertexData[o + 11] = radius;
+            
+            vertexData[o + 12] = lx;
+            vertexData[o + 13] = ly;
+            
+            vertexData[o + 14] = border;
+            vertexData[o + 15] = bColor.getRed();
+            vertexData[o + 16] = bColor.getGreen();
+            vertexData[o + 17] = bColor.getBlue();
+            vertexData[o + 18] = bColor.getAlpha();
+            
+            vertexDataIndex += VERTEX_SIZE;
         }
-        
-        System.arraycopy(quad, 0, vertexData, vertexDataIndex, quad.length);
-        vertexDataIndex += quad.length;
     }
     
     public void begin() {
         vertexDataIndex = 0; // Reset index for new batch
+        nineSliceCount = 0;
     }
     
     public void flush() {
+        if (recording != null) {
+            record();
+            return;
+        }
+        if (currentBatchIsNineSlice) {
+            flushNineSlices();
+            return;
+        }
         if (vertexDataIndex == 0) return; // Nothing to draw
         
         // 1. Prepare and upload vertex data
@@ -452,8 +464,12 @@ public class UIRenderer {
         GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboId);
         GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, vertexBuffer);
         
+        drawQuads(vaoId, 0, vertexDataIndex / VERTEX_SIZE, currentBatchIsTextured, currentAtlasTextureID);
+    }
+    
+    private void drawQuads(int vao, int firstVertex, int vertexCount, boolean textured, int textureId) {
         // 2. Activate Shader and VAO
-        GL30.glBindVertexArray(vaoId);
+        GL30.glBindVertexArray(vao);
         GL20.glUseProgram(shaderProgramId);
         
         // 3. Set Uniforms based on current batch state
@@ -461,7 +477,7 @@ public class UIRenderer {
         // --- CRITICAL: Set the useTexture flag ---
         int locUseTexture = glGetUniformLocation(shaderProgramId, "useTexture");
         // Convert Java boolean to int (1 for true, 0 for false)
-        glUniform1i(locUseTexture, currentBatchIsTextured? 1 : 0);
+        glUniform1i(locUseTexture, textured ? 1 : 0);
         
         // Set projection matrix
         int locProj = glGetUniformLocation(shaderProgramId, "projection");
@@ -472,10 +488,10 @@ public class UIRenderer {
         }
         
         // --- CRITICAL: Bind Texture for Textured Batch ---
-        if (currentBatchIsTextured) {
+        if (textured) {
             // Since we set u_texture to 0 in init(), we bind to GL_TEXTURE0
             glActiveTexture(GL_TEXTURE0);
-            glBindTexture(GL_TEXTURE_2D, currentAtlasTextureID);
+            glBindTexture(GL_TEXTURE_2D, textureId);
         } else {
             // Unbind texture unit 0 (good practice)
             glActiveTexture(GL_TEXTURE0);
@@ -489,7 +505,7 @@ public class UIRenderer {
         glDepthFunc(GL_LEQUAL);
         
         // 5. Draw
-        GL11.glDrawArrays(GL11.GL_TRIANGLES, 0, vertexDataIndex / VERTEX_SIZE);
+        GL11.glDrawArrays(GL11.GL_TRIANGLES, firstVertex, vertexCount);
         
         // 6. Cleanup OpenGL State
         GL11.glDisable(GL11.GL_BLEND);
@@ -499,6 +515,143 @@ public class UIRenderer {
         // but leaving glActiveTexture(GL_TEXTURE0); glBindTexture(GL_TEXTURE_2D, 0); in the else block is cleaner.
     }
     
+    private void flushNineSlices() {
+        if (nineSliceCount == 0) return;
+        
+        nineSliceBuffer.clear();
+        nineSliceBuffer.put(nineSliceData, 0, nineSliceCount * NINE_SLICE_SIZE).flip();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, nineSliceVboId);
+        GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, nineSliceBuffer);
+        
+        GL30.glBindVertexArray(nineSliceVaoId);
+        drawNineSlices(nineSliceCount, currentAtlasTextureID);
+        nineSliceCount = 0;
+    }
+    
+    /**
+     * Draws {@code count} instances from the bound nine-slice VAO.
+     */
+    private void drawNineSlices(int count, int textureId) {
+        int programId = nineSliceProgram.getProgramId();
+        GL20.glUseProgram(programId);
+        
+        try (var stack = MemoryStack.stackPush()) {
+            FloatBuffer fb = stack.mallocFloat(16);
+            projection.get(fb);
+            glUniformMatrix4fv(glGetUniformLocation(programId, "projection"), false, fb);
+        }
+        
+        glActiveTexture(GL_TEXTURE0);
+        glBindTexture(GL_TEXTURE_2D, textureId);
+        
+        GL11.glEnable(GL11.GL_BLEND);
+        GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        GL11.glEnable(GL11.GL_DEPTH_TEST);
+        glDepthFunc(GL_LEQUAL);
+        
+        GL31.glDrawArraysInstanced(GL11.GL_TRIANGLES, 0, NINE_SLICE_VERTICES, count);
+        
+        GL11.glDisable(GL11.GL_BLEND);
+        GL20.glUseProgram(0);
+        GL30.glBindVertexArray(0);
+    }
+    
+    /**
+     * Appends the current batch to the frame being recorded.
+     */
+    private void record() {
+        if (currentBatchIsNineSlice) {
+            if (nineSliceCount == 0) return;
+            RetainedFrame.Stream stream = recording.nineSlices;
+            int first = stream.size / NINE_SLICE_SIZE;
+            stream.append(nineSliceData, nineSliceCount * NINE_SLICE_SIZE);
+            recording.command(RetainedFrame.NINE_SLICES, currentAtlasTextureID, first, nineSliceCount, 0);
+            nineSliceCount = 0;
+            return;
+        }
+        if (vertexDataIndex == 0) return;
+        
+        RetainedFrame.Stream stream = recording.quads;
+        int first = stream.size / VERTEX_SIZE;
+        stream.append(vertexData, vertexDataIndex);
+        recording.command(RetainedFrame.QUADS, currentBatchIsTextured ? 1 : 0, currentAtlasTextureID, first, vertexDataIndex / VERTEX_SIZE);
+        vertexDataIndex = 0;
+    }
+    
+    /**
+     * Starts storing everything queued from now on in {@code frame} instead of drawing it.
+     * The frame's previous recording is replaced.
+     */
+    public void beginRecording(RetainedFrame frame) {
+        if (recording != null) throw new IllegalStateException("Already recording a frame");
+        flush();
+        begin();
+        recording = frame;
+        frame.begin();
+    }
+    
+    /**
+     * Finishes the recording and uploads the parts of its buffers that changed since the last one.
+     */
+    public void endRecording() {
+        if (recording == null) throw new IllegalStateException("Not recording a frame");
+        flush();
+        begin();
+        RetainedFrame frame = recording;
+        recording = null;
+        
+        RetainedFrame.Stream quads = frame.quads;
+        if (!quads.isCreated()) {
+            quads.create();
+            GL30.glBindVertexArray(quads.vaoId);
+            GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, quads.vboId);
+            setupQuadAttributes();
+            GL30.glBindVertexArray(0);
+        }
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, quads.vboId);
+        quads.upload();
+        
+        RetainedFrame.Stream nineSlices = frame.nineSlices;
+        if (!nineSlices.isCreated()) nineSlices.create(); // Attributes are pointed per draw, see replay
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, nineSlices.vboId);
+        nineSlices.upload();
+        
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        frame.end();
+    }
+    
+    public boolean isRecording() {
+        return recording != null;
+    }
+    
+    /**
+     * Draws a recorded frame again, in the order it was recorded.
+     */
+    public void replay(RetainedFrame frame) {
+        if (recording != null) throw new IllegalStateException("Cannot replay while recording");
+        if (!frame.isRecorded()) return;
+        flush();
+        begin();
+        
+        int[] commands = frame.commands;
+        for (int i = 0; i < frame.commandCount; i += RetainedFrame.COMMAND_SIZE) {
+            int a = commands[i + 1], b = commands[i + 2], c = commands[i + 3], d = commands[i + 4];
+            switch (commands[i]) {
+                case RetainedFrame.QUADS -> drawQuads(frame.quads.vaoId, c, d, a == 1, b);
+                case RetainedFrame.NINE_SLICES -> {
+                    GL30.glBindVertexArray(frame.nineSlices.vaoId);
+                    GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, frame.nineSlices.vboId);
+                    setupNineSliceAttributes((long) b * NINE_SLICE_SIZE * Float.BYTES);
+                    GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+                    drawNineSlices(c, a);
+                }
+                case RetainedFrame.SCISSOR -> applyScissor(a, b, c, d);
+                case RetainedFrame.NO_SCISSOR -> glDisable(GL_SCISSOR_TEST);
+                default -> throw new IllegalStateException("Unknown frame command " + commands[i]);
+            }
+        }
+    }
+    
     /**
      * Enable OpenGL scissor test with a given rectangle in virtual UI coordinates.
      */
@@ -506,6 +659,14 @@ public class UIRenderer {
         flush(); // Keep this: Must flush before changing OpenGL state!
         begin(); // like this?
         
+        if (recording != null) {
+            recording.command(RetainedFrame.SCISSOR, x, y, width, height); // Converted on replay, the window may resize
+            return;
+        }
+        applyScissor(x, y, width, height);
+    }
+    
+    private void applyScissor(int x, int y, int width, int height) {
         glEnable(GL_SCISSOR_TEST);
         
         // --- STEP 1: Convert Virtual (UI) Coordinates to Window (Pixel) Coordinates ---
@@ -537,6 +698,10 @@ public class UIRenderer {
         flush(); // Flush current batch before changing OpenGL state!
         begin();
         
+        if (recording != null) {
+            recording.command(RetainedFrame.NO_SCISSOR, 0, 0, 0, 0);
+            return;
+        }
         glDisable(GL_SCISSOR_TEST);
     }
     
@@ -552,6 +717,12 @@ public class UIRenderer {
         GL15.glDeleteBuffers(vboId);
         GL30.glDeleteVertexArrays(vaoId);
         MemoryUtil.memFree(vertexBuffer);
+        
+        GL15.glDeleteBuffers(nineSliceVboId);
+        GL30.glDeleteVertexArrays(nineSliceVaoId);
+        MemoryUtil.memFree(nineSliceBuffer);
+        nineSliceProgram.cleanup();
+        EventBus.disconnect(this);
     }
     
     @SubscribeEvent
@@ -0,0 +1,239 @@
+package org.infinitytwogames.wispui.ui.base;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * The elements of a scene, kept in draw order without re-sorting.
+ * <p>
+ * Elements are grouped in buckets, one per distinct draw order, and the buckets are kept sorted.
+ * Inside a bucket elements stay in the order they were added, which is the order a stable sort
+ * would give. Readers index a flat array that is rebuilt lazily, at most once per change.
+ * </p>
+ *
+ *
+ *
+ * <h2>Operations</h2>
+ * <ul>
+ * <li><b>Insert:</b> A binary search over the bucket orders, then an append to the bucket.</li>
+ * <li><b>Remove:</b> The element knows its list, so membership is O(1); removal shifts only
+ * the elements of its own bucket.</li>
+ * <li><b>Re-Order:</b> {@link UI#setDrawOrder(int)} moves the element to the end of its new bucket,
+ * so changing a draw order after registration takes effect without a sort.</li>
+ * <li><b>Iteration:</b> {@link #snapshot()} returns the flat array. It is replaced, never changed,
+ * when the list changes, so a loop over it is stable even if the loop registers elements.</li>
+ * </ul>
+ *
+ * <h2>Threading</h2>
+ * <p>
+ * Any thread may add, remove or re-order elements; writers serialize on the list. Readers never
+ * lock while the list is unchanged: the published snapshot is read through a volatile field, and
+ * only the first read after a change takes the lock to build the next one. {@link #size()} and
+ * {@link #get(int)} read the same snapshot, so a reader sees either the old or the new list, never
+ * a list in the middle of a change. Take one {@link #snapshot()} for a whole loop to keep both
+ * consistent.
+ * </p>
+ *
+ * <h2>Ownership</h2>
+ * <p>
+ * An element is in at most one draw list. Adding it to another list moves it there.
+ * </p>
+ *
+ * @author Infinity Two Games
+ */
+public class DrawList extends AbstractList<UI> implements RandomAccess {
+    private static final UI[] EMPTY = new UI[0];
+
+    private Bucket[] buckets = new Bucket[4];
+    private int bucketCount;
+    private int size; // Guarded by this, readers use the snapshot's length
+    private volatile int version; // Bumped on every change, so indexes built from the list know when to rebuild
+    private volatile int revision; // Bumped when an element in the list, or one drawn under it, looks different
+
+    private volatile UI[] flat = EMPTY;
+    private volatile boolean flatDirty;
+
+    /**
+     * @return The elements back-most first, as published by the last change. Must not be modified.
+     */
+    public UI[] snapshot() {
+        if (!flatDirty) return flat; // The steady state: one volatile read, no lock
+        
+        synchronized (this) {
+            if (flatDirty) {
+                UI[] items = new UI[size];
+                int n = 0;
+                for (int b = 0; b < bucketCount; b++) {
+                    Bucket bucket = buckets[b];
+                    System.arraycopy(bucket.items, 0, items, n, bucket.size);
+                    n += bucket.size;
+                }
+                flat = items; // Publish before clearing the flag, so a clean flag always means a current array
+                flatDirty = false;
+            }
+            return flat;
+        }
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return A number that changes whenever this list changes or anything drawn through it looks different,
+     * including changes that could not be attributed to any list.
+     * @see UI#markChanged()
+     */
+    public int getRevision() {
+        return version + revision + UI.sharedRevision;
+    }
+
+    void markChanged() {
+        revision++;
+    }
+
+    @Override
+    public UI get(int index) {
+        UI[] items = snapshot();
+        if (index < 0 || index >= items.length) throw new IndexOutOfBoundsException("Index " + index + ", size " + items.length);
+        return items[index];
+    }
+
+    @Override
+    public int size() {
+        return snapshot().length;
+    }
+
+    @Override
+    public synchronized boolean contains(Object o) {
+        return o instanceof UI ui && ui.drawList == this;
+    }
+
+    @Override
+    public boolean add(UI ui) {
+        if (ui == null) throw new IllegalArgumentException("Cannot add a null UI");
+        DrawList previous = ui.drawList;
+        if (previous != null && previous != this) previous.remove(ui); // Outside our lock, two lists never lock each other
+        
+        synchronized (this) {
+            if (ui.drawList == this) return false;
+            
+            bucketFor(ui.getDrawOrder(), true).add(ui);
+            ui.drawList = this;
+            ui.listedOrder = ui.getDrawOrder();
+            size++;
+            changed();
+            return true;
+        }
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends UI> uis) {
+        boolean changed = false;
+        for (UI ui : uis) changed |= add(ui); // Readers only rebuild once, on their next snapshot
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+        if (!(o instanceof UI ui) || ui.drawList != this) return false;
+
+        Bucket bucket = bucketFor(ui.listedOrder, false);
+        bucket.remove(ui);
+        if (bucket.size == 0) removeBucket(bucket);
+        ui.drawList = null;
+        size--;
+        changed();
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        for (int b = 0; b < bucketCount; b++) {
+            Bucket bucket = buckets[b];
+            for (int i = 0; i < bucket.size; i++) bucket.items[i].drawList = null;
+            buckets[b] = null;
+        }
+        bucketCount = 0;
+        size = 0;
+        changed();
+    }
+
+    /**
+     * Called by {@link UI#setDrawOrder(int)} for listed elements.
+     */
+    synchronized void reorder(UI ui) {
+        if (ui.drawList != this || ui.listedOrder == ui.getDrawOrder()) return;
+
+        Bucket bucket = bucketFor(ui.listedOrder, false);
+        bucket.remove(ui);
+        if (bucket.size == 0) removeBucket(bucket);
+
+        bucketFor(ui.getDrawOrder(), true).add(ui);
+        ui.listedOrder = ui.getDrawOrder();
+        changed();
+    }
+
+    private void changed() {
+        flatDirty = true;
+        version++;
+        modCount++;
+    }
+
+    private Bucket bucketFor(int order, boolean create) {
+        int low = 0, high = bucketCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midOrder = buckets[mid].order;
+            if (midOrder < order) low = mid + 1;
+            else if (midOrder > order) high = mid - 1;
+            else return buckets[mid];
+        }
+        if (!create) throw new IllegalStateException("No bucket for draw order " + order);
+
+        if (bucketCount == buckets.length) buckets = Arrays.copyOf(buckets, bucketCount * 2);
+        System.arraycopy(buckets, low, buckets, low + 1, bucketCount - low);
+        Bucket bucket = new Bucket(order);
+        buckets[low] = bucket;
+        bucketCount++;
+        return bucket;
+    }
+
+    private void removeBucket(Bucket bucket) {
+        for (int b = 0; b < bucketCount; b++) {
+            if (buckets[b] != bucket) continue;
+            System.arraycopy(buckets, b + 1, buckets, b, bucketCount - b - 1);
+            buckets[--bucketCount] = null;
+            return;
+        }
+    }
+
+    /**
+     * The elements sharing one draw order, in the order they were added.
+     */
+    private static final class Bucket {
+        private final int order;
+        private UI[] items = new UI[8];
+        private int size;
+
+        private Bucket(int order) {
+            this.order = order;
+        }
+
+        private void add(UI ui) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = ui;
+        }
+
+        private void remove(UI ui) {
+            for (int i = size - 1; i >= 0; i--) { // Recently added elements are the usual ones removed
+                if (items[i] != ui) continue;
+                System.arraycopy(items, i + 1, items, i, size - i - 1);
+                items[--size] = null;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package org.infinitytwogames.wispui.ui.base;
+
+import org.infinitytwogames.wispui.Display;
+import org.joml.Vector2i;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.infinitytwogames.wispui.VectorMath.isPointWithinRectangle;
+
+/**
+ * A uniform grid over the virtual display that answers "which UIs are under this point".
+ * <p>
+ * Each UI of a list is stored in every cell its last-draw rectangle overlaps. A query
+ * only looks at the cell under the point, so hit-testing costs the same whether the list
+ * holds ten widgets or thousands.
+ * </p>
+ *
+ *
+ *
+ * <h2>Maintenance</h2>
+ * <ul>
+ * <li><b>Dirty Bounds:</b> {@link UI#draw()} reports when a UI was drawn at a different
+ * rectangle than the one indexed. Only those UIs are moved between cells, on the next query.</li>
+ * <li><b>Rebuilds:</b> Adding, removing or reordering UIs needs {@link #invalidate()}, which
+ * re-indexes the whole list on the next {@link #sync(List)}. A list whose size changed behind
+ * the grid's back, or a display resize, triggers the same rebuild.</li>
+ * <li><b>Ownership:</b> A UI can only be tracked by one grid at a time, the one indexing the
+ * list it belongs to.</li>
+ * </ul>
+ *
+ * @author Infinity Two Games
+ */
+public class HitGrid {
+    public static final int DEFAULT_CELL_SIZE = 64;
+
+    private final int cellSize;
+    private int columns, rows;
+    private int indexedWidth = -1, indexedHeight = -1;
+    private Entry[][] cells = new Entry[0][];
+    private int[] counts = new int[0];
+
+    private Entry[] entries = new Entry[0];
+    private int entryCount;
+    private final List<Entry> dirty = new ArrayList<>();
+    private Entry[] hits = new Entry[16]; // Query scratch, so hit-testing does not allocate
+    private boolean invalid = true;
+
+    public HitGrid() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    public HitGrid(int cellSize) {
+        if (cellSize <= 0) throw new IllegalArgumentException("Cell size must be positive, got " + cellSize);
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Marks the list as changed, so the next {@link #sync(List)} re-indexes it.
+     */
+    public void invalidate() {
+        invalid = true;
+    }
+
+    /**
+     * Brings the grid up to date with {@code uis}, rebuilding it if needed and moving dirty UIs otherwise.
+     */
+    public void sync(List<UI> uis) {
+        if (needsRebuild(uis.size())) {
+            rebuild(uis.toArray(new UI[0]));
+            return;
+        }
+        moveDirty();
+    }
+    
+    /**
+     * Like {@link #sync(List)}, for a published array such as {@link DrawList#snapshot()}.
+     */
+    public void sync(UI[] uis) {
+        if (needsRebuild(uis.length)) {
+            rebuild(uis);
+            return;
+        }
+        moveDirty();
+    }
+    
+    private boolean needsRebuild(int size) {
+        return invalid || size != entryCount || Display.getWidth() != indexedWidth || Display.getHeight() != indexedHeight;
+    }
+    
+    private void moveDirty() {
+        for (int i = 0; i < dirty.size(); i++) {
+            Entry entry = dirty.get(i);
+            entry.queued = false;
+            if (entry.ui.hitEntry != entry) continue; // Re-indexed by another grid since
+            remove(entry);
+            insert(entry);
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Collects the UIs whose last-draw rectangle contains the point, including hidden ones.
+     * <p>
+     * The result keeps the list order (back-most first), so callers can walk it from the end
+     * exactly like they would walk the full list.
+     * </p>
+     */
+    public void query(int x, int y, List<UI> out) {
+        out.clear();
+        if (columns == 0) return;
+
+        int cell = cellY(y) * columns + cellX(x);
+        Entry[] bucket = cells[cell];
+        int count = counts[cell];
+        if (count == 0) return;
+
+        if (hits.length < count) hits = new Entry[Math.max(count, hits.length * 2)];
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            Entry entry = bucket[i];
+            UI ui = entry.ui;
+            Vector2i p = ui.getLastDrawPosition();
+            if (isPointWithinRectangle(p.x, p.y, x, y, p.x + ui.getWidth(), p.y + ui.getHeight())) {
+                hits[found++] = entry;
+            }
+        }
+
+        // Candidates per cell are few, insertion sort by list order
+        for (int i = 1; i < found; i++) {
+            Entry entry = hits[i];
+            int j = i - 1;
+            while (j >= 0 && hits[j].order > entry.order) {
+                hits[j + 1] = hits[j];
+                j--;
+            }
+            hits[j + 1] = entry;
+        }
+        for (int i = 0; i < found; i++) {
+            out.add(hits[i].ui);
+            hits[i] = null;
+        }
+    }
+
+    /**
+     * Stops tracking every UI, e.g. when the owning scene is cleaned up.
+     */
+    public void clear() {
+        for (int i = 0; i < entryCount; i++) {
+            if (entries[i].ui.hitEntry == entries[i]) entries[i].ui.hitEntry = null;
+        }
+        Arrays.fill(entries, 0, entryCount, null);
+        entryCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            Arrays.fill(cells[i], 0, counts[i], null);
+            counts[i] = 0;
+        }
+        dirty.clear();
+        invalid = true;
+    }
+
+    private void rebuild(UI[] uis) {
+        clear();
+        invalid = false;
+
+        indexedWidth = Display.getWidth();
+        indexedHeight = Display.getHeight();
+        int newColumns = Math.max(1, (indexedWidth + cellSize - 1) / cellSize);
+        int newRows = Math.max(1, (indexedHeight + cellSize - 1) / cellSize);
+        if (newColumns != columns || newRows != rows) {
+            columns = newColumns;
+            rows = newRows;
+            cells = new Entry[columns * rows][];
+            counts = new int[columns * rows];
+            for (int i = 0; i < cells.length; i++) cells[i] = new Entry[4];
+        }
+
+        if (entries.length < uis.length) entries = new Entry[uis.length];
+        for (int i = 0; i < uis.length; i++) {
+            UI ui = uis[i];
+            Entry entry = new Entry(this, ui, i);
+            ui.hitEntry = entry;
+            entries[entryCount++] = entry;
+            insert(entry);
+        }
+    }
+
+    private void insert(Entry entry) {
+        UI ui = entry.ui;
+        Vector2i p = ui.getLastDrawPosition();
+        entry.x = p.x;
+        entry.y = p.y;
+        entry.width = ui.getWidth();
+        entry.height = ui.getHeight();
+
+        entry.cellX0 = cellX(entry.x);
+        entry.cellY0 = cellY(entry.y);
+        entry.cellX1 = cellX(entry.x + entry.width);
+        entry.cellY1 = cellY(entry.y + entry.height);
+
+        for (int cy = entry.cellY0; cy <= entry.cellY1; cy++) {
+            for (int cx = entry.cellX0; cx <= entry.cellX1; cx++) {
+                int cell = cy * columns + cx;
+                if (counts[cell] == cells[cell].length) cells[cell] = Arrays.copyOf(cells[cell], counts[cell] * 2);
+                cells[cell][counts[cell]++] = entry;
+            }
+        }
+    }
+
+    private void remove(Entry entry) {
+        for (int cy = entry.cellY0; cy <= entry.cellY1; cy++) {
+            for (int cx = entry.cellX0; cx <= entry.cellX1; cx++) {
+                int cell = cy * columns + cx;
+                Entry[] bucket = cells[cell];
+                int last = --counts[cell];
+                for (int i = 0; i <= last; i++) {
+                    if (bucket[i] == entry) {
+                        bucket[i] = bucket[last]; // Order inside a cell does not matter, queries sort
+                        bucket[last] = null;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private int cellX(int x) {
+        return Math.min(columns - 1, Math.max(0, Math.floorDiv(x, cellSize)));
+    }
+
+    private int cellY(int y) {
+        return Math.min(rows - 1, Math.max(0, Math.floorDiv(y, cellSize)));
+    }
+
+    /**
+     * The indexed state of one UI. Held by the UI so its draw can report a move.
+     */
+    static final class Entry {
+        private final HitGrid grid;
+        private final UI ui;
+        private final int order;
+        private int x, y, width, height;
+        private int cellX0, cellY0, cellX1, cellY1;
+        private boolean queued;
+
+        private Entry(HitGrid grid, UI ui, int order) {
+            this.grid = grid;
+            this.ui = ui;
+            this.order = order;
+        }
+
+        /**
+         * Called after the UI was drawn, queues it if it was drawn somewhere else than indexed.
+         */
+        void drawn(Vector2i position, int width, int height) {
+            if (queued) return;
+            if (position.x == x && position.y == y && width == this.width && height == this.height) return;
+            queued = true;
+            grid.dirty.add(this);
+        }
+    }
+}
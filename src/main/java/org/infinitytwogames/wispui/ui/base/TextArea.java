@@ -69,6 +69,7 @@ public class TextArea extends UI {
      */
     private void wrapText() {
         lines.clear();
+        markChanged(); // The removed lines were drawn
         if (width <= 0) return;
         
         String[] paragraphs = rawText.split("\n");
@@ -97,7 +98,7 @@ public class TextArea extends UI {
             }
         }
         
-        this.height = yOffset - lineGap; // Remove last gap for accurate height
+        setHeight(yOffset - lineGap); // Remove last gap for accurate height
     }
     
     private void createLineComponent(String content, int yOffset) {
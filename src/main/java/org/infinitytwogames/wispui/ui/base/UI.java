@@ -2,6 +2,8 @@ package org.infinitytwogames.wispui.ui.base;
 
 import org.infinitytwogames.wispui.Display;
 import org.infinitytwogames.wispui.data.RGBA;
+import org.infinitytwogames.wispui.event.bus.EventBus;
+import org.infinitytwogames.wispui.event.bus.EventScope;
 import org.infinitytwogames.wispui.event.input.mouse.MouseButtonEvent;
 import org.infinitytwogames.wispui.event.input.mouse.MouseHoverEvent;
 import org.infinitytwogames.wispui.manager.Mouse;
@@ -11,7 +13,9 @@ import org.infinitytwogames.wispui.ui.base.layout.Anchor;
 import org.infinitytwogames.wispui.ui.base.layout.Pivot;
 import org.joml.Vector2i;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -28,10 +32,20 @@ import java.util.Map;
  * <code>Position = (ParentOrigin + (ParentSize * Anchor)) + (MySize * Pivot) + Offset</code>
  * </p>
  *
+ * <h2>Layout Cache</h2>
+ * <p>
+ * The absolute position is cached per element and only recomputed when its anchor, pivot,
+ * offset, size, parent, parent size or the {@link Display} size changed, or when an ancestor
+ * moved. A recompute that changes the result marks the whole subtree dirty, so a lookup is
+ * O(1) however deep the hierarchy is. Code writing the layout fields of an element that has
+ * children directly, or through {@link #getMutableOffset()}, should call {@link #invalidateLayout()}.
+ * </p>
+ *
  * <h2>Lifecycle</h2>
  * <ul>
  * <li><b>draw():</b> Queues the element for the {@link UIRenderer} and updates current state.</li>
- * <li><b>close():</b> Cleans up resources and shuts down attached {@link Component}s.</li>
+ * <li><b>close():</b> Cleans up resources, shuts down attached {@link Component}s and
+ * disconnects the element from the {@link EventBus}.</li>
  * </ul>
  *
  * @author Infinity Two Games
@@ -62,6 +76,24 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
     private final Vector2i position = new Vector2i();
     private final Vector2i endPoint = new Vector2i();
     private final Vector2i lastDrawPos = new Vector2i();
+    HitGrid.Entry hitEntry; // Set while a HitGrid indexes this UI
+    DrawList drawList; // The scene list holding this UI, told when the draw order changes
+    int listedOrder; // Draw order of the bucket it is listed in
+    
+    // Cached absolute layout, see getPosition()
+    private boolean layoutDirty = true;
+    private int absoluteX, absoluteY;
+    private float cachedAnchorX, cachedAnchorY, cachedPivotX, cachedPivotY;
+    private int cachedOffsetX, cachedOffsetY, cachedWidth, cachedHeight;
+    private int cachedParentWidth, cachedParentHeight, cachedParentX, cachedParentY, cachedDisplayWidth, cachedDisplayHeight;
+    private UI cachedParent;
+    private UI registeredParent; // Whose children list this element is in
+    private List<UI> children; // Elements positioned relative to this one, told when it moves
+    private EventScope events; // The scope this element connected through, left on close
+    
+    private static int visualRevision; // Bumped by every visual change, for the RenderLoop
+    static int sharedRevision; // Bumped by changes not attributed to a scene, see DrawList#getRevision
+    private static long redrawDeadline = Long.MAX_VALUE; // System.nanoTime() of the earliest timed redraw
     
     public Mouse.CursorType getCursorType() {
         return cursorType;
@@ -75,6 +107,15 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
         this.renderer = renderer;
     }
     
+    /**
+     * Subscribes this element through {@code scope}, usually its scene's, and remembers it so
+     * {@link #close()} disconnects the element there as well as from the global bus.
+     */
+    protected void connect(EventScope scope) {
+        scope.connect(this);
+        events = scope;
+    }
+    
     public void addComponent(Map<String, Component> components) {
         components.forEach((name, component) -> {
             Component copied = component.copy();
@@ -114,14 +155,51 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
      * Calculates the absolute virtual coordinates of this UI element.
      * <p>
      * If this UI has a parent, the position is relative to the parent's top-left corner.
-     * If parentless, it is relative to the {@link Display} bounds.
+     * If parentless, it is relative to the {@link Display} bounds. The result is cached
+     * until one of its inputs changes.
      * </p>
      *
      * @return The calculated top-left coordinate of the element.
      */
     public Vector2i getPosition() {
+        if (!layoutDirty && parent != null) parent.getPosition(); // An ancestor that moved invalidates this element
+        if (layoutDirty || isLayoutStale()) updateLayout();
+        return position.set(absoluteX, absoluteY);
+    }
+    
+    /**
+     * Drops the cached position of this element and everything positioned relative to it.
+     */
+    public void invalidateLayout() {
+        markChanged();
+        invalidateSubtree();
+    }
+    
+    private void invalidateSubtree() {
+        if (layoutDirty) return; // A dirty element's subtree is already dirty
+        layoutDirty = true;
+        if (children == null) return;
+        for (int i = 0; i < children.size(); i++) {
+            UI child = children.get(i);
+            if (child.parent != this) continue;
+            if (child.drawList != null) child.drawList.markChanged(); // Registered on its own, possibly elsewhere
+            child.invalidateSubtree();
+        }
+    }
+    
+    /**
+     * Catches inputs that were written directly instead of through a setter.
+     */
+    private boolean isLayoutStale() {
+        if (anchor.x != cachedAnchorX || anchor.y != cachedAnchorY || pivot.x != cachedPivotX || pivot.y != cachedPivotY) return true;
+        if (offset.x != cachedOffsetX || offset.y != cachedOffsetY || width != cachedWidth || height != cachedHeight) return true;
+        if (Display.width != cachedDisplayWidth || Display.height != cachedDisplayHeight || parent != cachedParent) return true;
+        return parent != null && (parent.width != cachedParentWidth || parent.height != cachedParentHeight
+                || parent.absoluteX != cachedParentX || parent.absoluteY != cachedParentY);
+    }
+    
+    private void updateLayout() {
         int xa, ya;
-        Vector2i o;
         
         if (parent == null) {
             xa = (int) (Display.width * anchor.x);
@@ -130,15 +208,55 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
             Vector2i parentOrigin = parent.getPosition(); // Get parent's calculated screen coordinates
             xa = parentOrigin.x + (int) (parent.width * anchor.x); // Anchor relative to parent's size
             ya = parentOrigin.y + (int) (parent.height * anchor.y);
+            cachedParentWidth = parent.width;
+            cachedParentHeight = parent.height;
+            cachedParentX = parentOrigin.x;
+            cachedParentY = parentOrigin.y;
         }
-        o = offset;
         
         int xp = (int) (width * pivot.x());
         int yp = (int) (height * pivot.y());
         
-        int x = xa + xp;
-        int y = ya + yp;
-        return position.set(x + o.x, y + o.y);
+        int x = xa + xp + offset.x;
+        int y = ya + yp + offset.y;
+        boolean changed = x != absoluteX || y != absoluteY || width != cachedWidth || height != cachedHeight;
+        
+        cachedAnchorX = anchor.x;
+        cachedAnchorY = anchor.y;
+        cachedPivotX = pivot.x;
+        cachedPivotY = pivot.y;
+        cachedOffsetX = offset.x;
+        cachedOffsetY = offset.y;
+        cachedWidth = width;
+        cachedHeight = height;
+        cachedDisplayWidth = Display.width;
+        cachedDisplayHeight = Display.height;
+        cachedParent = parent;
+        absoluteX = x;
+        absoluteY = y;
+        
+        if (registeredParent != parent) { // Parents assigned to the field directly, setParent registers eagerly
+            if (registeredParent != null) registeredParent.removeChild(this);
+            if (parent != null) parent.addChild(this);
+            registeredParent = parent;
+        }
+        
+        if (changed && children != null) {
+            for (int i = 0; i < children.size(); i++) {
+                UI child = children.get(i);
+                if (child.parent == this) child.invalidateLayout();
+            }
+        }
+        layoutDirty = false;
+    }
+    
+    private void addChild(UI child) {
+        if (children == null) children = new ArrayList<>(2);
+        children.add(child);
+    }
+    
+    private void removeChild(UI child) {
+        if (children != null) children.remove(child);
     }
     
     public Vector2i getLastDrawPosition() {
@@ -172,7 +290,9 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
     }
     
     public void setOffset(int x, int y) {
+        if (offset.x == x && offset.y == y) return; // Layouts re-apply offsets every frame
         offset.set(x, y);
+        invalidateLayout();
     }
     
     public void setAnchor(Anchor anchor) {
@@ -180,11 +300,15 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
     }
     
     public void setAnchor(float x, float y) {
+        if (anchor.x == x && anchor.y == y) return;
         anchor.set(x, y);
+        invalidateLayout();
     }
     
     public void setPivot(float x, float y) {
+        if (pivot.x == x && pivot.y == y) return;
         pivot.set(x, y);
+        invalidateLayout();
     }
     
     public void setPivot(Pivot pivot) {
@@ -212,11 +336,15 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
     }
     
     public void setWidth(int width) {
+        if (this.width == width) return;
         this.width = width;
+        invalidateLayout();
     }
     
     public void setHeight(int height) {
+        if (this.height == height) return;
         this.height = height;
+        invalidateLayout();
     }
     
     public UI getParent() {
@@ -224,7 +352,14 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
     }
     
     public void setParent(UI parent) {
+        if (this.parent == parent) return;
+        
+        // Re-register now, a removed element may never be laid out again and would stay in its old parent's list
+        if (registeredParent != null) registeredParent.removeChild(this);
+        if (parent != null) parent.addChild(this);
+        registeredParent = parent;
         this.parent = parent;
+        invalidateLayout();
     }
     
     public String getTip() {
@@ -236,7 +371,7 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
     }
     
     public void setBackgroundColor(float r, float g, float b, float a) {
-        this.backgroundColor.set(r, g, b, a);
+        if (changeColor(backgroundColor, r, g, b, a)) markChanged();
     }
     
     /**
@@ -249,10 +384,19 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
     public void draw() {
         if (hidden) return;
         renderer.queue(this);
-        lastDrawPos.set(getPosition());
+        markDrawn();
         for (Component component : components.values()) component.draw();
     }
     
+    /**
+     * Records where this UI was drawn for hit testing, and reports it to the scene's hit index.
+     * Overrides of {@link #draw()} that do not call {@code super.draw()} must call this.
+     */
+    protected void markDrawn() {
+        lastDrawPos.set(getPosition());
+        if (hitEntry != null) hitEntry.drawn(lastDrawPos, width, height);
+    }
+    
     public Vector2i getEndPoint() {
         return endPoint.set(getPosition()).add(width, height);
     }
@@ -302,6 +446,7 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
     
     public void addOffset(int x, int y) {
         offset.add(x, y);
+        invalidateLayout();
     }
     
     public void addOffset(int same) {
@@ -313,6 +458,7 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
     }
     
     public void setAngle(float angle) {
+        if (this.angle != angle % 360f) markChanged();
         this.angle = angle % 360f;
         for (Component c : components.values()) c.setAngle(this.angle);
     }
@@ -322,6 +468,7 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
     }
     
     public void setHidden(boolean hidden) {
+        if (this.hidden != hidden) markChanged();
         this.hidden = hidden;
     }
     
@@ -330,7 +477,10 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
     }
     
     public void setDrawOrder(int drawOrder) {
+        if (this.drawOrder == drawOrder) return;
+        visualRevision++;
         this.drawOrder = drawOrder;
+        if (drawList != null) drawList.reorder(this);
     }
     
     public float getBorderThickness() {
@@ -346,10 +496,11 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
     }
     
     public void setBorderColor(float r, float g, float b, float a) {
-        borderColor.set(r, g, b, a);
+        if (changeColor(borderColor, r, g, b, a)) markChanged();
     }
     
     public void setBorderThickness(float borderThickness) {
+        if (this.borderThickness != borderThickness) markChanged();
         this.borderThickness = borderThickness;
     }
     
@@ -358,9 +509,65 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
     }
     
     public void setCornerRadius(float cornerRadius) {
+        if (this.cornerRadius != cornerRadius) markChanged();
         this.cornerRadius = cornerRadius;
     }
     
+    /**
+     * Records that something visible changed outside the setters of this class, e.g. a component or a
+     * field written directly. Every retained scene re-records and the {@link org.infinitytwogames.wispui.RenderLoop}
+     * draws again; prefer {@link #markChanged()} when the element that changed is known.
+     */
+    public static void markVisualChange() {
+        visualRevision++;
+        sharedRevision++;
+    }
+    
+    /**
+     * Records that something this element draws changed. Only the scene the element is drawn in, found
+     * through its parents, has to re-record; elements drawn outside any scene count for all of them.
+     */
+    public void markChanged() {
+        visualRevision++;
+        UI owner = this;
+        while (owner.drawList == null && owner.parent != null) owner = owner.parent;
+        if (owner.drawList != null) owner.drawList.markChanged();
+        else sharedRevision++;
+    }
+    
+    public static int getVisualRevision() {
+        return visualRevision;
+    }
+    
+    /**
+     * Asks for a frame in {@code seconds}, for changes driven by time rather than by input, like a
+     * blinking caret or a tooltip delay. The earliest request wins until a frame takes it.
+     */
+    public static void requestRedraw(float seconds) {
+        long deadline = System.nanoTime() + (long) (Math.max(0, seconds) * 1_000_000_000L);
+        if (deadline < redrawDeadline) redrawDeadline = deadline;
+    }
+    
+    /**
+     * @return The {@link System#nanoTime()} of the earliest requested redraw, or {@link Long#MAX_VALUE} if none.
+     */
+    public static long getRedrawDeadline() {
+        return redrawDeadline;
+    }
+    
+    /**
+     * Forgets the pending redraw request. Called when a frame starts, the frame re-requests what it still needs.
+     */
+    public static void clearRedrawDeadline() {
+        redrawDeadline = Long.MAX_VALUE;
+    }
+    
+    private static boolean changeColor(RGBA color, float r, float g, float b, float a) {
+        float oldR = color.r(), oldG = color.g(), oldB = color.b(), oldA = color.a();
+        color.set(r, g, b, a); // Compared after clamping, so out-of-range inputs do not count as changes
+        return color.r() != oldR || color.g() != oldG || color.b() != oldB || color.a() != oldA;
+    }
+    
     @Override
     public int compareTo(UI ui) {
         return Integer.compare(drawOrder, ui.drawOrder);
@@ -372,6 +579,15 @@ public abstract class UI implements Comparable<UI>, AutoCloseable {
             component.cleanup();
         }
         cleanup();
+        EventBus.disconnect(this);
+        if (events != null) {
+            events.disconnect(this);
+            events = null;
+        }
+        if (registeredParent != null) {
+            registeredParent.removeChild(this);
+            registeredParent = null;
+        }
     }
     
     public abstract void onMouseClicked(MouseButtonEvent e);
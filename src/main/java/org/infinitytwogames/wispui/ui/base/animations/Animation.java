@@ -32,7 +32,7 @@ public class Animation {
     }
     
     public static float linear(int start, float target, float speed, float delta) {
-        return lerp(start, target, delta * speed);
+        return lerp(start, target, Math.min(1.0f, delta * speed)); // A long frame lands on the target instead of past it
     }
     
     /**
@@ -49,7 +49,7 @@ public class AspectRatio implements Component {
         this.defaultHeight = (float) defaultHeight;
         this.defaultWidth = (float) defaultWidth;
 
-        EventBus.connect(this);
+        EventBus.connectWeak(this);
 
         // Initial ratio calculation and dimension update
         recalculateRatio();
@@ -85,6 +85,7 @@ public class AspectRatio implements Component {
         // Get the available space (the Display dimensions)
         final float availableWidth = Display.width;
         final float availableHeight = Display.height;
+        int oldWidth = width, oldHeight = height, oldX = offset.x, oldY = offset.y;
 
         // 1. Calculate the height required if we use the full available width.
         // Height = width / ratio (ratio = W/H)
@@ -110,7 +111,9 @@ public class AspectRatio implements Component {
         }
         
         if (parent != null)
-            parent.setSize(width,height);
+            parent.setSize(width,height); // Records the change itself
+        else if (width != oldWidth || height != oldHeight || offset.x != oldX || offset.y != oldY)
+            UI.markVisualChange(); // Whoever reads the dimensions draws differently now
     }
 
     // --- Event Handling ---
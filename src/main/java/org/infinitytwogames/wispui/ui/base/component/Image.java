@@ -25,6 +25,8 @@ import org.infinitytwogames.wispui.ui.base.UI;
  * acts as a multiplier for the texture's colors.</li>
  * <li><b>Lifecycle Management:</b> Automatically calls {@code texture.cleanup()}
  * to free GPU memory when the UI component is closed.</li>
+ * <li><b>Placeholder:</b> While a texture from {@code Texture.loadAsync} is still
+ * uploading, the background color is drawn in its place.</li>
  * </ul>
  *
  * @author Infinity Two Games
@@ -38,10 +40,12 @@ public class Image extends UI implements Component {
     }
     
     public void setForegroundColor(float r, float g, float b, float a) {
+        markChanged();
         tint.set(r, g, b, a);
     }
     
     public RGBA setForegroundColor(RGBA color) {
+        markChanged();
         return tint.set(color);
     }
     
@@ -50,17 +54,24 @@ public class Image extends UI implements Component {
     }
     
     public void setTexture(Texture texture) {
+        markChanged();
         this.texture = texture;
     }
     
     @Override
     public void draw() {
-        if (texture == null) return;
-        renderer.queueTextureDirect(
-                texture,
-                tint,
-                this
-        );
+        if (texture == null || isHidden()) return;
+        if (!texture.isReady()) {
+            // Still streaming in, the background quad stands in as a placeholder
+            renderer.queue(this);
+        } else {
+            renderer.queueTextureDirect(
+                    texture,
+                    tint,
+                    this
+            );
+        }
+        markDrawn(); // super.draw() is skipped, the texture replaces the background quad
     }
     
     @Override
@@ -26,7 +26,7 @@ public class Scale implements Component {
         this.yRatio = yRatio;
         
         updateSize(); // initialize once
-        EventBus.connect(this);
+        EventBus.connectWeak(this);
     }
     
     public Scale(float xRatio, float yRatio, UI ui) {
@@ -35,7 +35,7 @@ public class Scale implements Component {
         this.parent = ui;
         
         updateSize(); // initialize once
-        EventBus.connect(this);
+        EventBus.connectWeak(this);
     }
     
     public void setOffset(int width, int height) {
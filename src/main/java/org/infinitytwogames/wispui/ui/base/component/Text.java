@@ -9,6 +9,8 @@ import org.infinitytwogames.wispui.ui.base.layout.Pivot;
 import org.infinitytwogames.wispui.ui.base.layout.Scene;
 import org.joml.Vector2i;
 
+import java.util.Objects;
+
 /**
  * A specialized component for rendering strings relative to a parent container.
  * <p>
@@ -56,6 +58,7 @@ public class Text implements Component {
     }
 
     public void setAnchor(Anchor anchor) {
+        markChanged();
         this.anchor = anchor;
     }
 
@@ -64,6 +67,7 @@ public class Text implements Component {
     }
 
     public void setPivot(Pivot pivot) {
+        markChanged();
         this.pivot = pivot;
     }
 
@@ -72,6 +76,7 @@ public class Text implements Component {
     }
 
     public void setOffset(Vector2i offset) {
+        markChanged();
         this.offset = offset;
     }
 
@@ -80,7 +85,10 @@ public class Text implements Component {
     }
 
     public void setParent(UI parent) {
+        if (this.parent == parent) return;
+        markChanged(); // Both the scene drawn from before and the one drawn from now
         this.parent = parent;
+        markChanged();
     }
     
     @Override
@@ -88,6 +96,11 @@ public class Text implements Component {
         return new Text(renderer, scene);
     }
     
+    private void markChanged() {
+        if (parent != null) parent.markChanged(); // Text is drawn by its parent, only that one's scene redraws
+        else UI.markVisualChange();
+    }
+    
     public void setPosition(Anchor anchor, Pivot pivot, Vector2i offset) {
         setAnchor(anchor);
         setPivot(pivot);
@@ -135,7 +148,12 @@ public class Text implements Component {
     }
     
     public void setColor(float r, float g, float b, float a) {
+        float oldR = color.getRed(), oldG = color.getGreen(), oldB = color.getBlue(), oldA = color.getAlpha();
         color.set(r, g, b, a);
+        // Widgets re-apply their color every frame, only a real change counts
+        if (color.getRed() != oldR || color.getGreen() != oldG || color.getBlue() != oldB || color.getAlpha() != oldA) {
+            markChanged();
+        }
     }
 
     public String getText() {
@@ -143,6 +161,7 @@ public class Text implements Component {
     }
 
     public void setText(String text) {
+        if (!Objects.equals(this.text, text)) markChanged();
         this.text = text;
     }
 
@@ -161,10 +180,12 @@ public class Text implements Component {
     }
 
     public void setOffset(int x, int y) {
+        if (offset.x != x || offset.y != y) markChanged();
         offset.set(x,y);
     }
 
     public void setRenderer(FontRenderer textRenderer) {
+        markChanged();
         renderer = textRenderer;
     }
 
@@ -178,11 +199,13 @@ public class Text implements Component {
     
     @Override
     public void setAngle(float angle) {
+        if (this.angle != angle) markChanged();
         this.angle = angle;
     }
     
     @Override
     public void setDrawOrder(int z) {
+        if (drawOrder != z) markChanged();
         drawOrder = z;
     }
     
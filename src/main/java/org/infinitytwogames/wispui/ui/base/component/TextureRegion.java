@@ -45,6 +45,7 @@ public class TextureRegion extends UI implements Component {
     }
     
     public void setForegroundColor(RGBA foregroundColor) {
+        markChanged();
         this.foregroundColor = foregroundColor;
     }
     
@@ -53,6 +54,7 @@ public class TextureRegion extends UI implements Component {
     }
     
     public void setTextureIndex(int textureIndex) {
+        markChanged();
         this.textureIndex = textureIndex;
     }
     
@@ -61,6 +63,7 @@ public class TextureRegion extends UI implements Component {
     }
     
     public void setAtlas(TextureAtlas atlas) {
+        markChanged();
         this.atlas = atlas;
     }
     
@@ -65,7 +65,9 @@ public class Caret extends UI implements Updatable {
         if (blinkTimer >= 0.5f) {
             blinkTimer = 0f;
             visible = !visible;
+            markChanged();
         }
+        requestRedraw(0.5f - blinkTimer); // Idle loops wake up for the next blink
     }
     
     /**
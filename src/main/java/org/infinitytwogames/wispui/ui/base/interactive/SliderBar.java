@@ -68,7 +68,7 @@ public abstract class SliderBar extends UI implements Container {
         
         temp = List.of(button);
         
-        EventBus.connect(this);
+        EventBus.connectWeak(this);
     }
     
     public int getCurrent() {
@@ -107,7 +107,7 @@ public abstract class SliderBar extends UI implements Container {
         current = (int) (scrollPercent * max);
     }
     
-    @SubscribeEvent
+    @SubscribeEvent(receiveConsumed = true) // The drag must end wherever the button is released
     public void onMouseClick(MouseButtonEvent e) {
         if (held && e.action == GLFW_RELEASE) {
             held = false;
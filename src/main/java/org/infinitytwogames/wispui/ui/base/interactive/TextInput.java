@@ -4,12 +4,12 @@ import org.infinitytwogames.wispui.Display;
 import org.infinitytwogames.wispui.VectorMath;
 import org.infinitytwogames.wispui.data.RGBA;
 import org.infinitytwogames.wispui.event.SubscribeEvent;
-import org.infinitytwogames.wispui.event.bus.EventBus;
 import org.infinitytwogames.wispui.event.input.keyboard.CharacterInputEvent;
 import org.infinitytwogames.wispui.event.input.keyboard.KeyPressEvent;
 import org.infinitytwogames.wispui.event.input.mouse.MouseButtonEvent;
 import org.infinitytwogames.wispui.manager.Mouse;
 import org.infinitytwogames.wispui.ui.base.Label;
+import org.infinitytwogames.wispui.ui.base.animations.Updatable;
 import org.infinitytwogames.wispui.ui.base.layout.Anchor;
 import org.infinitytwogames.wispui.ui.base.layout.Pivot;
 import org.infinitytwogames.wispui.ui.base.layout.Scene;
@@ -40,7 +40,7 @@ import static org.lwjgl.glfw.GLFW.*;
  * outside the input bounds.</li>
  * </ul>
  */
-public abstract class TextInput extends Label {
+public abstract class TextInput extends Label implements Updatable {
     protected int index = 0;
     protected final Caret caret;
     protected boolean input;
@@ -50,6 +50,7 @@ public abstract class TextInput extends Label {
     protected final Scene scene;
     protected String hint = "";
     protected RGBA original = new RGBA();
+    private boolean updated;
     
     public TextInput(Scene scene, String path) {
         super(scene, path);
@@ -66,7 +67,7 @@ public abstract class TextInput extends Label {
         setCursorType(Mouse.CursorType.IBEAM);
         setTextPosition(new Anchor(0, 0.5f), new Pivot(0, 0.5f), new Vector2i(5, 0));
         
-        EventBus.connect(this);
+        connect(scene.getEvents());
     }
     
     public String getHint() {
@@ -93,8 +94,9 @@ public abstract class TextInput extends Label {
         focus();
     }
     
-    @SubscribeEvent
+    @SubscribeEvent(receiveConsumed = true) // A click on another widget must still unfocus us
     public void onMousePressed(MouseButtonEvent e) {
+        if (!input) return;
         if (!VectorMath.isPointInRect(
                 getPosition(),
                 getEndPoint(),
@@ -105,9 +107,20 @@ public abstract class TextInput extends Label {
         }
     }
     
+    /**
+     * Advances the caret blink. Scenes call this every frame for their own elements, also
+     * while a retained scene is replaying and not drawing.
+     */
+    @Override
+    public void update(float delta) {
+        caret.update(delta);
+        updated = true;
+    }
+    
     @Override
     public void draw() {
-        caret.update(scene.getDelta());
+        if (!updated) caret.update(scene.getDelta()); // Nested in a container, nobody else drives the blink
+        updated = false;
         
         if (builder.isEmpty()) {
             super.setText(hint);
@@ -137,8 +150,11 @@ public abstract class TextInput extends Label {
         original.set(color);
     }
     
-    @SubscribeEvent
+    @SubscribeEvent(priority = 10) // Focused input claims keys before other listeners
     public void onKeyPress(KeyPressEvent e) {
+        if (!input) return;
+        e.consume();
+        
         if (e.getAction() == GLFW_PRESS ||
                 e.getAction() == GLFW_REPEAT
         ) {
@@ -250,9 +266,10 @@ public abstract class TextInput extends Label {
         return clamp(0, builder.length(), state.startIndex() + (visible.length() - prefixLen));
     }
     
-    @SubscribeEvent
+    @SubscribeEvent(priority = 10)
     public void onCharacterPressed(CharacterInputEvent e) {
         if (input) {
+            e.consume();
             caret.reset();
             caret.forceDraw();
             // NEW: If the previous state was submitted, clear the builder before inserting.
@@ -31,7 +31,7 @@ public abstract class AspectRatioPanel extends Panel {
         this.anchor = new Anchor(0.5f, 0.5f);
         this.pivot = new Pivot(0.5f, 0.5f);
         
-        EventBus.connect(this);
+        connect(scene.getEvents());
         updateDimensions();
     }
     
@@ -73,6 +73,7 @@ public abstract class AspectRatioPanel extends Panel {
             // Calculate horizontal offset to center (creating pillarboxing).
             this.offset = new Vector2i((int) ((availableWidth - this.width) / 2), 0);
         }
+        invalidateLayout(); // Fields were written directly, children need to follow
     }
     
     // --- Event Handling ---
@@ -120,28 +120,38 @@ public class GUI extends Scene {
     
     public void setSize(Vector2i size) {
         gui.setSize(size);
+        syncSize();
     }
     
     public void setSize(int width, int height) {
         gui.setSize(width, height);
+        syncSize();
     }
     
     public void setSize(int same) {
         gui.setSize(same);
+        syncSize();
     }
     
     public void set(UI ui) {
         gui.set(ui);
+        syncSize();
     }
     
     public void setWidth(int width) {
         gui.setWidth(width);
-        this.width = width;
+        syncSize();
     }
     
     public void setHeight(int height) {
         gui.setHeight(height);
-        this.height = height;
+        syncSize();
+    }
+    
+    private void syncSize() {
+        // The rectangle is the source of truth, its setters record the visual change
+        width = gui.getWidth();
+        height = gui.getHeight();
     }
     
     public Vector2i getOffset() {
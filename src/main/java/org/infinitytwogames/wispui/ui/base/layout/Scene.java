@@ -3,13 +3,20 @@ package org.infinitytwogames.wispui.ui.base.layout;
 import org.infinitytwogames.wispui.Display;
 import org.infinitytwogames.wispui.Window;
 import org.infinitytwogames.wispui.data.Constants;
+import org.infinitytwogames.wispui.event.Event;
 import org.infinitytwogames.wispui.event.SubscribeEvent;
 import org.infinitytwogames.wispui.event.bus.EventBus;
+import org.infinitytwogames.wispui.event.bus.EventScope;
+import org.infinitytwogames.wispui.event.input.InputEvent;
 import org.infinitytwogames.wispui.event.input.keyboard.KeyPressEvent;
 import org.infinitytwogames.wispui.event.input.mouse.MouseButtonEvent;
+import org.infinitytwogames.wispui.event.input.mouse.MouseCoordinatesEvent;
 import org.infinitytwogames.wispui.event.input.mouse.MouseHoverEvent;
 import org.infinitytwogames.wispui.manager.Mouse;
+import org.infinitytwogames.wispui.renderer.RetainedFrame;
 import org.infinitytwogames.wispui.renderer.UIRenderer;
+import org.infinitytwogames.wispui.ui.base.DrawList;
+import org.infinitytwogames.wispui.ui.base.HitGrid;
 import org.infinitytwogames.wispui.ui.base.Label;
 import org.infinitytwogames.wispui.ui.base.UI;
 import org.infinitytwogames.wispui.ui.base.animations.Updatable;
@@ -18,7 +25,10 @@ import org.joml.Vector2i;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static org.infinitytwogames.wispui.Display.transformWindowToVirtual;
@@ -31,9 +41,25 @@ import static org.infinitytwogames.wispui.VectorMath.isPointWithinRectangle;
  * It handles the following core responsibilities:
  * <ul>
  * <li><b>Input Dispatching:</b> Routes mouse and keyboard events to the correct {@link UI} components.</li>
- * <li><b>Z-Order Management:</b> Maintains a sorted list of components based on their draw order.</li>
- * <li><b>Hover & Tooltips:</b> Tracks how long a mouse has hovered over an element to trigger tooltips.</li>
+ * <li><b>Z-Order Management:</b> Keeps its components in a {@link DrawList}, ordered by draw order
+ * without re-sorting on registration, and following draw-order changes made later. Any thread may
+ * register or unregister; each frame draws and hit-tests one published snapshot of the list without locking.</li>
+ * <li><b>Hit-Testing:</b> A {@link HitGrid} over the last-draw rectangles of the scene's elements
+ * finds the candidates under the cursor, so hover and click cost stays flat as screens grow.</li>
+ * <li><b>Hover & Tooltips:</b> Hover is resolved again only when the cursor moves, or the scene's
+ * elements, layout or visibility change; a resting cursor only advances the tooltip dwell timer.</li>
  * <li><b>Task Scheduling:</b> Executes thread-safe {@link Runnable} tasks via a concurrent queue.</li>
+ * <li><b>Subscription Scope:</b> Widgets built for the scene connect through {@link #getEvents()}.
+ * Closing a widget disconnects it, and {@link #cleanup()} disconnects them all.</li>
+ * <li><b>Scene Bus:</b> Each scene has its own {@link EventBus}. The global bus only reaches the
+ * scene's router, which forwards {@link InputEvent}s while the scene handles input and every
+ * other event unconditionally. Paused scenes therefore cost one check per input event instead
+ * of one call per widget.</li>
+ * <li><b>Retained Mode:</b> With {@link #setRetained(boolean)} the scene records its geometry into a
+ * {@link RetainedFrame} and replays it while nothing visible changed, tracked through
+ * {@link DrawList#getRevision()}, so a change in one scene does not re-record the others.
+ * {@link Updatable}s, also those nested in {@link Container}s, are still updated every frame. Code that
+ * changes what a widget draws without going through its setters should call {@link #invalidate()}.</li>
  * </ul>
  * </p>
  *
@@ -41,24 +67,45 @@ import static org.infinitytwogames.wispui.VectorMath.isPointWithinRectangle;
  */
 public class Scene {
     protected final UIRenderer renderer;
-    protected final List<UI> uis;
+    protected final DrawList uis;
     protected final Window window;
     protected float delta; // in seconds
     protected boolean handleInput = true;
     protected String activeTooltip = null;
     protected final ConcurrentLinkedQueue<Runnable> runs = new ConcurrentLinkedQueue<>();
     protected final Label tooltip;
+    protected final EventBus bus = new EventBus();
+    protected final EventScope events = new EventScope(bus);
     
     private final Vector2i lastMousePosition = new Vector2i();
     private final Vector2i mouseTemp = new Vector2i();
+    private final Vector2f cursor = new Vector2f(); // Window coordinates of the last cursor move
+    private boolean cursorKnown, cursorMoved;
+    private boolean hoverRecheck;
+    private int hoverRevision, hoverVersion = -1, hoverWidth, hoverHeight;
+    private UI dwellTarget; // Front-most hovered leaf, whose tip the dwell timer is for
     private float hoverTime;
     private long lastFrameTime = System.nanoTime(); // nanoseconds
     private boolean tooltipShown;
+    private final InputRouter router = new InputRouter(); // Held here, the global bus only references it weakly
+    private final HitGrid hits = new HitGrid();
+    private int indexedVersion;
+    private final List<UI> candidates = new ArrayList<>();
+    private List<UI> hovered = new ArrayList<>();
+    private List<UI> hoveredNow = new ArrayList<>();
+    
+    private boolean retained;
+    private RetainedFrame frame;
+    private volatile boolean frameValid; // Cleared by registrations from other threads
+    private int frameRevision;
+    private final Set<UI> updated = Collections.newSetFromMap(new IdentityHashMap<>()); // Reused by updateUIs()
+    private int frameWidth, frameHeight;
+    private String frameTooltip;
     
     public Scene(UIRenderer renderer, Window window) {
         this.renderer = renderer;
         this.window = window;
-        this.uis = Collections.synchronizedList(new ArrayList<>());
+        this.uis = new DrawList();
         
         tooltip = new Label(this, Constants.fontFilePath);
         tooltip.setSize(512, 64);
@@ -66,27 +113,58 @@ public class Scene {
         tooltip.setTextPosition(new Anchor(0, 0.5f), new Pivot(0, 0.5f));
         tooltip.setDrawOrder(100);
         
-        EventBus.connect(this);
+        bus.register(this);
+        EventBus.connectWeak(router);
     }
     
     public UIRenderer getRenderer() {
         return renderer;
     }
     
+    /**
+     * @return The bus this scene's widgets receive events from.
+     */
+    public EventBus getBus() {
+        return bus;
+    }
+    
+    /**
+     * @return The subscription scope on {@link #getBus()} that is disconnected when this scene is cleaned up.
+     */
+    public EventScope getEvents() {
+        return events;
+    }
+    
+    /**
+     * Adds {@code ui} to the elements this scene draws and hit-tests. May be called from any thread.
+     * <p>
+     * An element is drawn by at most one scene. Registering an element that another scene holds moves
+     * it here: the other scene stops drawing it and re-records its retained frame.
+     * </p>
+     *
+     * @return The number of elements registered before, or {@code 0} if {@code ui} already was.
+     */
     public int register(UI ui) {
-        if (!uis.contains(ui)) {
-            int l = uis.size();
-            uis.add(ui);
-            Collections.sort(uis);
+        int l = uis.size();
+        if (uis.add(ui)) {
+            frameValid = false;
             return l;
         }
         return 0;
     }
     
+    /**
+     * Registers several elements at once. Like {@link #register(UI)}, this may be called from any thread.
+     */
+    public void registerAll(UI... uis) {
+        for (UI ui : uis) register(ui);
+    }
+    
     /**
      * Renders the scene.
      * <p>
-     * This method calculates the frame {@code delta}, processes hover logic,
+     * This method calculates the frame {@code delta}, delivers events queued on the
+     * scene bus from other threads, processes hover logic,
      * updates {@link Updatable} components, and flushes the renderer.
      * </p>
      */
@@ -95,30 +173,91 @@ public class Scene {
         delta = (now - lastFrameTime) / 1_000_000_000.0f; // Convert to seconds
         lastFrameTime = now;
         
-        activeTooltip = null;
+        bus.drainAsync(); // Events other threads queued for this scene's widgets
+        
         tooltipShown = false;
         
-        // If NOTHING in the entire UI tree was hovered, reset cursor to ARROW
-        if (!calculateHover(uis)) {
-            hoverTime = 0;
-            Mouse.setCursor(Mouse.CursorType.ARROW);
+        if (isHoverStale()) {
+            // If NOTHING in the entire UI tree was hovered, reset cursor to ARROW
+            if (!calculateHover(uis)) {
+                hoverTime = 0;
+                Mouse.setCursor(Mouse.CursorType.ARROW);
+            }
+            hoverRevision = uis.getRevision(); // Hover reactions themselves are not a layout change
+        } else {
+            hoverTime += delta; // The cursor rests, only the dwell timer moves
         }
+        updateTooltip();
         
-        renderer.begin();
-        drawUIs();
-        
-        if (activeTooltip != null) {
-            drawTooltip(activeTooltip);
+        if (retained) {
+            drawRetained();
+        } else {
+            renderer.begin();
+            drawUIs();
+            
+            if (activeTooltip != null) {
+                drawTooltip(activeTooltip);
+            }
+            
+            renderer.flush();
         }
         
-        renderer.flush();
-        
         Runnable r;
         while ((r = runs.poll()) != null) {
             r.run();
         }
     }
     
+    /**
+     * Updates the scene, re-records its frame if anything visible changed and replays it.
+     */
+    private void drawRetained() {
+        updateUIs();
+        
+        if (!frameValid || uis.getRevision() != frameRevision || Display.getWidth() != frameWidth
+                || Display.getHeight() != frameHeight || !Objects.equals(activeTooltip, frameTooltip)) {
+            if (frame == null) frame = new RetainedFrame();
+            
+            renderer.beginRecording(frame);
+            drawUIs();
+            if (activeTooltip != null) {
+                drawTooltip(activeTooltip);
+            }
+            renderer.endRecording();
+            
+            // Taken after drawing, draws that settle their own layout must not count as a change
+            frameRevision = uis.getRevision();
+            frameWidth = Display.getWidth();
+            frameHeight = Display.getHeight();
+            frameTooltip = activeTooltip;
+            frameValid = true;
+        } else {
+            tooltipShown = activeTooltip != null;
+        }
+        
+        renderer.replay(frame);
+    }
+    
+    /**
+     * Switches between drawing every widget each frame and replaying a recorded frame until something changes.
+     * Retained mode suits mostly static screens, like menus and inventories.
+     */
+    public void setRetained(boolean retained) {
+        this.retained = retained;
+        frameValid = false;
+    }
+    
+    public boolean isRetained() {
+        return retained;
+    }
+    
+    /**
+     * Makes a retained scene record its frame again on the next draw.
+     */
+    public void invalidate() {
+        frameValid = false;
+    }
+    
     private void drawTooltip(String activeTooltip) {
         tooltipShown = true;
         tooltip.setText(activeTooltip);
@@ -146,82 +285,154 @@ public class Scene {
      * <p>
      * This follows a "Painter's Algorithm" in reverse: it checks the front-most
      * (last in list) elements first to ensure they block interaction with
-     * elements behind them.
+     * elements behind them. The scene's own list is resolved through its {@link HitGrid},
+     * so only the elements under the cursor are visited. Elements hovered last frame
+     * but not in this one are ended afterwards.
      * </p>
      * * @param uis The list of UI elements to check.
      *
      * @return {@code true} if a hover event was consumed by a UI element.
      */
     protected boolean calculateHover(List<UI> uis) {
-        Vector2f m = window.getMousePosition();
-        Vector2i mousePosition = transformWindowToVirtual(window, m, mouseTemp);
+        if (!cursorKnown) {
+            cursor.set(window.getMousePosition()); // No move seen yet, e.g. right after opening
+            cursorKnown = true;
+        }
+        Vector2i mousePosition = transformWindowToVirtual(window, cursor, mouseTemp);
         
-        boolean hoverHandled = false;
+        if (mousePosition.equals(lastMousePosition)) {
+            hoverTime += delta;
+        } else {
+            hoverTime = 0;
+        }
+        
+        dwellTarget = null;
+        hoveredNow.clear();
+        boolean hoverHandled = calculateHover(uis == this.uis ? candidatesAt(mousePosition) : uis, mousePosition);
+        
+        for (int i = 0; i < hovered.size(); i++) {
+            UI ui = hovered.get(i);
+            if (!containsIdentity(hoveredNow, ui) && (ui.isHovering() || ui.isHidden())) {
+                ui.setHovering(false);
+                ui.onMouseHoverEnded();
+            }
+        }
+        List<UI> swap = hovered;
+        hovered = hoveredNow;
+        hoveredNow = swap;
+        
+        lastMousePosition.set(mousePosition);
         
+        return hoverHandled;
+    }
+    
+    private boolean calculateHover(List<UI> uis, Vector2i mousePosition) {
         for (int i = uis.size() - 1; i >= 0; i--) {
             UI ui = uis.get(i);
+            if (ui.isHidden() || !isUnder(ui, mousePosition)) continue;
             
-            if (ui.isHidden()) {
-                if (ui.isHovering()) {
-                    ui.setHovering(false);
-                    ui.onMouseHoverEnded();
-                }
-                continue;
+            markHovered(ui, mousePosition);
+            if (ui instanceof Container con) {
+                if (calculateHover(con.getUIs(), mousePosition)) return true;
+                continue; // No child took it, elements behind the container may still be hovered
             }
             
-            boolean hoveringNow = isPointWithinRectangle(ui.getLastDrawPosition(), mousePosition, ui.getEndPoint());
-            
-            if (hoveringNow && !hoverHandled) {
-                if (ui instanceof Container con) {
-                    if (!ui.isHovering()) {
-                        ui.setHovering(true);
-                        ui.onMouseHover(new MouseHoverEvent(mousePosition, window));
-                        Mouse.setCursor(ui.getCursorType());
-                    }
-                    hoverHandled = calculateHover(con.getUIs());
-                    if (hoverHandled) {
-                        return true;
-                    }
-                    continue;
-                }
-                
-                if (!ui.isHovering()) {
-                    ui.setHovering(true);
-                    ui.onMouseHover(new MouseHoverEvent(mousePosition, window));
-                    Mouse.setCursor(ui.getCursorType());
-                }
-                
-                if (mousePosition.equals(lastMousePosition)) {
-                    hoverTime += delta;
-                } else {
-                    hoverTime = 0;
-                }
-                
-                if (hoverTime >= 1.0f && ui.getTip() != null) {
-                    activeTooltip = ui.getTip();
-                    
-                    int virtualWidth = Display.getWidth();
-                    int xOffset = 12;
-                    
-                    if (mousePosition.x + tooltip.getWidth() + xOffset > virtualWidth) {
-                        tooltip.setOffset(mousePosition.x - tooltip.getWidth() - xOffset, mousePosition.y + 8);
-                    } else {
-                        tooltip.setOffset(mousePosition.x + xOffset, mousePosition.y + 8);
-                    }
-                }
-                
-                hoverHandled = true;
-            } else {
-                if (ui.isHovering()) {
-                    ui.setHovering(false);
-                    ui.onMouseHoverEnded();
-                }
-            }
+            dwellTarget = ui;
+            return true;
         }
+        return false;
+    }
+    
+    /**
+     * @return {@code true} if the cursor moved or the scene changed since hover was last resolved.
+     */
+    private boolean isHoverStale() {
+        int revision = uis.getRevision();
+        boolean changed = revision != hoverRevision || uis.getVersion() != hoverVersion
+                || Display.getWidth() != hoverWidth || Display.getHeight() != hoverHeight;
+        boolean stale = cursorMoved || changed || hoverRecheck;
         
-        lastMousePosition.set(mousePosition);
+        // Elements are hit-tested where they were last drawn; after a change, check once more when they have been
+        hoverRecheck = changed;
+        cursorMoved = false;
+        hoverVersion = uis.getVersion();
+        hoverWidth = Display.getWidth();
+        hoverHeight = Display.getHeight();
+        return stale;
+    }
+    
+    /**
+     * Shows the tip of the element the cursor rests on once it has rested for a second.
+     */
+    private void updateTooltip() {
+        String tip = dwellTarget != null && !dwellTarget.isHidden() ? dwellTarget.getTip() : null;
+        if (tip == null) {
+            activeTooltip = null;
+            return;
+        }
+        if (hoverTime < 1.0f) {
+            activeTooltip = null;
+            UI.requestRedraw(1.0f - hoverTime); // An idle loop must still wake up to show the tooltip
+            return;
+        }
         
-        return hoverHandled;
+        activeTooltip = tip;
+        int virtualWidth = Display.getWidth();
+        int xOffset = 12;
+        
+        if (lastMousePosition.x + tooltip.getWidth() + xOffset > virtualWidth) {
+            tooltip.setOffset(lastMousePosition.x - tooltip.getWidth() - xOffset, lastMousePosition.y + 8);
+        } else {
+            tooltip.setOffset(lastMousePosition.x + xOffset, lastMousePosition.y + 8);
+        }
+    }
+    
+    @SubscribeEvent(receiveConsumed = true)
+    public void onCursorMoved(MouseCoordinatesEvent e) {
+        if (e.getWindow() != window) return; // Another window's cursor, in that window's coordinates
+        cursor.set(e.getX(), e.getY());
+        cursorKnown = true;
+        cursorMoved = true;
+    }
+    
+    private void markHovered(UI ui, Vector2i mousePosition) {
+        hoveredNow.add(ui);
+        if (!ui.isHovering()) {
+            ui.setHovering(true);
+            notifyHover(ui, mousePosition);
+            Mouse.setCursor(ui.getCursorType());
+        }
+    }
+    
+    /**
+     * @return The scene's elements under the point, back-most first, from the hit grid.
+     */
+    private List<UI> candidatesAt(Vector2i point) {
+        if (uis.getVersion() != indexedVersion) {
+            hits.invalidate(); // Registered, removed or re-ordered since the grid was built
+            indexedVersion = uis.getVersion();
+        }
+        hits.sync(uis.snapshot());
+        hits.query(point.x, point.y, candidates);
+        return candidates;
+    }
+    
+    private static boolean isUnder(UI ui, Vector2i point) {
+        Vector2i p = ui.getLastDrawPosition();
+        return isPointWithinRectangle(p.x, p.y, point.x, point.y, p.x + ui.getWidth(), p.y + ui.getHeight());
+    }
+    
+    private static boolean containsIdentity(List<UI> list, UI ui) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == ui) return true;
+        }
+        return false;
+    }
+    
+    private void notifyHover(UI ui, Vector2i mousePosition) {
+        MouseHoverEvent event = MouseHoverEvent.obtain(mousePosition, window);
+        ui.onMouseHover(event);
+        event.release();
     }
     
     private boolean isTooltipShown() {
@@ -237,19 +448,40 @@ public class Scene {
     }
     
     protected void drawUIs() {
-        for (UI ui : uis) {
+        for (UI ui : uis.snapshot()) {
             if (!ui.isHidden()) {
-                if (ui instanceof Updatable updatable) {
-                    updatable.update(delta);
+                if (!retained && ui instanceof Updatable updatable) {
+                    updatable.update(delta); // Retained scenes update in updateUIs(), also on frames they do not draw
                 }
                 ui.draw();
             }
         }
     }
     
-    @SubscribeEvent
+    protected void updateUIs() {
+        try {
+            for (UI ui : uis.snapshot()) update(ui);
+        } finally {
+            updated.clear(); // Holds no closed widgets past the frame
+        }
+    }
+    
+    /**
+     * Updates {@code ui} and, as nothing draws in a replayed frame, everything nested in it.
+     */
+    private void update(UI ui) {
+        if (ui.isHidden() || !updated.add(ui)) return; // Also registered on its own, or in two containers
+        if (ui instanceof Updatable updatable) updatable.update(delta);
+        if (ui instanceof Container container) {
+            List<UI> children = container.getUIs();
+            for (int i = 0; i < children.size(); i++) update(children.get(i)); // Updates may remove siblings
+        }
+    }
+    
+    @SubscribeEvent(priority = 100)
     public void onMouseClicked(MouseButtonEvent e) {
-        doMouseClick(e, uis);
+        // The front-most UI handled it, so listeners reacting to raw clicks can skip it
+        if (doMouseClick(e, uis)) e.consume();
     }
     
     /**
@@ -262,7 +494,10 @@ public class Scene {
     private boolean doMouseClick(MouseButtonEvent e, List<UI> uis) {
         if (!handleInput) return false;
         Vector2i mousePosition = transformWindowToVirtual(window, e.x, e.y);
-        
+        return doMouseClick(e, uis == this.uis ? candidatesAt(mousePosition) : uis, mousePosition);
+    }
+    
+    private boolean doMouseClick(MouseButtonEvent e, List<UI> uis, Vector2i mousePosition) {
         // Iterate backward (front-most UI to back-most UI)
         for (int i = uis.size() - 1; i >= 0; i--) {
             UI ui = uis.get(i);
@@ -270,12 +505,12 @@ public class Scene {
             if (ui.isHidden()) continue;
             
             // Check if the click is within this UI element
-            if (isPointWithinRectangle(ui.getLastDrawPosition(), mousePosition, ui.getLastDrawEndPoint())) {
+            if (isUnder(ui, mousePosition)) {
                 
                 // PRIORITY: If it's a container, try to click the children FIRST
                 if (ui instanceof Container container) {
                     // If a child handles the click, we stop here (return true)
-                    if (doMouseClick(e, container.getUIs())) {
+                    if (doMouseClick(e, container.getUIs(), mousePosition)) {
                         return true;
                     }
                 }
@@ -292,9 +527,10 @@ public class Scene {
     private void resetHover() {
         activeTooltip = null;
         hoverTime = 0;
+        cursorMoved = true; // Resolve again, the click may have changed what is under the cursor
     }
     
-    @SubscribeEvent
+    @SubscribeEvent(receiveConsumed = true)
     public void onKeyClicked(KeyPressEvent e) {
         resetHover();
     }
@@ -308,13 +544,24 @@ public class Scene {
     }
     
     public void cleanup() {
-        for (UI ui : new ArrayList<>(uis)) {
+        for (UI ui : uis.snapshot()) {
             ui.close();
         }
         uis.clear();
+        hits.clear();
+        hovered.clear();
+        dwellTarget = null;
+        if (frame != null) {
+            frame.cleanup();
+            frame = null;
+        }
+        frameValid = false;
         tooltip.close();
+        events.close();
         
         setHandleInput(false);
+        EventBus.disconnect(router); // Stop forwarding global events, even if the scene stays reachable
+        bus.unregister(this);
     }
     
     public void open() {
@@ -323,6 +570,7 @@ public class Scene {
     
     public void setHandleInput(boolean handleInput) {
         this.handleInput = handleInput;
+        cursorKnown = false; // Cursor moves were not routed here while paused
     }
     
     public void pause() {
@@ -331,9 +579,22 @@ public class Scene {
     
     public void unregister(UI ui) {
         uis.remove(ui);
+        frameValid = false;
     }
     
     public float getDelta() {
         return delta;
     }
+    
+    /**
+     * Forwards events from the global bus to this scene's bus. Consumed events are forwarded too, the
+     * scene bus skips them for every listener not marked {@code receiveConsumed}.
+     */
+    private final class InputRouter {
+        @SubscribeEvent(receiveConsumed = true)
+        public void route(Event e) {
+            if (e instanceof InputEvent && !handleInput) return;
+            bus.post(e);
+        }
+    }
 }
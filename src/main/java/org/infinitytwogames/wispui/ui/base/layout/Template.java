@@ -126,7 +126,7 @@ public class Template {
     }
     
     public void setOffset(Vector2i offset) {
-        this.offset = offset;
+        this.offset.set(offset); // A copy, like the colors, so later changes to the argument don't leak in
     }
     
     public UI getParent() {
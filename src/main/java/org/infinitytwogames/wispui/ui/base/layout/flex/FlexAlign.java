@@ -0,0 +1,11 @@
+package org.infinitytwogames.wispui.ui.base.layout.flex;
+
+/**
+ * How a child of a {@link FlexBox} is placed across the main axis, inside its line.
+ */
+public enum FlexAlign {
+    START,
+    END,
+    CENTER,
+    STRETCH
+}
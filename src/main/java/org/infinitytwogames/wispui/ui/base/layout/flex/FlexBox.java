@@ -0,0 +1,522 @@
+package org.infinitytwogames.wispui.ui.base.layout.flex;
+
+import org.infinitytwogames.wispui.event.input.mouse.MouseButtonEvent;
+import org.infinitytwogames.wispui.event.input.mouse.MouseHoverEvent;
+import org.infinitytwogames.wispui.renderer.UIRenderer;
+import org.infinitytwogames.wispui.ui.base.UI;
+import org.infinitytwogames.wispui.ui.base.UIBuilder;
+import org.infinitytwogames.wispui.ui.base.layout.Container;
+import org.infinitytwogames.wispui.ui.base.layout.Scene;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A container that lays its children out in rows or columns, growing and shrinking them to fit.
+ * <p>
+ * Layout runs in two passes. <b>Measure</b> asks each child for its preferred size along the main
+ * axis (its basis), and nested boxes for the size of their content. <b>Arrange</b> breaks the
+ * children into lines, shares out the free space of each line by the grow and shrink weights of
+ * the children's {@link FlexItem}s, and sets every child's size and offset.
+ * </p>
+ *
+ *
+ *
+ * <h2>Features</h2>
+ * <ul>
+ * <li><b>Direction & Wrap:</b> {@link FlexDirection#ROW} or {@link FlexDirection#COLUMN}; with wrapping,
+ * children that do not fit start a new line.</li>
+ * <li><b>Alignment:</b> {@link FlexJustify} along the main axis, {@link FlexAlign} across it,
+ * overridable per child with {@link FlexItem#alignSelf(FlexAlign)}.</li>
+ * <li><b>Limits:</b> Per-child minimum and maximum width and height, respected while flexing.</li>
+ * </ul>
+ *
+ * <h2>Caching</h2>
+ * <ul>
+ * <li><b>Arrange:</b> A box only lays out again when it was invalidated or its own size changed.
+ * Children whose computed size and offset did not change are left untouched.</li>
+ * <li><b>Measure:</b> The content size of a box is cached per constraint, so a parent asking twice
+ * with the same available space does not walk the subtree again.</li>
+ * <li><b>Invalidation:</b> Adding or removing children, or editing a {@link FlexItem}, invalidates
+ * the box and the boxes containing it, and nothing else.</li>
+ * </ul>
+ *
+ * @author Infinity Two Games
+ */
+public class FlexBox extends UI implements Container {
+    private final List<UI> children = new ArrayList<>();
+    private final List<FlexItem> items = new ArrayList<>();
+    private final List<UI> view = Collections.unmodifiableList(children);
+
+    private FlexDirection direction = FlexDirection.ROW;
+    private FlexJustify justify = FlexJustify.START;
+    private FlexAlign align = FlexAlign.STRETCH;
+    private boolean wrap;
+    private int gap;
+    private int padding;
+
+    private boolean flexDirty = true;
+    private int arrangedWidth = -1, arrangedHeight = -1;
+
+    private boolean measureValid;
+    private int measuredForWidth, measuredForHeight; // The constraint the cached measure was taken with
+    private int measuredWidth, measuredHeight;
+
+    // Per-child scratch, reused between layouts
+    private int[] base = new int[0], crossBase = new int[0], size = new int[0];
+    private boolean[] frozen = new boolean[0];
+
+    public FlexBox(Scene scene) {
+        this(scene.getRenderer());
+    }
+
+    public FlexBox(UIRenderer renderer) {
+        super(renderer);
+    }
+
+    /**
+     * Adds a child with default flex settings: no grow, shrink 1, its current size as basis.
+     */
+    public FlexItem add(UI ui) {
+        return add(ui, new FlexItem());
+    }
+
+    public FlexItem add(UI ui, FlexItem item) {
+        if (item.owner != null) throw new IllegalArgumentException("Flex item already belongs to a box");
+        if (children.contains(ui)) throw new IllegalArgumentException("UI is already in this box");
+
+        item.owner = this;
+        if (item.naturalWidth == 0 && item.naturalHeight == 0) {
+            item.naturalWidth = ui.getWidth();
+            item.naturalHeight = ui.getHeight();
+        }
+
+        ui.setParent(this);
+        ui.setAnchor(0, 0);
+        ui.setPivot(0, 0);
+        children.add(ui);
+        items.add(item);
+        invalidateFlex();
+        return item;
+    }
+
+    public boolean remove(UI ui) {
+        int index = children.indexOf(ui);
+        if (index < 0) return false;
+
+        children.remove(index);
+        items.remove(index).owner = null;
+        ui.setParent(null);
+        invalidateFlex();
+        return true;
+    }
+
+    /**
+     * @return The flex settings of {@code ui}, or {@code null} if it is not a child of this box.
+     */
+    public FlexItem getItem(UI ui) {
+        int index = children.indexOf(ui);
+        return index < 0 ? null : items.get(index);
+    }
+
+    @Override
+    public List<UI> getUIs() {
+        return view;
+    }
+
+    /**
+     * Marks this box for layout, along with every box containing it. Call after changing what a
+     * child would measure, e.g. the content of a nested box, without going through this class.
+     */
+    public void invalidateFlex() {
+        if (flexDirty && !measureValid) return; // Already invalid, and so are the boxes above
+        flexDirty = true;
+        measureValid = false;
+        if (getParent() instanceof FlexBox box) box.invalidateFlex();
+    }
+
+    /**
+     * Lays out the children now if this box was invalidated or resized. {@link #draw()} calls this.
+     */
+    public void arrange() {
+        for (int i = 0; i < children.size(); i++) {
+            if (children.get(i).isHidden() != items.get(i).hidden) {
+                invalidateFlex(); // Hidden children take no space
+                break;
+            }
+        }
+        if (!flexDirty && getWidth() == arrangedWidth && getHeight() == arrangedHeight) return;
+
+        arrangedWidth = getWidth();
+        arrangedHeight = getHeight();
+        flexDirty = false;
+        layout(arrangedWidth, arrangedHeight);
+    }
+
+    /**
+     * Measures the size the content of this box needs when given at most {@code maxWidth} by {@code maxHeight}.
+     * The result is cached until the box is invalidated or asked with a different constraint.
+     *
+     * @return The measured width; the height is {@link #getMeasuredHeight()}.
+     */
+    public int measure(int maxWidth, int maxHeight) {
+        if (measureValid && maxWidth == measuredForWidth && maxHeight == measuredForHeight) return measuredWidth;
+
+        boolean row = direction == FlexDirection.ROW;
+        int innerMain = Math.max(0, (row ? maxWidth : maxHeight) - padding * 2);
+        int innerCross = Math.max(0, (row ? maxHeight : maxWidth) - padding * 2);
+        int n = children.size();
+        ensureScratch(n);
+        measureBases(innerMain, innerCross);
+
+        int totalMain = 0, totalCross = 0, lines = 0;
+        int i = 0;
+        while (i < n) {
+            int used = 0, count = 0, lineCross = 0;
+            for (; i < n; i++) {
+                if (children.get(i).isHidden()) continue;
+                int add = base[i] + (count > 0 ? gap : 0);
+                if (wrap && count > 0 && used + add > innerMain) break;
+                used += add;
+                count++;
+                lineCross = Math.max(lineCross, crossBase[i]);
+            }
+            if (count == 0) break;
+            totalMain = Math.max(totalMain, used);
+            totalCross += lineCross + (lines > 0 ? gap : 0);
+            lines++;
+        }
+
+        totalMain += padding * 2;
+        totalCross += padding * 2;
+        measuredWidth = row ? totalMain : totalCross;
+        measuredHeight = row ? totalCross : totalMain;
+        measuredForWidth = maxWidth;
+        measuredForHeight = maxHeight;
+        measureValid = true;
+        return measuredWidth;
+    }
+
+    public int getMeasuredHeight() {
+        return measuredHeight;
+    }
+
+    private void layout(int width, int height) {
+        boolean row = direction == FlexDirection.ROW;
+        int innerMain = Math.max(0, (row ? width : height) - padding * 2);
+        int innerCross = Math.max(0, (row ? height : width) - padding * 2);
+        int n = children.size();
+        ensureScratch(n);
+        measureBases(innerMain, innerCross);
+        for (int i = 0; i < n; i++) items.get(i).hidden = children.get(i).isHidden();
+
+        int crossPosition = padding;
+        int i = 0;
+        while (i < n) {
+            int start = i, used = 0, count = 0, lineCross = 0;
+            for (; i < n; i++) {
+                if (children.get(i).isHidden()) continue;
+                int add = base[i] + (count > 0 ? gap : 0);
+                if (wrap && count > 0 && used + add > innerMain) break;
+                used += add;
+                count++;
+                lineCross = Math.max(lineCross, crossBase[i]);
+            }
+            if (count == 0) break;
+            if (!wrap) lineCross = innerCross; // A single line spans the whole box
+
+            int free = flexLine(start, i, innerMain - gap * (count - 1));
+            placeLine(start, i, count, Math.max(0, free), crossPosition, lineCross, row);
+            crossPosition += lineCross + gap;
+        }
+    }
+
+    /**
+     * Computes the main size of the children in {@code [start, end)} into {@code size}.
+     *
+     * @return The space left on the line, negative if the children overflow it.
+     */
+    private int flexLine(int start, int end, int available) {
+        for (int i = start; i < end; i++) {
+            size[i] = base[i];
+            frozen[i] = children.get(i).isHidden();
+        }
+
+        // Share out the free space; a child hitting its min or max is frozen there and the rest is shared again
+        for (int pass = start; pass <= end; pass++) {
+            int free = available;
+            float weights = 0;
+            for (int i = start; i < end; i++) {
+                if (children.get(i).isHidden()) continue;
+                free -= frozen[i] ? size[i] : base[i];
+            }
+            boolean growing = free > 0;
+            for (int i = start; i < end; i++) {
+                if (frozen[i]) continue;
+                FlexItem item = items.get(i);
+                weights += growing ? item.grow : item.shrink * base[i];
+            }
+            if (free == 0 || weights == 0) break;
+
+            boolean clamped = false;
+            for (int i = start; i < end; i++) {
+                if (frozen[i]) continue;
+                FlexItem item = items.get(i);
+                float weight = growing ? item.grow : item.shrink * base[i];
+                int target = Math.round(base[i] + free * (weight / weights));
+                int limited = clampMain(item, target);
+                if (limited != target) {
+                    frozen[i] = true;
+                    clamped = true;
+                }
+                size[i] = limited;
+            }
+            if (!clamped) break;
+        }
+
+        int left = available;
+        for (int i = start; i < end; i++) {
+            if (!children.get(i).isHidden()) left -= size[i];
+        }
+        return left;
+    }
+
+    private void placeLine(int start, int end, int count, int remaining, int crossPosition, int lineCross, boolean row) {
+        float position = padding;
+        float between = gap;
+        switch (justify) {
+            case START -> {
+            }
+            case END -> position += remaining;
+            case CENTER -> position += remaining / 2f;
+            case SPACE_BETWEEN -> {
+                if (count > 1) between += remaining / (count - 1f);
+            }
+            case SPACE_AROUND -> {
+                between += remaining / (float) count;
+                position += remaining / (count * 2f);
+            }
+            case SPACE_EVENLY -> {
+                between += remaining / (count + 1f);
+                position += remaining / (count + 1f);
+            }
+        }
+
+        for (int i = start; i < end; i++) {
+            UI ui = children.get(i);
+            if (ui.isHidden()) continue;
+            FlexItem item = items.get(i);
+
+            FlexAlign alignment = item.alignSelf != null ? item.alignSelf : align;
+            int cross = alignment == FlexAlign.STRETCH ? clampCross(item, lineCross) : crossBase[i];
+            int crossOffset = switch (alignment) {
+                case START, STRETCH -> 0;
+                case END -> lineCross - cross;
+                case CENTER -> (lineCross - cross) / 2;
+            };
+
+            int main = Math.round(position);
+            if (row) {
+                ui.setSize(size[i], cross);
+                ui.setOffset(main, crossPosition + crossOffset);
+            } else {
+                ui.setSize(cross, size[i]);
+                ui.setOffset(crossPosition + crossOffset, main);
+            }
+            if (ui instanceof FlexBox box) box.arrange();
+
+            position += size[i] + between;
+        }
+    }
+
+    /**
+     * Fills {@code base} and {@code crossBase} with the preferred sizes of the children.
+     */
+    private void measureBases(int innerMain, int innerCross) {
+        boolean row = direction == FlexDirection.ROW;
+        for (int i = 0; i < children.size(); i++) {
+            UI ui = children.get(i);
+            FlexItem item = items.get(i);
+
+            int main, cross;
+            if (ui instanceof FlexBox box) {
+                int w = box.measure(row ? innerMain : innerCross, row ? innerCross : innerMain);
+                int h = box.getMeasuredHeight();
+                main = row ? w : h;
+                cross = row ? h : w;
+            } else {
+                main = row ? item.naturalWidth : item.naturalHeight;
+                cross = row ? item.naturalHeight : item.naturalWidth;
+            }
+            if (item.basis != FlexItem.AUTO) main = item.basis;
+
+            base[i] = clampMain(item, main);
+            crossBase[i] = clampCross(item, cross);
+        }
+    }
+
+    private int clampMain(FlexItem item, int value) {
+        return direction == FlexDirection.ROW
+                ? clamp(value, item.minWidth, item.maxWidth)
+                : clamp(value, item.minHeight, item.maxHeight);
+    }
+
+    private int clampCross(FlexItem item, int value) {
+        return direction == FlexDirection.ROW
+                ? clamp(value, item.minHeight, item.maxHeight)
+                : clamp(value, item.minWidth, item.maxWidth);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, Math.max(0, value)));
+    }
+
+    private void ensureScratch(int n) {
+        if (base.length >= n) return;
+        int capacity = Math.max(n, base.length * 2);
+        base = Arrays.copyOf(base, capacity);
+        crossBase = Arrays.copyOf(crossBase, capacity);
+        size = Arrays.copyOf(size, capacity);
+        frozen = Arrays.copyOf(frozen, capacity);
+    }
+
+    @Override
+    public void draw() {
+        arrange();
+        super.draw(); // Background and border of the box itself
+
+        for (int i = 0; i < children.size(); i++) {
+            UI ui = children.get(i);
+            if (!ui.isHidden()) ui.draw();
+        }
+    }
+
+    public FlexDirection getDirection() {
+        return direction;
+    }
+
+    public void setDirection(FlexDirection direction) {
+        if (this.direction == direction) return;
+        this.direction = direction;
+        invalidateFlex();
+    }
+
+    public FlexJustify getJustify() {
+        return justify;
+    }
+
+    public void setJustify(FlexJustify justify) {
+        if (this.justify == justify) return;
+        this.justify = justify;
+        invalidateFlex();
+    }
+
+    public FlexAlign getAlign() {
+        return align;
+    }
+
+    public void setAlign(FlexAlign align) {
+        if (this.align == align) return;
+        this.align = align;
+        invalidateFlex();
+    }
+
+    public boolean isWrap() {
+        return wrap;
+    }
+
+    public void setWrap(boolean wrap) {
+        if (this.wrap == wrap) return;
+        this.wrap = wrap;
+        invalidateFlex();
+    }
+
+    public int getGap() {
+        return gap;
+    }
+
+    public void setGap(int gap) {
+        if (this.gap == gap) return;
+        this.gap = gap;
+        invalidateFlex();
+    }
+
+    public int getPadding() {
+        return padding;
+    }
+
+    public void setPadding(int padding) {
+        if (this.padding == padding) return;
+        this.padding = padding;
+        invalidateFlex();
+    }
+
+    @Override
+    public void onMouseClicked(MouseButtonEvent e) {
+
+    }
+
+    @Override
+    public void onMouseHover(MouseHoverEvent e) {
+
+    }
+
+    @Override
+    public void onMouseHoverEnded() {
+
+    }
+
+    @Override
+    public void cleanup() {
+        for (UI ui : children) {
+            ui.close();
+        }
+
+        for (FlexItem item : items) item.owner = null;
+        children.clear();
+        items.clear();
+    }
+
+    public static class Builder extends UIBuilder<FlexBox> {
+        public Builder(Scene scene) {
+            super(new FlexBox(scene));
+        }
+
+        public Builder direction(FlexDirection direction) {
+            ui.setDirection(direction);
+            return this;
+        }
+
+        public Builder justify(FlexJustify justify) {
+            ui.setJustify(justify);
+            return this;
+        }
+
+        public Builder align(FlexAlign align) {
+            ui.setAlign(align);
+            return this;
+        }
+
+        public Builder wrap(boolean wrap) {
+            ui.setWrap(wrap);
+            return this;
+        }
+
+        public Builder gap(int gap) {
+            ui.setGap(gap);
+            return this;
+        }
+
+        public Builder padding(int padding) {
+            ui.setPadding(padding);
+            return this;
+        }
+
+        @Override
+        public Builder applyDefault() {
+            return this;
+        }
+    }
+}
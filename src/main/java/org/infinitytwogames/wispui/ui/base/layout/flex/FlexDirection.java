@@ -0,0 +1,9 @@
+package org.infinitytwogames.wispui.ui.base.layout.flex;
+
+/**
+ * The main axis of a {@link FlexBox}, the one children are laid out along.
+ */
+public enum FlexDirection {
+    ROW,
+    COLUMN
+}
@@ -0,0 +1,126 @@
+package org.infinitytwogames.wispui.ui.base.layout.flex;
+
+/**
+ * How one child of a {@link FlexBox} is sized and aligned.
+ * <p>
+ * Setters return the item so it can be configured inline, e.g.
+ * {@code box.add(button, new FlexItem().grow(1).maxWidth(300))}. Changing an item that is
+ * already in a box re-lays out that box on its next draw.
+ * </p>
+ *
+ *
+ *
+ * <h2>Sizing</h2>
+ * <ul>
+ * <li><b>Basis:</b> The size along the main axis before growing or shrinking. By default it is
+ * the size the child had when it was added, or the measured content size of a nested {@link FlexBox}.</li>
+ * <li><b>Grow / Shrink:</b> Weights for sharing out free space, or taking away missing space
+ * (weighted by basis, like CSS).</li>
+ * <li><b>Min / Max:</b> Hard limits on the final width and height, applied after flexing.</li>
+ * </ul>
+ *
+ * @author Infinity Two Games
+ */
+public class FlexItem {
+    public static final int AUTO = -1;
+
+    float grow;
+    float shrink = 1;
+    int basis = AUTO;
+    int minWidth, minHeight;
+    int maxWidth = Integer.MAX_VALUE, maxHeight = Integer.MAX_VALUE;
+    FlexAlign alignSelf; // null follows the box
+
+    int naturalWidth, naturalHeight; // Size of the child when it was added
+    boolean hidden; // Whether the child was hidden at the last layout
+    FlexBox owner;
+
+    public FlexItem grow(float grow) {
+        if (grow < 0) throw new IllegalArgumentException("Grow cannot be negative, got " + grow);
+        if (this.grow == grow) return this;
+        this.grow = grow;
+        return changed();
+    }
+
+    public FlexItem shrink(float shrink) {
+        if (shrink < 0) throw new IllegalArgumentException("Shrink cannot be negative, got " + shrink);
+        if (this.shrink == shrink) return this;
+        this.shrink = shrink;
+        return changed();
+    }
+
+    /**
+     * @param basis
+     *         The main axis size before flexing, or {@link #AUTO}.
+     */
+    public FlexItem basis(int basis) {
+        if (this.basis == basis) return this;
+        this.basis = basis;
+        return changed();
+    }
+
+    public FlexItem minWidth(int minWidth) {
+        if (this.minWidth == minWidth) return this;
+        this.minWidth = minWidth;
+        return changed();
+    }
+
+    public FlexItem minHeight(int minHeight) {
+        if (this.minHeight == minHeight) return this;
+        this.minHeight = minHeight;
+        return changed();
+    }
+
+    public FlexItem maxWidth(int maxWidth) {
+        if (this.maxWidth == maxWidth) return this;
+        this.maxWidth = maxWidth;
+        return changed();
+    }
+
+    public FlexItem maxHeight(int maxHeight) {
+        if (this.maxHeight == maxHeight) return this;
+        this.maxHeight = maxHeight;
+        return changed();
+    }
+
+    /**
+     * @param alignSelf
+     *         The cross axis alignment of this child, or {@code null} to use the box's.
+     */
+    public FlexItem alignSelf(FlexAlign alignSelf) {
+        if (this.alignSelf == alignSelf) return this;
+        this.alignSelf = alignSelf;
+        return changed();
+    }
+
+    /**
+     * Replaces the size used as the default basis and cross size, e.g. after the child's content changed.
+     */
+    public FlexItem naturalSize(int width, int height) {
+        if (naturalWidth == width && naturalHeight == height) return this;
+        naturalWidth = width;
+        naturalHeight = height;
+        return changed();
+    }
+
+    public float getGrow() {
+        return grow;
+    }
+
+    public float getShrink() {
+        return shrink;
+    }
+
+    public int getBasis() {
+        return basis;
+    }
+
+    public FlexAlign getAlignSelf() {
+        return alignSelf;
+    }
+
+    private FlexItem changed() {
+        if (owner != null) owner.invalidateFlex();
+        return this;
+    }
+}
@@ -0,0 +1,13 @@
+package org.infinitytwogames.wispui.ui.base.layout.flex;
+
+/**
+ * How a {@link FlexBox} distributes the space left on a line along its main axis.
+ */
+public enum FlexJustify {
+    START,
+    END,
+    CENTER,
+    SPACE_BETWEEN,
+    SPACE_AROUND,
+    SPACE_EVENLY
+}
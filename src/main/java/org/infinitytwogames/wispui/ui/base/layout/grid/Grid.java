@@ -28,11 +28,19 @@ import java.util.*;
  * divided by the number of columns/rows (Percentage-based sizing).
  * </p>
  *
+ * <h2>Storage</h2>
+ * <p>
+ * Children are kept in insertion order with their cells in parallel primitive arrays, so
+ * {@link #get(int)} and {@link #indexOf(UI)} are O(1) and {@link #getUIs()} is a view, not a copy.
+ * </p>
+ *
  * @author Infinity Two Games
  */
 public class Grid extends UI implements Container {
-    protected Map<UI, Cell> uis = new LinkedHashMap<>();
-    protected List<UI> temp = Collections.synchronizedList(new ArrayList<>());
+    protected List<UI> uis = new ArrayList<>(); // In insertion order, so get(index) is a lookup
+    protected int[] cellX = new int[16], cellY = new int[16]; // Cell of uis.get(i)
+    protected Map<UI, Integer> indices = new IdentityHashMap<>();
+    protected final List<UI> view = Collections.unmodifiableList(uis);
     protected int columns;
     protected int rows;
     protected int space;
@@ -69,12 +77,15 @@ public class Grid extends UI implements Container {
     }
     
     public UI get(int index) {
-        int i = 0;
-        for (UI ui : uis.keySet()) {
-            if (i++ == index)
-                return ui;
-        }
-        return null;
+        return index >= 0 && index < uis.size() ? uis.get(index) : null;
+    }
+    
+    /**
+     * @return The insertion index of {@code ui}, or -1 if it is not in this grid.
+     */
+    public int indexOf(UI ui) {
+        Integer index = indices.get(ui);
+        return index == null ? -1 : index;
     }
     
     public void updateSize() {
@@ -94,12 +105,6 @@ public class Grid extends UI implements Container {
     
     }
     
-    private List<UI> getTempUIs() {
-        temp.clear();
-        temp.addAll(uis.keySet());
-        return temp;
-    }
-    
     @Override
     public void onMouseHover(MouseHoverEvent e) {
     
@@ -112,18 +117,16 @@ public class Grid extends UI implements Container {
     
     @Override
     public void cleanup() {
-        for (UI ui : uis.keySet()) {
+        for (UI ui : uis) {
             ui.close();
         }
         
-        uis.clear();
-        temp.clear();
+        clearCells();
     }
     
     @Override
     public void draw() {
         if (layoutDirty) {
-            System.out.println("Updating layout");
             layout();
             updateSize();
             layoutDirty = false;
@@ -131,8 +134,8 @@ public class Grid extends UI implements Container {
         
         super.draw(); // Draw the grid's background/border
         
-        for (UI ui : uis.keySet()) {
-            ui.draw();
+        for (int i = 0; i < uis.size(); i++) {
+            uis.get(i).draw();
         }
     }
     
@@ -141,18 +144,16 @@ public class Grid extends UI implements Container {
      * every child based on padding, spacing, and cell dimensions.
      */
     private void layout() {
-        for (Map.Entry<UI, Cell> entry : uis.entrySet()) {
-            UI ui = entry.getKey();
-            Cell cell = entry.getValue();
-            
-            // Calculate dimensions
-            int w = cellSize.x < 0? getWidth() / Math.max(1, columns) : cellSize.x;
-            int h = cellSize.y < 0? getHeight() / Math.max(1, rows) : cellSize.y;
-            
+        // Calculate dimensions
+        int w = cellSize.x < 0? getWidth() / Math.max(1, columns) : cellSize.x;
+        int h = cellSize.y < 0? getHeight() / Math.max(1, rows) : cellSize.y;
+        
+        for (int i = 0; i < uis.size(); i++) {
+            UI ui = uis.get(i);
             ui.setSize(w, h);
             ui.setOffset(
-                    (cell.x * (w + space)) + padding,
-                    (cell.y * (h + space)) + padding
+                    (cellX[i] * (w + space)) + padding,
+                    (cellY[i] * (h + space)) + padding
             );
         }
     }
@@ -173,7 +174,19 @@ public class Grid extends UI implements Container {
         ui.setParent(this);
         layoutDirty = true;
         
-        uis.put(ui, new Cell(column, row)); // column = x, row = y
+        // Placing an element again moves it, keeping its index
+        Integer index = indices.get(ui);
+        if (index == null) {
+            index = uis.size();
+            if (index == cellX.length) {
+                cellX = Arrays.copyOf(cellX, index * 2);
+                cellY = Arrays.copyOf(cellY, index * 2);
+            }
+            uis.add(ui);
+            indices.put(ui, index);
+        }
+        cellX[index] = column;
+        cellY[index] = row;
         return uis.size() - 1;
     }
     
@@ -197,7 +210,7 @@ public class Grid extends UI implements Container {
     }
     
     public List<UI> getUIs() {
-        return getTempUIs();
+        return view;
     }
     
     public void setPadding(int padding) {
@@ -205,7 +218,25 @@ public class Grid extends UI implements Container {
         updateSize();
     }
     
-    protected record Cell(int x, int y) {
+    /**
+     * @return The cell of {@code ui}, or {@code null} if it is not in this grid.
+     */
+    public Cell getCell(UI ui) {
+        int index = indexOf(ui);
+        return index < 0 ? null : new Cell(cellX[index], cellY[index]);
+    }
+    
+    /**
+     * @return A copy of every child and its cell, in insertion order. For code that read the child map
+     * this grid used to store; prefer {@link #getUIs()} and {@link #getCell(UI)}.
+     */
+    public Map<UI, Cell> getCells() {
+        Map<UI, Cell> cells = new LinkedHashMap<>();
+        for (int i = 0; i < uis.size(); i++) cells.put(uis.get(i), new Cell(cellX[i], cellY[i]));
+        return cells;
+    }
+    
+    public record Cell(int x, int y) {
     }
     
     public static class Builder extends UIBuilder<Grid> {
@@ -252,5 +283,6 @@ public class Grid extends UI implements Container {
     
     public void clearCells() {
         uis.clear();
+        indices.clear();
     }
 }
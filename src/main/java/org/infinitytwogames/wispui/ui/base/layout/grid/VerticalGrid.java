@@ -66,7 +66,7 @@ public class VerticalGrid extends Grid {
         if (layoutDirty) {
             // Calculate total required height and track max width
             int currentY = padding;
-            for (UI ui : uis.keySet()) {
+            for (UI ui : uis) {
                 // If cellSize.y is 0, use auto-height
                 int h = (cellSize.y <= 0)? ui.getHeight() : cellSize.y;
                 
@@ -81,6 +81,6 @@ public class VerticalGrid extends Grid {
         }
         
         super.draw();
-        uis.keySet().forEach(UI::draw);
+        uis.forEach(UI::draw);
     }
 }
@@ -65,7 +65,7 @@ public abstract class DropdownMenu extends Button implements Container {
         
         grid = new StatelessGrid(1, 0, 16, new Vector2i());
         
-        EventBus.connect(this);
+        connect(scene.getEvents());
     }
     
     /**
@@ -165,8 +165,10 @@ public abstract class DropdownMenu extends Button implements Container {
      * the menu is hidden to maintain a clean UI state.
      * </p>
      */
-    @SubscribeEvent
+    @SubscribeEvent(receiveConsumed = true)
     public void onMouseClickGlobal(MouseButtonEvent e) {
+        if (menu.isHidden()) return;
+        
         Vector2i point = Display.transformWindowToVirtual(e.window, e.x, e.y);
         if (
                 !VectorMath.isPointWithinRectangle(getPosition(), point, getEndPoint())
@@ -56,7 +56,7 @@ public class HorizontalScrollButton extends UI {
         );
         
         super.setParent(scrollTrack);
-        EventBus.connect(this);
+        EventBus.connectWeak(this);
     }
     
     public void setScrollWidth(int width) {
@@ -90,7 +90,7 @@ public class HorizontalScrollButton extends UI {
         menu.setScrollX((int) (scrollPercent * maxScrollDistance));
     }
     
-    @SubscribeEvent
+    @SubscribeEvent(receiveConsumed = true) // The drag must end wherever the button is released
     public void onMouseClick(MouseButtonEvent e) {
         if (hold && e.action == GLFW_RELEASE) {
             hold = false;
@@ -2,7 +2,6 @@ package org.infinitytwogames.wispui.ui.base.layout.menu.scroll;
 
 import org.infinitytwogames.wispui.Window;
 import org.infinitytwogames.wispui.event.SubscribeEvent;
-import org.infinitytwogames.wispui.event.bus.EventBus;
 import org.infinitytwogames.wispui.event.input.mouse.MouseButtonEvent;
 import org.infinitytwogames.wispui.event.input.mouse.MouseCoordinatesEvent;
 import org.infinitytwogames.wispui.event.input.mouse.MouseHoverEvent;
@@ -55,7 +54,7 @@ public class HorizontalScrollableMenu extends UI {
         scrollButton.setDrawOrder(drawOrder + 2);
         scrollButton.setPosition(new Anchor(0, 1), new Pivot(0, 1)); // bottom-left
         
-        EventBus.connect(this);
+        connect(scene.getEvents());
         setupScrollbar();
     }
     
@@ -175,7 +174,9 @@ public class HorizontalScrollableMenu extends UI {
     @SubscribeEvent
     public void onMouseMove(MouseCoordinatesEvent e) {
         if (isHovering()) {
-            propagateMouseHover(new MouseHoverEvent(e), uis);
+            MouseHoverEvent hover = MouseHoverEvent.obtain((int) e.getX(), (int) e.getY(), e.getWindow());
+            propagateMouseHover(hover, uis);
+            hover.release();
         }
     }
     
@@ -0,0 +1,59 @@
+package org.infinitytwogames.wispui.ui.base.layout.menu.scroll;
+
+import org.infinitytwogames.wispui.ui.base.UI;
+
+/**
+ * Supplies the items of a {@link VirtualList} and the widgets that show them.
+ * <p>
+ * The list only asks for as many widgets as fit in its viewport, plus a few rows of overscan,
+ * and re-binds them to other items as the user scrolls. A widget must therefore take everything
+ * it shows from {@link #bindView(UI, int)} and keep no state of a previous item.
+ * </p>
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * VirtualList<Label> servers = new VirtualList<>(scene, window, new ListAdapter<>() {
+ *     public int getItemCount() { return entries.size(); }
+ *     public Label createView() { return new Label(scene, fontPath); }
+ *     public void bindView(Label view, int index) { view.setText(entries.get(index).name()); }
+ * });
+ * }</pre>
+ *
+ * @param <V>
+ *         The widget type showing one item.
+ *
+ * @author Infinity Two Games
+ */
+public interface ListAdapter<V extends UI> {
+    /**
+     * Returned by {@link #getItemHeight(int)} to use the list's default item height.
+     */
+    int AUTO = -1;
+
+    int getItemCount();
+
+    /**
+     * Creates a new, unbound widget. Called only when no recycled widget is available.
+     */
+    V createView();
+
+    /**
+     * Makes {@code view} show the item at {@code index}. The list sizes and positions the widget itself.
+     */
+    void bindView(V view, int index);
+
+    /**
+     * Called when {@code view} scrolled out of the viewport and was put aside for reuse,
+     * e.g. to drop references to the item it showed.
+     */
+    default void recycleView(V view) {
+    }
+
+    /**
+     * @return The height of the item at {@code index}, or {@link #AUTO}. Read when the list is notified
+     * of a change, not every frame.
+     */
+    default int getItemHeight(int index) {
+        return AUTO;
+    }
+}
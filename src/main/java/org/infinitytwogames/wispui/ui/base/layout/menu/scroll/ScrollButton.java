@@ -68,7 +68,7 @@ public class ScrollButton extends UI { // The Scroll Handle/Thumb
         // 3. Sorting
         this.setDrawOrder(menu.getDrawOrder() + 1);
         
-        EventBus.connect(this);
+        EventBus.connectWeak(this);
     }
     
     // setScrollHeight sets the height of the DRAGGABLE HANDLE (The Thumb)
@@ -116,7 +116,7 @@ public class ScrollButton extends UI { // The Scroll Handle/Thumb
         menu.setTargetScrollY((int) -desiredMenuScroll);
     }
     
-    @SubscribeEvent
+    @SubscribeEvent(receiveConsumed = true) // The drag must end wherever the button is released
     public void onMouseClick(MouseButtonEvent e) {
         if (hold && e.action == GLFW_RELEASE) {
             hold = false;
@@ -2,7 +2,6 @@ package org.infinitytwogames.wispui.ui.base.layout.menu.scroll;
 
 import org.infinitytwogames.wispui.Window;
 import org.infinitytwogames.wispui.event.SubscribeEvent;
-import org.infinitytwogames.wispui.event.bus.EventBus;
 import org.infinitytwogames.wispui.event.input.mouse.MouseButtonEvent;
 import org.infinitytwogames.wispui.event.input.mouse.MouseHoverEvent;
 import org.infinitytwogames.wispui.event.input.mouse.MouseScrollEvent;
@@ -13,10 +12,7 @@ import org.infinitytwogames.wispui.ui.base.layout.Container;
 import org.infinitytwogames.wispui.ui.base.layout.Pivot;
 import org.infinitytwogames.wispui.ui.base.layout.Scene;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
 import static org.infinitytwogames.wispui.manager.SceneManager.propagateMouseClick;
 
@@ -38,6 +34,9 @@ import static org.infinitytwogames.wispui.manager.SceneManager.propagateMouseCli
  * exact bounding box of the menu.</li>
  * <li><b>Proportional Scrollbar:</b> Calculates the height of the scroll handle
  * based on the ratio of viewport height to total content height.</li>
+ * <li><b>Content Bounds:</b> The lowest child edge is kept in a max segment tree, so adding or
+ * removing a child updates the content height in O(log n). Call {@link #updateBounds(UI)} after
+ * moving or resizing a child.</li>
  * </ul>
  *
  * @author InfinityTwo Games
@@ -53,7 +52,9 @@ public class ScrollableMenu extends UI implements Container {
     protected float targetScrollY;
     protected float scrollLerpSpeed = 50f; // Higher = faster/snappier, Lower = smoother/slower
     
-    private final ArrayList<UI> handle = new ArrayList<>();
+    protected final ArrayList<UI> handle = new ArrayList<>();
+    private final Map<UI, Integer> slots = new IdentityHashMap<>(); // Child to its leaf in bottoms
+    private final Bottoms bottoms = new Bottoms();
     
     // Update setScrollY to only handle the target
     public void setTargetScrollY(float target) {
@@ -72,53 +73,112 @@ public class ScrollableMenu extends UI implements Container {
         scrollButton.setPosition(new Anchor(1, 0), new Pivot(1, 0));
         
         handle.add(scrollButton);
-        EventBus.connect(this);
+        connect(scene.getEvents());
         
         setupScrollbar();
     }
     
     public void addUI(UI ui) {
-        ui.setParent(this);
-        uis.add(ui);
-        update();
+        attach(ui);
+        
+        // Children usually share a draw order, so this is mostly an append
+        boolean last = uis.isEmpty() || uis.get(uis.size() - 1).getDrawOrder() <= ui.getDrawOrder();
+        uis.add(last ? uis.size() : insertionPoint(ui.getDrawOrder()), ui);
         
-        contentHeight = Math.max(ui.getHeight() + ui.getPosition().y() + padding, contentHeight);
+        updateContentHeight();
+    }
+    
+    /**
+     * Adds the children in one pass: one sort and one scrollbar update for the whole collection.
+     */
+    public <U extends UI> void addAll(Collection<U> collection) {
+        for (U ui : collection) {
+            attach(ui);
+            uis.add(ui);
+        }
+        uis.sort(null); // Stable, so children sharing a draw order keep their order
+        updateContentHeight();
+    }
+    
+    private void attach(UI ui) {
+        ui.setParent(this);
+        handle.add(ui);
         ui.setDrawOrder(drawOrder + ui.getDrawOrder() + 1);
         
-        Collections.sort(uis);
-        setupScrollbar();
+        int slot = bottoms.allocate();
+        slots.put(ui, slot);
+        bottoms.set(slot, bottomOf(ui));
     }
     
-    private void update() {
-        for (UI ui : uis) {
-            if (!handle.contains(ui)) {
-                handle.add(ui);
-            }
+    /**
+     * @return The index after the last child drawn at or below {@code order}.
+     */
+    private int insertionPoint(int order) {
+        int low = 0, high = uis.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (uis.get(mid).getDrawOrder() <= order) low = mid + 1;
+            else high = mid;
         }
+        return low;
+    }
+    
+    /**
+     * @return The bottom edge of {@code ui}, relative to the top of the menu's content.
+     */
+    private int bottomOf(UI ui) {
+        return ui.getPosition().y - getPosition().y + ui.getHeight();
+    }
+    
+    /**
+     * Re-reads the bounds of a child after it was moved or resized, so the scrollable range follows it.
+     */
+    public void updateBounds(UI ui) {
+        Integer slot = slots.get(ui);
+        if (slot == null) return;
+        bottoms.set(slot, bottomOf(ui));
+        updateContentHeight();
+    }
+    
+    /**
+     * Sets {@link #contentHeight} from the lowest child and refreshes the scrollbar.
+     */
+    protected void updateContentHeight() {
+        contentHeight = slots.isEmpty() ? 0 : Math.max(0, bottoms.max() + padding);
+        setupScrollbar();
     }
     
     public void clear() {
         for (UI ui : uis) ui.close();
+        handle.removeAll(slots.keySet());
         uis.clear();
-        contentHeight = 0;
-        setupScrollbar();
+        slots.clear();
+        bottoms.clear();
+        updateContentHeight();
     }
     
     public void removeUI(UI ui) {
+        Integer slot = slots.remove(ui);
+        if (slot == null) return;
         uis.remove(ui);
         handle.remove(ui);
-        
-        contentHeight = 0;
-        for (UI u : uis) {
-            contentHeight = Math.max(u.getHeight() + u.getPosition().y() + padding, contentHeight);
-        }
-        
-        Collections.sort(uis);
-        setupScrollbar();
+        bottoms.release(slot);
+        updateContentHeight();
     }
     
     public void removeAll(Collection<? extends UI> collection) {
-        uis.removeAll(collection);
+        Set<UI> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (UI ui : collection) {
+            Integer slot = slots.remove(ui);
+            if (slot == null) continue;
+            bottoms.release(slot);
+            removed.add(ui);
+        }
+        if (removed.isEmpty()) return;
+        
+        uis.removeIf(removed::contains);
+        handle.removeIf(removed::contains);
+        updateContentHeight();
     }
     
     public float getSensitivity() {
@@ -159,14 +219,21 @@ public class ScrollableMenu extends UI implements Container {
         super.draw();
         
         renderer.enableScissor(getPosition(), width, height);
+        drawContent();
+        renderer.disableScissor();
+        
+        scrollButton.draw();
+    }
+    
+    /**
+     * Draws the children, shifted by the current scroll. Called inside the menu's scissor.
+     */
+    protected void drawContent() {
         for (UI ui : uis) {
             ui.addOffset(0, scrollY);
             ui.draw();
             ui.addOffset(0, -scrollY);
         }
-        renderer.disableScissor();
-        
-        scrollButton.draw();
     }
     
     @Override
@@ -193,7 +260,9 @@ public class ScrollableMenu extends UI implements Container {
     }
     
     public void setPadding(int padding) {
+        if (this.padding == padding) return;
         this.padding = padding;
+        updateContentHeight();
     }
     
     public ScrollButton getScrollButton() {
@@ -219,7 +288,7 @@ public class ScrollableMenu extends UI implements Container {
      * Otherwise, the handle is sized proportionally to the content length.
      * </p>
      */
-    private void setupScrollbar() {
+    protected void setupScrollbar() {
         // 1. Determine total track height (which is the menu's height)
         int trackHeight = this.height;
         
@@ -312,7 +381,61 @@ public class ScrollableMenu extends UI implements Container {
         for (UI ui : uis) ui.close();
     }
     
-    public <U extends UI> void addAll(Collection<U> collection) {
-        for (U ui : collection) addUI(ui);
+    /**
+     * A max segment tree over the bottom edges of the children, one leaf per child.
+     * Adding, moving or removing a child updates one path, O(log n), instead of rescanning all children.
+     */
+    private static final class Bottoms {
+        private static final int EMPTY = Integer.MIN_VALUE;
+        
+        private int capacity = 16;
+        private int[] tree = filled(capacity * 2); // Leaves at [capacity, 2 * capacity)
+        private int[] free = new int[16];
+        private int freeCount, used;
+        
+        private static int[] filled(int length) {
+            int[] array = new int[length];
+            Arrays.fill(array, EMPTY);
+            return array;
+        }
+        
+        int allocate() {
+            if (freeCount > 0) return free[--freeCount];
+            if (used == capacity) grow();
+            return used++;
+        }
+        
+        void release(int slot) {
+            set(slot, EMPTY);
+            if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+            free[freeCount++] = slot;
+        }
+        
+        void set(int slot, int bottom) {
+            int node = capacity + slot;
+            tree[node] = bottom;
+            for (node >>= 1; node > 0; node >>= 1) {
+                tree[node] = Math.max(tree[node * 2], tree[node * 2 + 1]);
+            }
+        }
+        
+        int max() {
+            return tree[1];
+        }
+        
+        void clear() {
+            Arrays.fill(tree, EMPTY);
+            freeCount = used = 0;
+        }
+        
+        private void grow() {
+            int[] leaves = Arrays.copyOfRange(tree, capacity, capacity * 2);
+            capacity *= 2;
+            tree = filled(capacity * 2);
+            System.arraycopy(leaves, 0, tree, capacity, leaves.length);
+            for (int node = capacity - 1; node > 0; node--) {
+                tree[node] = Math.max(tree[node * 2], tree[node * 2 + 1]);
+            }
+        }
     }
 }
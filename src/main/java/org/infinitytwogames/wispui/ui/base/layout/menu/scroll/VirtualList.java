@@ -0,0 +1,358 @@
+package org.infinitytwogames.wispui.ui.base.layout.menu.scroll;
+
+import org.infinitytwogames.wispui.Window;
+import org.infinitytwogames.wispui.ui.base.UI;
+import org.infinitytwogames.wispui.ui.base.layout.Scene;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A scrollable list or grid that only keeps widgets for the items in view.
+ * <p>
+ * A {@link ScrollableMenu} holds one widget per item and draws all of them every frame. That does not
+ * scale to lists with thousands of entries. This list instead asks its {@link ListAdapter} for just
+ * enough widgets to cover the viewport plus an overscan margin, and re-binds them to other items as
+ * the user scrolls. The scrollbar, smooth scrolling and clipping are inherited from the menu.
+ * </p>
+ *
+ *
+ *
+ * <h2>Layout</h2>
+ * <ul>
+ * <li><b>Rows:</b> Items are laid out top to bottom, {@link #setColumns(int) columns} per row.
+ * Each item spans one column and takes its height from {@link ListAdapter#getItemHeight(int)},
+ * or the list's {@link #setItemHeight(int) item height}. A row is as tall as its tallest item.</li>
+ * <li><b>Content Height:</b> Computed from the item extents when the list is notified of a change,
+ * so the scrollbar is correct without any widget ever having been created.</li>
+ * <li><b>Visible Window:</b> Found with a binary search over the row offsets each frame, so the cost
+ * of a frame depends on the viewport, not on the number of items.</li>
+ * </ul>
+ *
+ * <h2>Data Changes</h2>
+ * <p>
+ * The list reads the adapter only when told to. Call {@link #notifyDataChanged()} after items were
+ * added, removed or reordered, and {@link #notifyItemChanged(int)} after a single item changed.
+ * </p>
+ *
+ * @param <V>
+ *         The widget type showing one item.
+ *
+ * @author Infinity Two Games
+ */
+public class VirtualList<V extends UI> extends ScrollableMenu {
+    protected final ListAdapter<V> adapter;
+    protected int itemHeight = 30;
+    protected int columns = 1;
+    protected int spacing;
+    protected int overscan = 2; // Rows bound above and below the viewport
+
+    private final ArrayDeque<V> pool = new ArrayDeque<>();
+
+    private int itemCount;
+    private int[] heights = new int[0]; // Per item
+    private int[] rowTops = new int[1]; // Top of each row relative to the content, plus the end of the last row
+    private int rowCount;
+
+    // Bound items [boundFirst, boundLast) and their widgets, slots[i - boundFirst]
+    private int boundFirst, boundLast;
+    private UI[] slots = new UI[0];
+    private UI[] nextSlots = new UI[0];
+    private boolean[] rebind = new boolean[0], nextRebind = new boolean[0];
+
+    public VirtualList(Scene scene, Window window, ListAdapter<V> adapter) {
+        super(scene, window);
+        if (adapter == null) throw new IllegalArgumentException("Adapter cannot be null.");
+        this.adapter = adapter;
+        notifyDataChanged();
+    }
+
+    /**
+     * Re-reads the item count and heights and re-binds every widget in view.
+     */
+    public void notifyDataChanged() {
+        itemCount = Math.max(0, adapter.getItemCount());
+        if (heights.length < itemCount) heights = new int[itemCount];
+        for (int i = 0; i < itemCount; i++) heights[i] = heightOf(i);
+
+        rowCount = (itemCount + columns - 1) / columns;
+        if (rowTops.length < rowCount + 1) rowTops = new int[rowCount + 1];
+        computeRows(0);
+        Arrays.fill(rebind, true);
+    }
+
+    /**
+     * Re-reads the height of one item and re-binds its widget if it is in view.
+     */
+    public void notifyItemChanged(int index) {
+        if (index < 0 || index >= itemCount) throw new IllegalArgumentException("Index " + index + " is out of range, count " + itemCount);
+
+        int height = heightOf(index);
+        if (height != heights[index]) {
+            heights[index] = height;
+            computeRows(index / columns);
+        }
+        if (index >= boundFirst && index < boundLast) rebind[index - boundFirst] = true;
+        markChanged();
+    }
+
+    private int heightOf(int index) {
+        int height = adapter.getItemHeight(index);
+        return height == ListAdapter.AUTO ? itemHeight : Math.max(0, height);
+    }
+
+    /**
+     * Recomputes the row offsets from {@code fromRow} on, and the content height.
+     */
+    private void computeRows(int fromRow) {
+        int top = fromRow == 0 ? padding : rowTops[fromRow];
+        for (int row = fromRow; row < rowCount; row++) {
+            rowTops[row] = top;
+            int tallest = 0;
+            int end = Math.min(itemCount, (row + 1) * columns);
+            for (int i = row * columns; i < end; i++) tallest = Math.max(tallest, heights[i]);
+            top += tallest + (row < rowCount - 1 ? spacing : 0);
+        }
+        rowTops[rowCount] = top;
+
+        contentHeight = rowCount == 0 ? 0 : top + padding;
+        setupScrollbar();
+        setTargetScrollY(targetScrollY); // Clamp to the new content
+        setScrollY(scrollY);
+    }
+
+    /**
+     * Binds widgets to the items in view, recycling the ones that scrolled out, then draws them.
+     */
+    @Override
+    protected void drawContent() {
+        int top = -scrollY, bottom = top + height;
+        int firstRow = Math.max(0, rowAt(top) - overscan);
+        int lastRow = Math.min(rowCount, rowAt(bottom) + 1 + overscan);
+        bind(Math.min(itemCount, firstRow * columns), Math.min(itemCount, lastRow * columns));
+
+        int columnWidth = getColumnWidth();
+        for (int i = boundFirst; i < boundLast; i++) {
+            UI view = slots[i - boundFirst];
+            int column = i % columns;
+            view.setSize(columnWidth, heights[i]);
+            view.setOffset(padding + column * (columnWidth + spacing), rowTops[i / columns] + scrollY);
+            if (!view.isHidden()) view.draw();
+        }
+    }
+
+    /**
+     * @return The row containing content position {@code y}, clamped to the existing rows.
+     */
+    private int rowAt(int y) {
+        int low = 0, high = rowCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (rowTops[mid] <= y) low = mid;
+            else high = mid - 1;
+        }
+        return low;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void bind(int first, int last) {
+        int count = last - first;
+        if (nextSlots.length < count) {
+            nextSlots = new UI[Math.max(count, nextSlots.length * 2)];
+            nextRebind = new boolean[nextSlots.length];
+        }
+
+        // Keep the widgets of items that stay in view, recycle the rest
+        for (int i = boundFirst; i < boundLast; i++) {
+            UI view = slots[i - boundFirst];
+            slots[i - boundFirst] = null;
+            if (i >= first && i < last) {
+                nextSlots[i - first] = view;
+                nextRebind[i - first] = rebind[i - boundFirst];
+            } else {
+                recycle((V) view);
+            }
+        }
+
+        for (int i = first; i < last; i++) {
+            UI view = nextSlots[i - first];
+            if (view == null) {
+                view = obtain();
+                nextSlots[i - first] = view;
+                nextRebind[i - first] = true;
+            }
+            if (nextRebind[i - first]) {
+                adapter.bindView((V) view, i);
+                nextRebind[i - first] = false;
+            }
+        }
+
+        UI[] swap = slots;
+        slots = nextSlots;
+        nextSlots = swap;
+        boolean[] swapRebind = rebind;
+        rebind = nextRebind;
+        nextRebind = swapRebind;
+        boundFirst = first;
+        boundLast = last;
+    }
+
+    private V obtain() {
+        V view = pool.poll();
+        if (view == null) {
+            view = adapter.createView();
+            view.setParent(this);
+            view.setAnchor(0, 0);
+            view.setPivot(0, 0);
+            view.setDrawOrder(drawOrder + 1);
+        }
+        uis.add(view);
+        handle.add(view);
+        return view;
+    }
+
+    private void recycle(V view) {
+        uis.remove(view);
+        handle.remove(view);
+        if (view.isHovering()) {
+            view.setHovering(false);
+            view.onMouseHoverEnded();
+        }
+        adapter.recycleView(view);
+        pool.push(view);
+    }
+
+    /**
+     * Scrolls so the row of the item at {@code index} is at the top, or as close as the content allows.
+     */
+    public void scrollToItem(int index) {
+        if (index < 0 || index >= itemCount) throw new IllegalArgumentException("Index " + index + " is out of range, count " + itemCount);
+        setTargetScrollY(padding - rowTops[index / columns]);
+    }
+
+    /**
+     * @return The widget showing the item at {@code index}, or {@code null} if it is not in view.
+     */
+    @SuppressWarnings("unchecked")
+    public V getView(int index) {
+        if (index < boundFirst || index >= boundLast) return null;
+        return (V) slots[index - boundFirst];
+    }
+
+    public int getColumnWidth() {
+        int inner = width - padding * 2 - (scrollButton.isHidden() ? 0 : scrollButton.getWidth());
+        return Math.max(0, (inner - spacing * (columns - 1)) / columns);
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public int getItemHeight() {
+        return itemHeight;
+    }
+
+    /**
+     * Sets the height of items whose adapter height is {@link ListAdapter#AUTO}.
+     */
+    public void setItemHeight(int itemHeight) {
+        if (itemHeight < 0) throw new IllegalArgumentException("Item height cannot be negative, got " + itemHeight);
+        if (this.itemHeight == itemHeight) return;
+        this.itemHeight = itemHeight;
+        notifyDataChanged();
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public void setColumns(int columns) {
+        if (columns < 1) throw new IllegalArgumentException("A list needs at least one column, got " + columns);
+        if (this.columns == columns) return;
+        this.columns = columns;
+        notifyDataChanged();
+    }
+
+    public int getSpacing() {
+        return spacing;
+    }
+
+    public void setSpacing(int spacing) {
+        if (this.spacing == spacing) return;
+        this.spacing = spacing;
+        notifyDataChanged();
+    }
+
+    public int getOverscan() {
+        return overscan;
+    }
+
+    public void setOverscan(int overscan) {
+        if (overscan < 0) throw new IllegalArgumentException("Overscan cannot be negative, got " + overscan);
+        this.overscan = overscan;
+    }
+
+    /**
+     * The content height of a virtual list comes from its item extents, not from its widgets.
+     */
+    @Override
+    protected void updateContentHeight() {
+        computeRows(0);
+    }
+
+    @Override
+    public void setHeight(int height) {
+        super.setHeight(height);
+        setScrollY(scrollY); // A taller viewport may have less to scroll
+    }
+
+    @Override
+    public void setDrawOrder(int drawOrder) {
+        super.setDrawOrder(drawOrder);
+        for (V view : pool) view.setDrawOrder(drawOrder + 1);
+    }
+
+    @Override
+    public void addUI(UI ui) {
+        throw new IllegalStateException("A virtual list creates its own widgets through its adapter.");
+    }
+
+    @Override
+    public void removeUI(UI ui) {
+        throw new IllegalStateException("A virtual list creates its own widgets through its adapter.");
+    }
+
+    @Override
+    public <U extends UI> void addAll(Collection<U> collection) {
+        throw new IllegalStateException("A virtual list creates its own widgets through its adapter.");
+    }
+
+    @Override
+    public void removeAll(Collection<? extends UI> collection) {
+        throw new IllegalStateException("A virtual list creates its own widgets through its adapter.");
+    }
+
+    /**
+     * Closes all widgets, bound and pooled. New ones are created on the next draw.
+     */
+    @Override
+    public void clear() {
+        cleanup();
+        setupScrollbar();
+    }
+
+    @Override
+    public void cleanup() {
+        for (int i = boundFirst; i < boundLast; i++) {
+            slots[i - boundFirst].close();
+            slots[i - boundFirst] = null;
+        }
+        for (V view : pool) view.close();
+
+        pool.clear();
+        handle.removeAll(uis);
+        uis.clear();
+        boundFirst = boundLast = 0;
+    }
+}
@@ -0,0 +1,177 @@
+package org.infinitytwogames.wispui.event.bus;
+
+import org.infinitytwogames.wispui.event.Event;
+import org.infinitytwogames.wispui.event.SubscribeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncEventQueueTest {
+    @Test
+    void eventsWaitForTheDrainAndKeepTheirOrder() {
+        EventBus bus = new EventBus();
+        Recorder recorder = new Recorder();
+        bus.register(recorder);
+
+        bus.postAsync(new Value(1));
+        bus.postAsync(new Value(2));
+        bus.postAsync(new Value(3));
+        assertTrue(recorder.values.isEmpty());
+
+        assertEquals(3, bus.drainAsync());
+        assertEquals(List.of(1, 2, 3), recorder.values);
+        assertEquals(0, bus.drainAsync());
+    }
+
+    @Test
+    void fullQueueRejectsUntilDrained() {
+        EventBus bus = new EventBus();
+        Recorder recorder = new Recorder();
+        bus.register(recorder);
+        bus.setAsyncCapacity(2);
+
+        assertTrue(bus.postAsync(new Value(1)));
+        assertTrue(bus.postAsync(new Value(2)));
+        assertFalse(bus.postAsync(new Value(3)));
+        assertFalse(bus.postAsync("key", new Value(4)));
+
+        bus.drainAsync();
+        assertTrue(bus.postAsync(new Value(5)));
+        bus.drainAsync();
+
+        assertEquals(List.of(1, 2, 5), recorder.values);
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        EventBus bus = new EventBus();
+        assertThrows(IllegalArgumentException.class, () -> bus.setAsyncCapacity(0));
+    }
+
+    @Test
+    void keyedEventsCollapseToTheLatest() {
+        EventBus bus = new EventBus();
+        Recorder recorder = new Recorder();
+        bus.register(recorder);
+
+        bus.postAsync("progress", new Value(1));
+        bus.postAsync(new Value(10));
+        bus.postAsync("progress", new Value(2));
+        bus.postAsync("progress", new Value(3));
+
+        assertEquals(2, bus.drainAsync());
+        assertEquals(List.of(3, 10), recorder.values); // The key keeps the position of its first event
+    }
+
+    @Test
+    void coalescingIntoAPendingKeyIgnoresCapacity() {
+        EventBus bus = new EventBus();
+        Recorder recorder = new Recorder();
+        bus.register(recorder);
+        bus.setAsyncCapacity(1);
+
+        assertTrue(bus.postAsync("progress", new Value(1)));
+        assertTrue(bus.postAsync("progress", new Value(2))); // Replaces, takes no new room
+        assertFalse(bus.postAsync("other", new Value(3)));
+
+        bus.drainAsync();
+        assertEquals(List.of(2), recorder.values);
+    }
+
+    @Test
+    void keyStartsOverAfterTheDrain() {
+        EventBus bus = new EventBus();
+        Recorder recorder = new Recorder();
+        bus.register(recorder);
+
+        bus.postAsync("progress", new Value(1));
+        bus.drainAsync();
+        bus.postAsync("progress", new Value(2));
+        bus.drainAsync();
+
+        assertEquals(List.of(1, 2), recorder.values);
+    }
+
+    @Test
+    void eventsPostedWhileDrainingWaitForTheNextDrain() {
+        EventBus bus = new EventBus();
+        Reposter reposter = new Reposter(bus);
+        bus.register(reposter);
+
+        bus.postAsync(new Value(1));
+
+        assertEquals(1, bus.drainAsync());
+        assertEquals(1, bus.drainAsync());
+        assertEquals(List.of(1, 2), reposter.values);
+    }
+
+    @Test
+    void concurrentProducersLoseNothing() throws InterruptedException {
+        EventBus bus = new EventBus();
+        Recorder recorder = new Recorder();
+        bus.register(recorder);
+        int threads = 4, perThread = 5_000;
+        bus.setAsyncCapacity(threads * perThread);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            Thread producer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) bus.postAsync(new Value(base + i));
+            });
+            producer.start();
+            producers.add(producer);
+        }
+
+        start.countDown();
+        int delivered = 0;
+        while (producers.stream().anyMatch(Thread::isAlive)) delivered += bus.drainAsync();
+        for (Thread producer : producers) producer.join();
+        delivered += bus.drainAsync();
+
+        assertEquals(threads * perThread, delivered);
+        assertEquals(threads * perThread, recorder.values.stream().distinct().count());
+    }
+
+    static class Value extends Event {
+        final int value;
+
+        Value(int value) {
+            this.value = value;
+        }
+    }
+
+    public static class Recorder {
+        final List<Integer> values = new ArrayList<>();
+
+        @SubscribeEvent
+        public void onValue(Value e) {
+            values.add(e.value);
+        }
+    }
+
+    public static class Reposter {
+        final List<Integer> values = new ArrayList<>();
+        private final EventBus bus;
+
+        Reposter(EventBus bus) {
+            this.bus = bus;
+        }
+
+        @SubscribeEvent
+        public void onValue(Value e) {
+            values.add(e.value);
+            if (e.value == 1) bus.postAsync(new Value(2));
+        }
+    }
+}
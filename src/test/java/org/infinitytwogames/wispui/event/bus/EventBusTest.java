@@ -0,0 +1,213 @@
+package org.infinitytwogames.wispui.event.bus;
+
+import org.infinitytwogames.wispui.event.ConsumableEvent;
+import org.infinitytwogames.wispui.event.Event;
+import org.infinitytwogames.wispui.event.SubscribeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBusTest {
+    @Test
+    void listenersRunByPriorityThenRegistrationOrder() {
+        EventBus bus = new EventBus();
+        List<String> calls = new ArrayList<>();
+        bus.register(new Low(calls));
+        bus.register(new Normal(calls, "first"));
+        bus.register(new High(calls));
+        bus.register(new Normal(calls, "second"));
+
+        bus.post(new Click());
+
+        assertEquals(List.of("high", "first", "second", "low"), calls);
+    }
+
+    @Test
+    void consumedEventOnlyReachesObservers() {
+        EventBus bus = new EventBus();
+        List<String> calls = new ArrayList<>();
+        bus.register(new Low(calls));
+        bus.register(new Consumer(calls));
+        bus.register(new Observer(calls));
+
+        Click click = new Click();
+        bus.post(click);
+
+        assertTrue(click.isConsumed());
+        assertEquals(List.of("consumer", "observer"), calls);
+    }
+
+    @Test
+    void listenersOfSuperclassesSeeSubclassEvents() {
+        EventBus bus = new EventBus();
+        List<String> calls = new ArrayList<>();
+        bus.register(new Normal(calls, "click"));
+        bus.register(new Observer(calls));
+
+        bus.post(new DoubleClick());
+
+        assertEquals(List.of("click", "observer"), calls);
+    }
+
+    @Test
+    void weakListenerReceivesEventsWhileReachable() {
+        EventBus bus = new EventBus();
+        Counter counter = new Counter();
+        bus.registerWeak(counter);
+
+        bus.post(new Ping());
+        bus.post(new Ping());
+
+        assertEquals(2, counter.count);
+    }
+
+    @Test
+    void weakListenerDoesNotKeepItselfAlive() {
+        EventBus bus = new EventBus();
+        WeakReference<Counter> ref = registerUnreferenced(bus);
+
+        assertTrue(collect(ref), "The bus must only hold weak listeners weakly");
+        bus.post(new Ping()); // Expunges the collected entries, must not reach the dead listener
+    }
+
+    @Test
+    void collectedWeakListenersLeaveOthersRegistered() {
+        EventBus bus = new EventBus();
+        Counter survivor = new Counter();
+        bus.registerWeak(survivor);
+        WeakReference<Counter> ref = registerUnreferenced(bus);
+
+        assertTrue(collect(ref));
+        bus.post(new Ping());
+
+        assertEquals(1, survivor.count);
+    }
+
+    @Test
+    void unregisterRemovesWeakListener() {
+        EventBus bus = new EventBus();
+        Counter counter = new Counter();
+        bus.registerWeak(counter);
+
+        bus.unregister(counter);
+        bus.post(new Ping());
+
+        assertEquals(0, counter.count);
+    }
+
+    @Test
+    void closingScopeDisconnectsItsMembers() {
+        EventBus bus = new EventBus();
+        EventScope scope = new EventScope(bus);
+        Counter member = new Counter(), outsider = new Counter();
+        scope.connect(member);
+        bus.register(outsider);
+
+        scope.close();
+        bus.post(new Ping());
+
+        assertEquals(0, member.count);
+        assertEquals(1, outsider.count);
+    }
+
+    private static WeakReference<Counter> registerUnreferenced(EventBus bus) {
+        Counter counter = new Counter();
+        bus.registerWeak(counter);
+        return new WeakReference<>(counter);
+    }
+
+    private static boolean collect(WeakReference<?> ref) {
+        for (int i = 0; i < 50 && ref.get() != null; i++) System.gc(); // A hint, so ask a few times
+        return ref.get() == null;
+    }
+
+    static class Ping extends Event {
+    }
+
+    public static class Counter {
+        int count;
+
+        @SubscribeEvent
+        public void onPing(Ping e) {
+            count++;
+        }
+    }
+
+    static class Click extends ConsumableEvent {
+    }
+
+    static class DoubleClick extends Click {
+    }
+
+    public static class High {
+        private final List<String> calls;
+
+        High(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @SubscribeEvent(priority = 10)
+        public void onClick(Click e) {
+            calls.add("high");
+        }
+    }
+
+    public static class Normal {
+        private final List<String> calls;
+        private final String name;
+
+        Normal(List<String> calls, String name) {
+            this.calls = calls;
+            this.name = name;
+        }
+
+        @SubscribeEvent
+        public void onClick(Click e) {
+            calls.add(name);
+        }
+    }
+
+    public static class Low {
+        private final List<String> calls;
+
+        Low(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @SubscribeEvent(priority = -10)
+        public void onClick(Click e) {
+            calls.add("low");
+        }
+    }
+
+    public static class Consumer {
+        private final List<String> calls;
+
+        Consumer(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @SubscribeEvent(priority = 100)
+        public void onClick(Click e) {
+            calls.add("consumer");
+            e.consume();
+        }
+    }
+
+    public static class Observer {
+        private final List<String> calls;
+
+        Observer(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @SubscribeEvent(priority = -100, receiveConsumed = true)
+        public void onClick(Click e) {
+            calls.add("observer");
+        }
+    }
+}
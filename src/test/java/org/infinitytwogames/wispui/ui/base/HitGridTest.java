@@ -0,0 +1,142 @@
+package org.infinitytwogames.wispui.ui.base;
+
+import org.infinitytwogames.wispui.Display;
+import org.infinitytwogames.wispui.event.input.mouse.MouseButtonEvent;
+import org.infinitytwogames.wispui.event.input.mouse.MouseHoverEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HitGridTest {
+    private final HitGrid grid = new HitGrid(64);
+    private final List<UI> hits = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Display.width = 1920;
+        Display.height = 1080;
+    }
+
+    @Test
+    void queryReturnsOverlappingElementsInListOrder() {
+        Box back = new Box(0, 0, 500, 500);
+        Box middle = new Box(100, 100, 50, 50);
+        Box front = new Box(120, 120, 200, 200);
+        grid.sync(List.of(back, middle, front));
+
+        grid.query(130, 130, hits);
+        assertEquals(List.of(back, middle, front), hits);
+
+        grid.query(400, 400, hits);
+        assertEquals(List.of(back), hits);
+    }
+
+    @Test
+    void queryMissesPointsOutsideEveryElement() {
+        grid.sync(List.of(new Box(10, 10, 20, 20)));
+        hits.add(new Box(0, 0, 1, 1)); // The output is cleared first
+
+        grid.query(40, 40, hits);
+        assertTrue(hits.isEmpty());
+
+        grid.query(-50, 5000, hits); // Clamped to an edge cell, but still tested against the bounds
+        assertTrue(hits.isEmpty());
+    }
+
+    @Test
+    void elementSpanningCellsIsFoundFromEachCell() {
+        Box wide = new Box(30, 30, 300, 100);
+        grid.sync(List.of(wide));
+
+        for (int x = 40; x < 320; x += 64) {
+            grid.query(x, 100, hits);
+            assertEquals(List.of(wide), hits, "x = " + x);
+        }
+    }
+
+    @Test
+    void movedElementIsReindexedOnSync() {
+        Box box = new Box(10, 10, 20, 20);
+        List<UI> uis = List.of(box);
+        grid.sync(uis);
+
+        box.setOffset(700, 400);
+        box.draw();
+        grid.sync(uis);
+
+        grid.query(15, 15, hits);
+        assertTrue(hits.isEmpty());
+        grid.query(710, 410, hits);
+        assertEquals(List.of(box), hits);
+    }
+
+    @Test
+    void resizedElementIsReindexedOnSync() {
+        Box box = new Box(10, 10, 20, 20);
+        List<UI> uis = List.of(box);
+        grid.sync(uis);
+
+        box.setSize(200, 200);
+        box.draw();
+        grid.sync(uis);
+
+        grid.query(150, 150, hits);
+        assertEquals(List.of(box), hits);
+    }
+
+    @Test
+    void changedListIsRebuilt() {
+        Box first = new Box(10, 10, 20, 20);
+        grid.sync(List.of(first));
+
+        Box second = new Box(10, 10, 20, 20);
+        grid.sync(List.of(first, second));
+
+        grid.query(15, 15, hits);
+        assertEquals(List.of(first, second), hits);
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        grid.sync(List.of(new Box(10, 10, 20, 20)));
+
+        grid.clear();
+        grid.query(15, 15, hits);
+
+        assertTrue(hits.isEmpty());
+    }
+
+    static class Box extends UI {
+        Box(int x, int y, int width, int height) {
+            super(null);
+            setOffset(x, y);
+            setSize(width, height);
+            markDrawn();
+        }
+
+        @Override
+        public void draw() {
+            markDrawn(); // Headless, only the hit index is told
+        }
+
+        @Override
+        public void onMouseClicked(MouseButtonEvent e) {
+        }
+
+        @Override
+        public void onMouseHover(MouseHoverEvent e) {
+        }
+
+        @Override
+        public void onMouseHoverEnded() {
+        }
+
+        @Override
+        public void cleanup() {
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package org.infinitytwogames.wispui.ui.base.layout.flex;
+
+import org.infinitytwogames.wispui.event.input.mouse.MouseButtonEvent;
+import org.infinitytwogames.wispui.event.input.mouse.MouseHoverEvent;
+import org.infinitytwogames.wispui.renderer.UIRenderer;
+import org.infinitytwogames.wispui.ui.base.UI;
+import org.joml.Vector2i;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlexBoxTest {
+    private final FlexBox box = new FlexBox((UIRenderer) null);
+
+    @Test
+    void growSharesFreeSpaceByWeight() {
+        box.setSize(300, 50);
+        Box a = new Box(50, 20), b = new Box(50, 20);
+        box.add(a).grow(1);
+        box.add(b).grow(2);
+
+        box.arrange();
+
+        assertEquals(117, a.getWidth());
+        assertEquals(183, b.getWidth());
+        assertEquals(new Vector2i(117, 0), b.getOffset());
+        assertEquals(50, a.getHeight(), "Stretched across the line");
+    }
+
+    @Test
+    void shrinkIsWeightedByBasis() {
+        box.setSize(150, 50);
+        Box a = new Box(100, 20), b = new Box(200, 20);
+        box.add(a);
+        box.add(b);
+
+        box.arrange();
+
+        assertEquals(50, a.getWidth());
+        assertEquals(100, b.getWidth());
+    }
+
+    @Test
+    void clampedChildGivesItsShareToTheOthers() {
+        box.setSize(300, 50);
+        Box a = new Box(50, 20), b = new Box(50, 20);
+        box.add(a).grow(1).maxWidth(60);
+        box.add(b).grow(1);
+
+        box.arrange();
+
+        assertEquals(60, a.getWidth());
+        assertEquals(240, b.getWidth());
+    }
+
+    @Test
+    void justifyDistributesTheRemainingSpace() {
+        box.setSize(300, 50);
+        Box a = new Box(50, 20), b = new Box(50, 20), c = new Box(50, 20);
+        box.add(a);
+        box.add(b);
+        box.add(c);
+
+        box.setJustify(FlexJustify.SPACE_BETWEEN);
+        box.arrange();
+        assertEquals(125, b.getOffset().x);
+        assertEquals(250, c.getOffset().x);
+
+        box.setJustify(FlexJustify.CENTER);
+        box.arrange();
+        assertEquals(75, a.getOffset().x);
+        assertEquals(175, c.getOffset().x);
+    }
+
+    @Test
+    void wrapStartsNewLinesWithGap() {
+        box.setSize(120, 200);
+        box.setWrap(true);
+        box.setGap(10);
+        box.setAlign(FlexAlign.START);
+        Box a = new Box(50, 20), b = new Box(50, 20), c = new Box(50, 20);
+        box.add(a);
+        box.add(b);
+        box.add(c);
+
+        box.arrange();
+
+        assertEquals(new Vector2i(0, 0), a.getOffset());
+        assertEquals(new Vector2i(60, 0), b.getOffset());
+        assertEquals(new Vector2i(0, 30), c.getOffset());
+    }
+
+    @Test
+    void columnCentersAcrossAndPads() {
+        box.setSize(100, 300);
+        box.setDirection(FlexDirection.COLUMN);
+        box.setAlign(FlexAlign.CENTER);
+        box.setPadding(10);
+        Box a = new Box(40, 50);
+        box.add(a);
+
+        box.arrange();
+
+        assertEquals(new Vector2i(30, 10), a.getOffset());
+        assertEquals(40, a.getWidth());
+        assertEquals(50, a.getHeight());
+    }
+
+    @Test
+    void hiddenChildrenTakeNoSpace() {
+        box.setSize(300, 50);
+        Box a = new Box(50, 20), b = new Box(50, 20), c = new Box(50, 20);
+        box.add(a);
+        box.add(b);
+        box.add(c);
+        box.arrange();
+
+        b.setHidden(true);
+        box.arrange();
+
+        assertEquals(50, c.getOffset().x);
+    }
+
+    @Test
+    void nestedBoxIsMeasuredByItsContent() {
+        FlexBox inner = new FlexBox((UIRenderer) null);
+        inner.setGap(5);
+        inner.add(new Box(30, 20));
+        inner.add(new Box(30, 20));
+        box.setSize(300, 50);
+        box.setAlign(FlexAlign.START);
+        box.add(inner);
+        Box after = new Box(10, 10);
+        box.add(after);
+
+        box.arrange();
+
+        assertEquals(65, inner.getWidth());
+        assertEquals(20, inner.getHeight());
+        assertEquals(65, after.getOffset().x);
+    }
+
+    @Test
+    void changingANestedItemRelaysTheOuterBox() {
+        FlexBox inner = new FlexBox((UIRenderer) null);
+        Box leaf = new Box(30, 20);
+        FlexItem item = inner.add(leaf);
+        box.setSize(300, 50);
+        box.add(inner);
+        Box after = new Box(10, 10);
+        box.add(after);
+        box.arrange();
+
+        item.basis(80);
+        box.arrange();
+
+        assertEquals(80, after.getOffset().x);
+    }
+
+    @Test
+    void settingTheSameValuesKeepsTheLayout() {
+        box.setSize(300, 50);
+        Box a = new Box(50, 20);
+        FlexItem item = box.add(a).grow(1);
+        box.arrange();
+
+        a.setSize(7, 7); // Only a new layout would undo this
+        box.setGap(box.getGap());
+        box.setJustify(box.getJustify());
+        box.setWrap(box.isWrap());
+        item.grow(1).shrink(1).basis(FlexItem.AUTO);
+        box.arrange();
+
+        assertEquals(7, a.getWidth());
+    }
+
+    @Test
+    void removedChildIsDetached() {
+        Box a = new Box(50, 20);
+        box.add(a);
+
+        assertTrue(box.remove(a));
+
+        assertNull(a.getParent());
+        assertTrue(box.getUIs().isEmpty());
+        assertFalse(box.remove(a));
+    }
+
+    @Test
+    void itemCannotJoinTwoBoxes() {
+        FlexItem item = box.add(new Box(10, 10));
+        FlexBox other = new FlexBox((UIRenderer) null);
+
+        assertThrows(IllegalArgumentException.class, () -> other.add(new Box(10, 10), item));
+    }
+
+    static class Box extends UI {
+        Box(int width, int height) {
+            super(null);
+            setSize(width, height);
+        }
+
+        @Override
+        public void draw() {
+        }
+
+        @Override
+        public void onMouseClicked(MouseButtonEvent e) {
+        }
+
+        @Override
+        public void onMouseHover(MouseHoverEvent e) {
+        }
+
+        @Override
+        public void onMouseHoverEnded() {
+        }
+
+        @Override
+        public void cleanup() {
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.infinitytwogames.wispui.ui.base.layout.menu.scroll;
+
+import org.infinitytwogames.wispui.event.bus.EventBus;
+import org.infinitytwogames.wispui.event.bus.EventScope;
+import org.infinitytwogames.wispui.ui.base.layout.Scene;
+
+import java.lang.reflect.Field;
+
+/**
+ * Creates scenes for tests without running the scene constructor, which loads the tooltip font
+ * and needs an OpenGL context. Only the event bus and scope are set up; there is no renderer.
+ */
+final class HeadlessScene {
+    private HeadlessScene() {
+    }
+
+    static Scene create() {
+        try {
+            Field theUnsafe = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+            Scene scene = (Scene) unsafe.getClass().getMethod("allocateInstance", Class.class).invoke(unsafe, Scene.class);
+
+            EventBus bus = new EventBus();
+            set(scene, "bus", bus);
+            set(scene, "events", new EventScope(bus));
+            return scene;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create a headless scene", e);
+        }
+    }
+
+    private static void set(Scene scene, String name, Object value) throws ReflectiveOperationException {
+        Field field = Scene.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(scene, value);
+    }
+}
@@ -0,0 +1,146 @@
+package org.infinitytwogames.wispui.ui.base.layout.menu.scroll;
+
+import org.infinitytwogames.wispui.event.input.mouse.MouseButtonEvent;
+import org.infinitytwogames.wispui.event.input.mouse.MouseHoverEvent;
+import org.infinitytwogames.wispui.ui.base.UI;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScrollableMenuTest {
+    private final ScrollableMenu menu = new ScrollableMenu(HeadlessScene.create(), null);
+
+    ScrollableMenuTest() {
+        menu.setSize(300, 400);
+    }
+
+    @Test
+    void contentHeightFollowsTheLowestChild() {
+        Box low = new Box(300, 50), high = new Box(100, 20);
+        menu.addUI(low);
+        menu.addUI(high);
+
+        assertEquals(300 + 50 + 5, menu.getContentHeight());
+
+        menu.removeUI(low);
+        assertEquals(100 + 20 + 5, menu.getContentHeight());
+
+        menu.removeUI(high);
+        assertEquals(0, menu.getContentHeight());
+    }
+
+    @Test
+    void boundsAreRelativeToTheMenu() {
+        menu.setOffset(0, 250);
+        menu.addUI(new Box(100, 20));
+
+        assertEquals(100 + 20 + 5, menu.getContentHeight());
+    }
+
+    @Test
+    void updateBoundsFollowsAMovedChild() {
+        Box box = new Box(100, 20);
+        menu.addUI(box);
+        menu.addUI(new Box(200, 20));
+
+        box.setOffset(0, 900);
+        menu.updateBounds(box);
+        assertEquals(900 + 20 + 5, menu.getContentHeight());
+
+        box.setOffset(0, 0);
+        menu.updateBounds(box);
+        assertEquals(200 + 20 + 5, menu.getContentHeight());
+    }
+
+    @Test
+    void childrenAreKeptInStableDrawOrder() {
+        Box a = new Box(0, 10, 2), b = new Box(0, 10, 0), c = new Box(0, 10, 1), d = new Box(0, 10, 0);
+        menu.addAll(List.of(a, b, c));
+        menu.addUI(d);
+
+        assertEquals(List.of(b, d, c, a), menu.uis);
+    }
+
+    @Test
+    void removeAllKeepsChildrenAndHitListInSync() {
+        List<Box> boxes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) boxes.add(new Box(i * 30, 20));
+        menu.addAll(boxes);
+
+        menu.removeAll(boxes.subList(5, 10));
+
+        assertEquals(boxes.subList(0, 5), menu.uis);
+        assertFalse(menu.getUIs().contains(boxes.get(7)));
+        assertTrue(menu.getUIs().contains(boxes.get(2)));
+        assertEquals(4 * 30 + 20 + 5, menu.getContentHeight());
+    }
+
+    @Test
+    void contentHeightMatchesARescanUnderChurn() {
+        Random random = new Random(42);
+        List<Box> live = new ArrayList<>();
+
+        for (int step = 0; step < 2_000; step++) {
+            if (live.isEmpty() || random.nextInt(3) > 0) {
+                Box box = new Box(random.nextInt(5_000), 10 + random.nextInt(40));
+                menu.addUI(box);
+                live.add(box);
+            } else {
+                menu.removeUI(live.remove(random.nextInt(live.size())));
+            }
+
+            int lowest = 0;
+            for (Box box : live) lowest = Math.max(lowest, box.getOffset().y + box.getHeight());
+            assertEquals(live.isEmpty() ? 0 : lowest + 5, menu.getContentHeight(), "step " + step);
+        }
+    }
+
+    @Test
+    void clearEmptiesTheMenu() {
+        Box box = new Box(100, 20);
+        menu.addUI(box);
+
+        menu.clear();
+
+        assertTrue(menu.uis.isEmpty());
+        assertFalse(menu.getUIs().contains(box));
+        assertEquals(0, menu.getContentHeight());
+    }
+
+    static class Box extends UI {
+        Box(int y, int height) {
+            this(y, height, 0);
+        }
+
+        Box(int y, int height, int drawOrder) {
+            super(null);
+            setOffset(0, y);
+            setSize(100, height);
+            setDrawOrder(drawOrder);
+        }
+
+        @Override
+        public void draw() {
+        }
+
+        @Override
+        public void onMouseClicked(MouseButtonEvent e) {
+        }
+
+        @Override
+        public void onMouseHover(MouseHoverEvent e) {
+        }
+
+        @Override
+        public void onMouseHoverEnded() {
+        }
+
+        @Override
+        public void cleanup() {
+        }
+    }
+}
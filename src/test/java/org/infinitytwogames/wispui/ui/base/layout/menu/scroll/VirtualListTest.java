@@ -0,0 +1,185 @@
+package org.infinitytwogames.wispui.ui.base.layout.menu.scroll;
+
+import org.infinitytwogames.wispui.event.input.mouse.MouseButtonEvent;
+import org.infinitytwogames.wispui.event.input.mouse.MouseHoverEvent;
+import org.infinitytwogames.wispui.ui.base.UI;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualListTest {
+    private final Adapter adapter = new Adapter(10_000);
+    private final VirtualList<Row> list = new VirtualList<>(HeadlessScene.create(), null, adapter);
+
+    VirtualListTest() {
+        list.setPadding(0);
+        list.setSize(400, 300);
+    }
+
+    @Test
+    void contentHeightComesFromItemExtents() {
+        assertEquals(10_000 * 30, list.getContentHeight());
+        assertEquals(0, adapter.created, "No widget is needed to size the list");
+
+        list.setSpacing(2);
+        assertEquals(10_000 * 30 + 9_999 * 2, list.getContentHeight());
+    }
+
+    @Test
+    void onlyTheViewportAndOverscanAreBound() {
+        list.drawContent();
+
+        // Rows 0 to 9 are visible, row 10 touches the bottom edge, plus two rows of overscan
+        for (int i = 0; i <= 12; i++) assertEquals(i, list.getView(i).item, "item " + i);
+        assertNull(list.getView(13));
+        assertEquals(13, adapter.created);
+    }
+
+    @Test
+    void scrollingRecyclesWidgets() {
+        for (int y = 0; y > -6_000; y -= 45) {
+            list.setScrollY(y);
+            list.drawContent();
+        }
+
+        // At most the rows a viewport can touch, plus overscan on both sides
+        int rows = 300 / 30 + 1 + 2 * list.getOverscan();
+        assertTrue(adapter.created <= rows, "Widgets are reused, created " + adapter.created);
+        int first = -list.getScrollY() / 30;
+        assertNull(list.getView(first - 3));
+        for (int i = first; i < first + 10; i++) {
+            Row view = list.getView(i);
+            assertEquals(i, view.item);
+            assertEquals(i * 30 + list.getScrollY(), view.getOffset().y);
+        }
+    }
+
+    @Test
+    void itemHeightsAreRespected() {
+        adapter.heights.put(0, 100);
+        list.notifyDataChanged();
+        list.drawContent();
+
+        assertEquals(100, list.getView(0).getHeight());
+        assertEquals(100, list.getView(1).getOffset().y);
+        assertEquals(10_000 * 30 + 70, list.getContentHeight());
+
+        adapter.heights.put(0, 10);
+        list.notifyItemChanged(0);
+        list.drawContent();
+
+        assertEquals(10, list.getView(1).getOffset().y);
+        assertEquals(10_000 * 30 - 20, list.getContentHeight());
+    }
+
+    @Test
+    void changedItemIsRebound() {
+        list.drawContent();
+        int binds = adapter.binds;
+
+        list.notifyItemChanged(3);
+        list.drawContent();
+
+        assertEquals(binds + 1, adapter.binds);
+        assertThrows(IllegalArgumentException.class, () -> list.notifyItemChanged(10_000));
+    }
+
+    @Test
+    void columnsShareRows() {
+        list.setColumns(4);
+        list.drawContent();
+
+        assertEquals(2_500 * 30, list.getContentHeight());
+        Row view = list.getView(5); // Row 1, column 1
+        assertEquals(list.getColumnWidth(), view.getOffset().x);
+        assertEquals(30, view.getOffset().y);
+    }
+
+    @Test
+    void scrollToItemTargetsItsRow() {
+        list.scrollToItem(100);
+
+        assertEquals(-3_000, list.targetScrollY);
+    }
+
+    @Test
+    void shrinkingTheDataReleasesViews() {
+        list.drawContent();
+
+        adapter.count = 3;
+        list.notifyDataChanged();
+        list.drawContent();
+
+        assertEquals(90, list.getContentHeight());
+        assertEquals(2, list.getView(2).item);
+        assertNull(list.getView(3));
+        assertEquals(0, list.getScrollY());
+    }
+
+    @Test
+    void childrenComeOnlyFromTheAdapter() {
+        assertThrows(IllegalStateException.class, () -> list.addUI(new Row()));
+    }
+
+    static class Adapter implements ListAdapter<Row> {
+        final Map<Integer, Integer> heights = new HashMap<>();
+        int count, created, binds;
+
+        Adapter(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public int getItemCount() {
+            return count;
+        }
+
+        @Override
+        public Row createView() {
+            created++;
+            return new Row();
+        }
+
+        @Override
+        public void bindView(Row view, int index) {
+            binds++;
+            view.item = index;
+        }
+
+        @Override
+        public int getItemHeight(int index) {
+            return heights.getOrDefault(index, AUTO);
+        }
+    }
+
+    static class Row extends UI {
+        int item = -1;
+
+        Row() {
+            super(null);
+        }
+
+        @Override
+        public void draw() {
+        }
+
+        @Override
+        public void onMouseClicked(MouseButtonEvent e) {
+        }
+
+        @Override
+        public void onMouseHover(MouseHoverEvent e) {
+        }
+
+        @Override
+        public void onMouseHoverEnded() {
+        }
+
+        @Override
+        public void cleanup() {
+        }
+    }
+}